@@ -0,0 +1,25 @@
+package com.sena.urbantracker.config.websocket;
+
+import com.sena.urbantracker.monitoring.infrastructure.websocket.BinaryTelemetryWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * WebSocket plano (sin SockJS) con frames binarios, junto al endpoint STOMP de WebSocketConfig
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class BinaryWebSocketConfig implements WebSocketConfigurer {
+
+    private final BinaryTelemetryWebSocketHandler binaryTelemetryWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(binaryTelemetryWebSocketHandler, "/ws/binary")
+                .setAllowedOrigins(WebSocketConfig.ALLOWED_ORIGINS);
+    }
+}
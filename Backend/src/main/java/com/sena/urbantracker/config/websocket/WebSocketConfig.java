@@ -1,23 +1,44 @@
 package com.sena.urbantracker.config.websocket;
 
+import com.sena.urbantracker.monitoring.infrastructure.websocket.OutboundSessionLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    static final String[] ALLOWED_ORIGINS = {"http://localhost:3000", "http://localhost:3001", "http://localhost:8081", "http://localhost:8085", "http://10.3.235.231:3000"};
+
+    private final OutboundSessionLimiter outboundSessionLimiter;
+
+    @Value("${monitoring.websocket.inbound.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // La cola con límites reales es la de OutboundSessionLimiter; la de Spring queda como respaldo
+        registration.setMessageSizeLimit(messageSizeLimit)
+                .setSendBufferSizeLimit(outboundSessionLimiter.getBufferSizeLimit())
+                .setSendTimeLimit(outboundSessionLimiter.getSendTimeLimitMs())
+                .addDecoratorFactory(outboundSessionLimiter::decorate);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        registry.addEndpoint("/ws/connect").setAllowedOrigins("http://localhost:3000", "http://localhost:3001", "http://localhost:8081", "http://localhost:8085", "http://10.3.235.231:3000").withSockJS();
+        registry.addEndpoint("/ws/connect").setAllowedOrigins(ALLOWED_ORIGINS).withSockJS();
     }
 }
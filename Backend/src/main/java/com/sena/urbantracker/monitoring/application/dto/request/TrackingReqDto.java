@@ -2,7 +2,11 @@ package com.sena.urbantracker.monitoring.application.dto.request;
 
 import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
 import com.sena.urbantracker.vehicles.infrastructure.persistence.model.VehicleModel;
+import com.fasterxml.jackson.annotation.JsonAlias;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -37,4 +41,38 @@ public class TrackingReqDto {
 
     @NotNull(message = "La fuente de datos es obligatoria")
     private DataSourceType dataSource;
+
+    // Datos opcionales del GPS del dispositivo. Sin alias "speed": ese nombre suele venir en m/s o nudos
+    @DecimalMin(value = "0.0", message = "La velocidad no puede ser negativa")
+    private Double speedKmh;
+
+    @JsonAlias({"bearing", "course"})
+    @DecimalMin(value = "0.0", message = "El rumbo debe estar entre 0 y 360 grados")
+    @DecimalMax(value = "360.0", message = "El rumbo debe estar entre 0 y 360 grados")
+    private Double heading;
+
+    @JsonAlias("accuracy")
+    @DecimalMin(value = "0.0", message = "La precisión no puede ser negativa")
+    private Double accuracyMeters;
+
+    @DecimalMin(value = "0.0", message = "El HDOP no puede ser negativo")
+    private Double hdop;
+
+    @Min(value = 0, message = "Los satélites no pueden ser negativos")
+    private Integer satellites;
+
+    /**
+     * Jackson convierte el texto "NaN" o "Infinity" en Double; una velocidad así se descarta
+     */
+    public void setSpeedKmh(Double speedKmh) {
+        this.speedKmh = speedKmh != null && Double.isFinite(speedKmh) ? speedKmh : null;
+    }
+
+    /**
+     * Velocidad reportada por el dispositivo, o NaN si no la envió o no es válida
+     * (negativa, NaN o infinita; el builder no pasa por el setter)
+     */
+    public double reportedSpeedKmh() {
+        return speedKmh != null && Double.isFinite(speedKmh) && speedKmh >= 0 ? speedKmh : Double.NaN;
+    }
 }
\ No newline at end of file
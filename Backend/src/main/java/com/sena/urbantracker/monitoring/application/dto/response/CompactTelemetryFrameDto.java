@@ -0,0 +1,34 @@
+package com.sena.urbantracker.monitoring.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Frame del protocolo compacto de telemetría (tópicos .../compact).
+ *
+ * Las columnas i, lat, lon y t van alineadas: una entrada por vehículo.
+ * En un keyframe (type "K") los valores son absolutos; en un delta (type "D")
+ * son la diferencia con el último valor enviado en el mismo destino, y un
+ * vehículo sin valor previo se toma como 0. Latitud y longitud van en
+ * millonésimas de grado y t en segundos epoch.
+ *
+ * Un delta solo se aplica si su base es el seq del último frame aplicado. Los
+ * deltas que llegan antes del primer keyframe se guardan y se aplican después de
+ * él si encadenan; ante un hueco el cliente pide un keyframe con
+ * /app/telemetry/compact/resync.
+ */
+@Builder
+@Data
+public class CompactTelemetryFrameDto {
+
+    private String type; // "K" keyframe, "D" delta
+    private long seq;
+    private Long base; // seq del frame sobre el que se aplica el delta; null en keyframes
+    private Map<Integer, String> ids; // índice -> vehicleId de los vehículos cuyo valor previo vuelve a 0
+    private int[] i;
+    private int[] lat;
+    private int[] lon;
+    private long[] t;
+}
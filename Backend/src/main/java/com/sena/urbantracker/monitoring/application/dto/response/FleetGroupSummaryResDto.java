@@ -0,0 +1,15 @@
+package com.sena.urbantracker.monitoring.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class FleetGroupSummaryResDto {
+
+    private Long id; // routeId o companyId; null en el total de la flota
+    private int activeVehicles;
+    private int parkedVehicles;
+    private int staleVehicles;
+    private Double averageSpeedKmh; // null si ningún vehículo activo tiene velocidad
+}
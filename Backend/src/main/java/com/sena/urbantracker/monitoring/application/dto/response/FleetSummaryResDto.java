@@ -0,0 +1,16 @@
+package com.sena.urbantracker.monitoring.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Builder
+@Data
+public class FleetSummaryResDto {
+
+    private long timestamp; // epoch millis
+    private FleetGroupSummaryResDto fleet;
+    private List<FleetGroupSummaryResDto> routes;
+    private List<FleetGroupSummaryResDto> companies;
+}
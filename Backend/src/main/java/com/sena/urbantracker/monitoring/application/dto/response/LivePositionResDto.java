@@ -0,0 +1,24 @@
+package com.sena.urbantracker.monitoring.application.dto.response;
+
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class LivePositionResDto {
+
+    private String vehicleId;
+    private Long routeId;
+    private Long companyId;
+    private double latitude;
+    private double longitude;
+    private long timestamp; // epoch millis
+    private DataSourceType dataSource;
+    private Double speedKmh;
+    private Double heading;
+    private Double accuracyMeters;
+    private Double hdop;
+    private Integer satellites;
+    private Double distanceMeters; // solo en consultas por cercanía
+}
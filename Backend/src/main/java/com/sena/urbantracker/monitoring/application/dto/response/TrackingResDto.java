@@ -16,4 +16,9 @@ public class TrackingResDto {
     private BigDecimal latitude;
     private BigDecimal longitude;
     private OffsetDateTime timestamp;
+    private Double speedKmh;
+    private Double heading;
+    private Double accuracyMeters;
+    private Double hdop;
+    private Integer satellites;
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.sena.urbantracker.monitoring.application.mapper;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.dto.response.CoordinatesResponseDto;
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.domain.live.LivePosition;
+import com.sena.urbantracker.monitoring.domain.live.NearbyPosition;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public class LivePositionMapper {
+
+    public static LivePositionResDto toDto(LivePosition position) {
+        if (position == null) return null;
+        return LivePositionResDto.builder()
+                .vehicleId(position.getVehicleId())
+                .routeId(position.getRouteId())
+                .companyId(position.getCompanyId())
+                .latitude(position.getLatitude())
+                .longitude(position.getLongitude())
+                .timestamp(position.getTimestamp())
+                .dataSource(position.getDataSource())
+                .speedKmh(position.getSpeedKmh())
+                .heading(position.getHeading())
+                .accuracyMeters(position.getAccuracyMeters())
+                .hdop(position.getHdop())
+                .satellites(position.getSatellites())
+                .build();
+    }
+
+    public static LivePositionResDto toDto(NearbyPosition nearby) {
+        if (nearby == null) return null;
+        LivePositionResDto dto = toDto(nearby.getPosition());
+        dto.setDistanceMeters(nearby.getDistanceMeters());
+        return dto;
+    }
+
+    /**
+     * Misma forma que la telemetría que se publica por WebSocket
+     */
+    public static TrackingReqDto toTelemetry(LivePosition position) {
+        if (position == null) return null;
+        return TrackingReqDto.builder()
+                .vehicleId(position.getVehicleId())
+                .routeId(position.getRouteId())
+                .timestamp(OffsetDateTime.ofInstant(Instant.ofEpochMilli(position.getTimestamp()), ZoneOffset.UTC))
+                .latitude(BigDecimal.valueOf(position.getLatitude()))
+                .longitude(BigDecimal.valueOf(position.getLongitude()))
+                .dataSource(position.getDataSource())
+                .speedKmh(position.getSpeedKmh())
+                .heading(position.getHeading())
+                .accuracyMeters(position.getAccuracyMeters())
+                .hdop(position.getHdop())
+                .satellites(position.getSatellites())
+                .build();
+    }
+
+    public static CoordinatesResponseDto toCoordinates(LivePosition position) {
+        if (position == null) return null;
+        return new CoordinatesResponseDto(
+                BigDecimal.valueOf(position.getLongitude()),
+                BigDecimal.valueOf(position.getLatitude()));
+    }
+}
@@ -3,6 +3,7 @@ package com.sena.urbantracker.monitoring.application.mapper;
 import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
 import com.sena.urbantracker.monitoring.application.dto.response.TrackingResDto;
 import com.sena.urbantracker.monitoring.domain.entity.TrackingDomain;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
 import lombok.Builder;
 
 public class TrackingMapper {
@@ -16,13 +17,38 @@ public class TrackingMapper {
                 .timestamp(entity.getTimestamp())
                 .latitude(entity.getLatitude())
                 .longitude(entity.getLongitude())
+                .speedKmh(entity.getSpeedKmh())
+                .heading(entity.getHeading())
+                .accuracyMeters(entity.getAccuracyMeters())
+                .hdop(entity.getHdop())
+                .satellites(entity.getSatellites())
                 .build();
     }
 
     public static TrackingDomain toEntity(TrackingReqDto dto) {
         if (dto == null) return null;
         return TrackingDomain.builder()
-                // Map fields here
+                .routeId(dto.getRouteId())
+                .vehicleId(parseVehicleId(dto.getVehicleId()))
+                .timestamp(dto.getTimestamp())
+                .latitude(dto.getLatitude())
+                .longitude(dto.getLongitude())
+                .dataSource(dto.getDataSource())
+                .speedKmh(dto.getSpeedKmh())
+                .heading(dto.getHeading())
+                .accuracyMeters(dto.getAccuracyMeters())
+                .hdop(dto.getHdop())
+                .satellites(dto.getSatellites())
                 .build();
     }
+
+    // El tracking guardado referencia al vehículo por su id numérico
+    private static Long parseVehicleId(String vehicleId) {
+        if (vehicleId == null) return null;
+        try {
+            return Long.valueOf(vehicleId.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("El ID del vehículo debe ser numérico: " + vehicleId);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.routes.domain.entity.RouteDomain;
+import com.sena.urbantracker.routes.domain.repository.RouteRepository;
+import com.sena.urbantracker.users.domain.entity.CompanyDomain;
+import com.sena.urbantracker.vehicles.domain.entity.VehicleDomain;
+import com.sena.urbantracker.vehicles.domain.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resuelve la compañía dueña de una ruta o vehículo.
+ * Las compañías encontradas se guardan en memoria hasta que RouteService o
+ * VehicleService invaliden el id; un id sin compañía o un error de base de datos
+ * solo se recuerda por unos segundos, para no consultar en cada ubicación pero
+ * tampoco dejar la resolución rota si la ruta o el vehículo se crean después.
+ * Dentro de una transacción la invalidación se aplica después del commit; antes,
+ * una ubicación que llegue en medio podría volver a cachear el valor viejo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompanyLookupService {
+
+    private final RouteRepository routeRepository;
+    private final VehicleRepository vehicleRepository;
+
+    private final Map<Long, Long> companyByRoute = new ConcurrentHashMap<>();
+    private final Map<String, Long> companyByVehicle = new ConcurrentHashMap<>();
+    // id -> hasta cuándo (epoch millis) se responde "sin compañía" sin consultar
+    private final Map<Long, Long> unknownRoutesUntil = new ConcurrentHashMap<>();
+    private final Map<String, Long> unknownVehiclesUntil = new ConcurrentHashMap<>();
+
+    // Segundos que se recuerda un id sin compañía o una consulta fallida
+    @Value("${monitoring.company-lookup.unknown-ttl-seconds:30}")
+    private long unknownTtlSeconds;
+
+    /**
+     * Compañía de la telemetría: primero por la ruta, luego por el vehículo
+     */
+    public Long resolveCompanyId(String vehicleId, Long routeId) {
+        Long companyId = routeId != null ? findCompanyIdByRoute(routeId) : null;
+        if (companyId == null && vehicleId != null) {
+            companyId = findCompanyIdByVehicle(vehicleId);
+        }
+        return companyId;
+    }
+
+    public Long findCompanyIdByRoute(Long routeId) {
+        return resolve(routeId, companyByRoute, unknownRoutesUntil, this::loadCompanyIdByRoute);
+    }
+
+    public Long findCompanyIdByVehicle(String vehicleId) {
+        return resolve(vehicleId, companyByVehicle, unknownVehiclesUntil, this::loadCompanyIdByVehicle);
+    }
+
+    public void evictRoute(Long routeId) {
+        if (routeId == null) return;
+        afterCommit(() -> {
+            companyByRoute.remove(routeId);
+            unknownRoutesUntil.remove(routeId);
+        });
+    }
+
+    public void evictVehicle(String vehicleId) {
+        if (vehicleId == null) return;
+        afterCommit(() -> {
+            companyByVehicle.remove(vehicleId);
+            unknownVehiclesUntil.remove(vehicleId);
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private <K> Long resolve(K id, Map<K, Long> known, Map<K, Long> unknownUntil, Function<K, Optional<Long>> loader) {
+        Long companyId = known.get(id);
+        if (companyId != null) {
+            return companyId;
+        }
+        long now = System.currentTimeMillis();
+        Long until = unknownUntil.get(id);
+        if (until != null && now < until) {
+            return null;
+        }
+        try {
+            Optional<Long> loaded = loader.apply(id);
+            if (loaded.isPresent()) {
+                known.put(id, loaded.get());
+                unknownUntil.remove(id);
+                return loaded.get();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo resolver la compañía de {}: {}", id, e.getMessage());
+        }
+        unknownUntil.put(id, now + unknownTtlSeconds * 1000);
+        return null;
+    }
+
+    private Optional<Long> loadCompanyIdByRoute(Long routeId) {
+        return routeRepository.findById(routeId)
+                .map(RouteDomain::getCompanyId);
+    }
+
+    private Optional<Long> loadCompanyIdByVehicle(String vehicleId) {
+        // El vehicleId de la telemetría es el id numérico del vehículo cuando existe en el sistema
+        Long id;
+        try {
+            id = Long.valueOf(vehicleId);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return vehicleRepository.findById(id)
+                .map(VehicleDomain::getCompany)
+                .map(CompanyDomain::getId);
+    }
+}
@@ -0,0 +1,325 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.monitoring.application.dto.response.FleetGroupSummaryResDto;
+import com.sena.urbantracker.monitoring.application.dto.response.FleetSummaryResDto;
+import com.sena.urbantracker.monitoring.application.service.websocket.StompSubscriptionRegistry;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import com.sena.urbantracker.monitoring.domain.live.LivePositionStore;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.shared.infrastructure.util.GeoMath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resumen de la flota por ruta y por compañía, mantenido con contadores que se
+ * ajustan con cada telemetría y cada cambio de estacionamiento; nunca se consulta
+ * la base de datos. Cada cambio resta el aporte anterior del vehículo a sus grupos
+ * y suma el nuevo.
+ *
+ * Cada vehículo se actualiza con su propio lock y los contadores son LongAdder,
+ * así las telemetrías de vehículos distintos no se serializan entre sí. Las lecturas
+ * no toman locks; un resumen puede mezclar por un instante el antes y el después
+ * de una actualización en curso.
+ *
+ * Un vehículo pasa a "sin reporte" cuando lleva más de monitoring.fleet.stale-seconds
+ * sin telemetría; esa transición la detecta una {@link IdleTimerWheel} propia que
+ * solo revisa los vehículos que vencen en cada tick.
+ */
+@Slf4j
+@Service
+public class FleetSummaryService {
+
+    public static final String DESTINATION = "/topic/fleet/summary";
+
+    private static final double MAX_SPEED_KMH = 200.0; // saltos de GPS por encima de esto se ignoran
+    private static final long STALE_TICK_MS = 1000;
+
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final WebSocketBroadcastService broadcastService;
+    private final long staleMillis;
+    // Programada con la hora del dispositivo, igual que VehicleState.timestamp
+    private final IdleTimerWheel staleWheel;
+
+    private final Map<Integer, VehicleState> vehicles = new ConcurrentHashMap<>();
+    // Estacionados sin posición en el resumen (restaurados al arrancar u olvidados por inactividad);
+    // el estado se crea con parked=true cuando vuelven a reportar
+    private final Set<Integer> parkedWithoutState = ConcurrentHashMap.newKeySet();
+    // Los grupos no se eliminan al vaciarse; el resumen omite los que no tienen vehículos
+    private final Map<Long, Counters> routes = new ConcurrentHashMap<>();
+    private final Map<Long, Counters> companies = new ConcurrentHashMap<>();
+    private final Counters fleet = new Counters();
+    private final LongAdder version = new LongAdder();
+    private long publishedVersion = -1; // solo lo usa el hilo de publicación
+
+    public FleetSummaryService(VehicleIndexRegistry vehicleIndexRegistry,
+                               StompSubscriptionRegistry subscriptionRegistry,
+                               WebSocketBroadcastService broadcastService,
+                               @Value("${monitoring.fleet.stale-seconds:120}") long staleSeconds) {
+        this.vehicleIndexRegistry = vehicleIndexRegistry;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.broadcastService = broadcastService;
+        this.staleMillis = staleSeconds * 1000;
+        this.staleWheel = new IdleTimerWheel(STALE_TICK_MS, staleSeconds);
+    }
+
+    /**
+     * Aplica una nueva posición del vehículo (ya aceptada por el almacén en vivo).
+     * Si el dispositivo reportó velocidad (no NaN) se usa en lugar de derivarla.
+     */
+    public void onPosition(int vehicleIndex, long routeId, long companyId,
+                           double latitude, double longitude, double reportedSpeedKmh, long timestamp) {
+        while (true) {
+            VehicleState state = vehicles.computeIfAbsent(vehicleIndex, key -> {
+                VehicleState created = new VehicleState();
+                created.parked = parkedWithoutState.remove(key);
+                return created;
+            });
+            synchronized (state) {
+                if (state.forgotten) {
+                    // forget() lo sacó mientras esperábamos el lock; se usa el estado nuevo
+                    continue;
+                }
+                remove(state);
+
+                if (!Double.isNaN(reportedSpeedKmh)) {
+                    if (reportedSpeedKmh <= MAX_SPEED_KMH) {
+                        state.speedKmh = reportedSpeedKmh;
+                    }
+                } else if (state.timestamp > 0 && timestamp > state.timestamp) {
+                    double meters = GeoMath.distanceMeters(state.latitude, state.longitude, latitude, longitude);
+                    double speedKmh = meters / 1000.0 / ((timestamp - state.timestamp) / 3_600_000.0);
+                    if (speedKmh <= MAX_SPEED_KMH) {
+                        state.speedKmh = speedKmh;
+                    }
+                }
+                state.routeId = routeId;
+                state.companyId = companyId;
+                state.latitude = latitude;
+                state.longitude = longitude;
+                state.timestamp = Math.max(state.timestamp, timestamp);
+                state.stale = false;
+
+                add(state);
+                staleWheel.touch(vehicleIndex, state.timestamp);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Marca o desmarca el vehículo como estacionado
+     */
+    public void onParkingChanged(String vehicleId, boolean parked) {
+        if (vehicleId == null) {
+            return;
+        }
+        int vehicleIndex = vehicleIndexRegistry.intern(vehicleId);
+        VehicleState state = vehicles.get(vehicleIndex);
+        if (state == null) {
+            rememberParked(vehicleIndex, parked);
+            return;
+        }
+        synchronized (state) {
+            if (state.forgotten) {
+                rememberParked(vehicleIndex, parked);
+                return;
+            }
+            if (state.parked == parked) {
+                return;
+            }
+            remove(state);
+            state.parked = parked;
+            add(state);
+        }
+    }
+
+    /**
+     * Saca al vehículo del resumen (lleva demasiado tiempo sin reportar)
+     */
+    public void forget(int vehicleIndex) {
+        VehicleState state = vehicles.remove(vehicleIndex);
+        if (state != null) {
+            synchronized (state) {
+                remove(state);
+                state.forgotten = true;
+                // Sigue estacionado para la detección: al volver a reportar debe contarse así
+                rememberParked(vehicleIndex, state.parked);
+            }
+        }
+    }
+
+    public FleetSummaryResDto getSummary() {
+        return snapshot();
+    }
+
+    public FleetGroupSummaryResDto getRouteSummary(long routeId) {
+        Counters counters = routes.get(routeId);
+        return counters != null ? counters.toDto(routeId) : new Counters().toDto(routeId);
+    }
+
+    public FleetGroupSummaryResDto getCompanySummary(long companyId) {
+        Counters counters = companies.get(companyId);
+        return counters != null ? counters.toDto(companyId) : new Counters().toDto(companyId);
+    }
+
+    /**
+     * true si la ruta tiene al menos un vehículo reportando
+     */
+    public boolean isRouteActive(long routeId) {
+        Counters counters = routes.get(routeId);
+        return counters != null && counters.active.sum() > 0;
+    }
+
+    /**
+     * Marca como "sin reporte" los vehículos cuyo plazo venció en la rueda
+     */
+    @Scheduled(fixedRate = STALE_TICK_MS)
+    public void expireStale() {
+        long now = System.currentTimeMillis();
+        for (int vehicleIndex : staleWheel.advance(now)) {
+            VehicleState state = vehicles.get(vehicleIndex);
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                if (!state.forgotten && !state.stale && now - state.timestamp >= staleMillis) {
+                    remove(state);
+                    state.stale = true;
+                    add(state);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.fleet.publish-interval-ms:5000}")
+    public void publish() {
+        if (!subscriptionRegistry.hasSubscribers(DESTINATION)) {
+            return;
+        }
+        long current = version.sum();
+        if (current == publishedVersion) {
+            return;
+        }
+        publishedVersion = current;
+        try {
+            broadcastService.broadcast(DESTINATION, snapshot());
+        } catch (Exception e) {
+            log.error("Error publicando resumen de flota: {}", e.getMessage(), e);
+        }
+    }
+
+    private void rememberParked(int vehicleIndex, boolean parked) {
+        if (parked) {
+            parkedWithoutState.add(vehicleIndex);
+        } else {
+            parkedWithoutState.remove(vehicleIndex);
+        }
+    }
+
+    private FleetSummaryResDto snapshot() {
+        List<FleetGroupSummaryResDto> routeSummaries = new ArrayList<>(routes.size());
+        routes.forEach((id, counters) -> {
+            if (!counters.isEmpty()) {
+                routeSummaries.add(counters.toDto(id));
+            }
+        });
+        List<FleetGroupSummaryResDto> companySummaries = new ArrayList<>(companies.size());
+        companies.forEach((id, counters) -> {
+            if (!counters.isEmpty()) {
+                companySummaries.add(counters.toDto(id));
+            }
+        });
+        return FleetSummaryResDto.builder()
+                .timestamp(System.currentTimeMillis())
+                .fleet(fleet.toDto(null))
+                .routes(routeSummaries)
+                .companies(companySummaries)
+                .build();
+    }
+
+    private void add(VehicleState state) {
+        apply(state, 1);
+    }
+
+    private void remove(VehicleState state) {
+        if (state.timestamp > 0) {
+            apply(state, -1);
+        }
+    }
+
+    private void apply(VehicleState state, int sign) {
+        fleet.apply(state, sign);
+        if (state.routeId != LivePositionStore.NO_ID) {
+            routes.computeIfAbsent(state.routeId, key -> new Counters()).apply(state, sign);
+        }
+        if (state.companyId != LivePositionStore.NO_ID) {
+            companies.computeIfAbsent(state.companyId, key -> new Counters()).apply(state, sign);
+        }
+        version.increment();
+    }
+
+    // Se modifica solo con el lock del propio estado
+    private static final class VehicleState {
+        private long routeId = LivePositionStore.NO_ID;
+        private long companyId = LivePositionStore.NO_ID;
+        private double latitude;
+        private double longitude;
+        private long timestamp;
+        private double speedKmh = Double.NaN;
+        private boolean parked;
+        private boolean stale;
+        private boolean forgotten;
+    }
+
+    private static final class Counters {
+        private final LongAdder vehicles = new LongAdder();
+        private final LongAdder active = new LongAdder();
+        private final LongAdder parked = new LongAdder();
+        private final LongAdder stale = new LongAdder();
+        private final DoubleAdder speedSum = new DoubleAdder();
+        private final LongAdder speedSamples = new LongAdder();
+
+        private void apply(VehicleState state, int sign) {
+            vehicles.add(sign);
+            if (state.stale) {
+                stale.add(sign);
+            } else {
+                active.add(sign);
+                if (!Double.isNaN(state.speedKmh)) {
+                    speedSum.add(sign * state.speedKmh);
+                    speedSamples.add(sign);
+                }
+            }
+            if (state.parked) {
+                parked.add(sign);
+            }
+        }
+
+        private boolean isEmpty() {
+            return vehicles.sum() <= 0;
+        }
+
+        private FleetGroupSummaryResDto toDto(Long id) {
+            long samples = speedSamples.sum();
+            return FleetGroupSummaryResDto.builder()
+                    .id(id)
+                    .activeVehicles((int) Math.max(0, active.sum()))
+                    .parkedVehicles((int) Math.max(0, parked.sum()))
+                    .staleVehicles((int) Math.max(0, stale.sum()))
+                    .averageSpeedKmh(samples > 0 ? Math.max(0.0, speedSum.sum() / samples) : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Retira del estado en memoria a los vehículos que dejaron de reportar durante
+ * monitoring.live.idle-seconds. El estado en vivo se limpia aquí; otros módulos
+ * (estacionamiento) se registran como {@link IdleListener}.
+ */
+@Slf4j
+@Service
+public class IdleVehicleService {
+
+    /**
+     * Recibe los vehículos que quedaron inactivos
+     */
+    public interface IdleListener {
+        void onIdle(int vehicleIndex);
+    }
+
+    private final IdleTimerWheel idleTimerWheel;
+    private final LivePositionService livePositionService;
+    private final List<IdleListener> listeners = new CopyOnWriteArrayList<>();
+
+    public IdleVehicleService(IdleTimerWheel idleTimerWheel,
+                              LivePositionService livePositionService,
+                              MeterRegistry meterRegistry) {
+        this.idleTimerWheel = idleTimerWheel;
+        this.livePositionService = livePositionService;
+        Gauge.builder("monitoring.live.vehicles", idleTimerWheel, IdleTimerWheel::trackedCount)
+                .description("Vehículos con estado en memoria (reportaron dentro del periodo de inactividad)")
+                .register(meterRegistry);
+    }
+
+    public void addListener(IdleListener listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.live.idle-tick-ms:1000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        int[] expired = idleTimerWheel.advance(now);
+        if (expired.length == 0) {
+            return;
+        }
+        int evicted = 0;
+        for (int vehicleIndex : expired) {
+            try {
+                // Pudo reportar después de advance(); en ese caso sigue activo y la rueda ya lo reprogramó
+                if (!livePositionService.evictIfIdle(vehicleIndex, now)) {
+                    continue;
+                }
+                evicted++;
+                for (IdleListener listener : listeners) {
+                    listener.onIdle(vehicleIndex);
+                }
+            } catch (Exception e) {
+                log.error("Error retirando vehículo inactivo {}: {}", vehicleIndex, e.getMessage(), e);
+            }
+        }
+        log.debug("🕒 {} vehículos retirados por inactividad", evicted);
+    }
+}
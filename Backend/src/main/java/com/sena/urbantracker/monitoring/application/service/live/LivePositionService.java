@@ -0,0 +1,226 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.dto.response.CoordinatesResponseDto;
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.application.mapper.LivePositionMapper;
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import com.sena.urbantracker.monitoring.domain.live.LivePosition;
+import com.sena.urbantracker.monitoring.domain.live.LivePositionStore;
+import com.sena.urbantracker.monitoring.domain.live.LiveSpatialIndex;
+import com.sena.urbantracker.monitoring.domain.live.MapTile;
+import com.sena.urbantracker.monitoring.domain.live.NearbyPosition;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Estado en vivo de la flota: registra cada telemetría entrante y responde
+ * consultas de última posición sin acceder a la base de datos.
+ */
+@Service
+@RequiredArgsConstructor
+public class LivePositionService {
+
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private final LivePositionStore livePositionStore;
+    private final LiveSpatialIndex liveSpatialIndex;
+    private final CompanyLookupService companyLookupService;
+    private final FleetSummaryService fleetSummaryService;
+    private final IdleTimerWheel idleTimerWheel;
+
+    private static final double MAX_RADIUS_METERS = 50_000.0;
+    private static final int MAX_NEAREST = 100;
+
+    /**
+     * Registra la telemetría como última posición del vehículo
+     *
+     * @return true si la posición quedó registrada (no estaba atrasada ni incompleta)
+     */
+    public boolean record(TrackingReqDto telemetry) {
+        if (telemetry.getVehicleId() == null || telemetry.getLatitude() == null || telemetry.getLongitude() == null) {
+            return false;
+        }
+
+        int vehicleIndex = vehicleIndexRegistry.intern(telemetry.getVehicleId());
+        long timestamp = telemetry.getTimestamp() != null
+                ? telemetry.getTimestamp().toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        Long routeId = telemetry.getRouteId();
+        Long companyId = companyLookupService.resolveCompanyId(telemetry.getVehicleId(), routeId);
+
+        double latitude = telemetry.getLatitude().doubleValue();
+        double longitude = telemetry.getLongitude().doubleValue();
+
+        // Antes de escribir la posición: evictIfIdle lee la versión y luego la hora del
+        // último reporte, así nunca ve la posición nueva con la hora vieja
+        idleTimerWheel.touch(vehicleIndex, System.currentTimeMillis());
+        boolean recorded = livePositionStore.update(
+                vehicleIndex,
+                latitude,
+                longitude,
+                timestamp,
+                routeId != null ? routeId : LivePositionStore.NO_ID,
+                companyId != null ? companyId : LivePositionStore.NO_ID,
+                telemetry.getDataSource(),
+                telemetry.reportedSpeedKmh(),
+                orNaN(telemetry.getHeading()),
+                orNaN(telemetry.getAccuracyMeters()),
+                orNaN(telemetry.getHdop()),
+                telemetry.getSatellites() != null ? telemetry.getSatellites() : LivePositionStore.NO_SATELLITES
+        );
+        if (recorded) {
+            liveSpatialIndex.move(vehicleIndex, latitude, longitude);
+            fleetSummaryService.onPosition(vehicleIndex,
+                    routeId != null ? routeId : LivePositionStore.NO_ID,
+                    companyId != null ? companyId : LivePositionStore.NO_ID,
+                    latitude, longitude, telemetry.reportedSpeedKmh(), timestamp);
+        }
+        return recorded;
+    }
+
+    /**
+     * Retira al vehículo del mapa y del resumen de flota si sigue inactivo (ver {@link IdleVehicleService}).
+     * Un reporte que llega mientras tanto no se pierde: o se detecta antes de borrar y el
+     * vehículo se queda, o llega después y se vuelve a poner en el mapa y en el resumen.
+     *
+     * @return true si el vehículo quedó retirado
+     */
+    public boolean evictIfIdle(int vehicleIndex, long now) {
+        long version = livePositionStore.version(vehicleIndex);
+        if (!idleTimerWheel.isIdle(vehicleIndex, now)
+                || (version >= 0 && !livePositionStore.removeIfUnchanged(vehicleIndex, version))) {
+            return false;
+        }
+        liveSpatialIndex.remove(vehicleIndex);
+        fleetSummaryService.forget(vehicleIndex);
+
+        LivePosition reported = livePositionStore.get(vehicleIndex);
+        if (reported == null) {
+            return true;
+        }
+        liveSpatialIndex.move(vehicleIndex, reported.getLatitude(), reported.getLongitude());
+        fleetSummaryService.onPosition(vehicleIndex,
+                reported.getRouteId() != null ? reported.getRouteId() : LivePositionStore.NO_ID,
+                reported.getCompanyId() != null ? reported.getCompanyId() : LivePositionStore.NO_ID,
+                reported.getLatitude(), reported.getLongitude(),
+                reported.getSpeedKmh() != null ? reported.getSpeedKmh() : Double.NaN,
+                reported.getTimestamp());
+        return false;
+    }
+
+    public List<LivePositionResDto> findAll() {
+        return toDtos(livePositionStore.findAll());
+    }
+
+    public List<LivePositionResDto> findByRouteId(Long routeId) {
+        return toDtos(livePositionStore.findByRouteId(routeId));
+    }
+
+    public List<LivePositionResDto> findByCompanyId(Long companyId) {
+        return toDtos(livePositionStore.findByCompanyId(companyId));
+    }
+
+    /**
+     * Estado actual de la ruta con el mismo formato de los frames de /topic/route/{id}/telemetry
+     */
+    public List<TrackingReqDto> findRouteTelemetry(long routeId) {
+        return livePositionStore.findByRouteId(routeId).stream()
+                .map(LivePositionMapper::toTelemetry)
+                .toList();
+    }
+
+    /**
+     * Estado actual de una tesela con el mismo formato de los frames de /topic/tiles/{z}/{x}/{y}
+     */
+    public List<TrackingReqDto> findTileTelemetry(long tile) {
+        return liveSpatialIndex.findInBox(
+                        MapTile.southLatitude(tile), MapTile.westLongitude(tile),
+                        MapTile.northLatitude(tile), MapTile.eastLongitude(tile)).stream()
+                .map(LivePositionMapper::toTelemetry)
+                .toList();
+    }
+
+    public Optional<LivePositionResDto> findByVehicleId(String vehicleId) {
+        int vehicleIndex = vehicleIndexRegistry.indexOf(vehicleId);
+        if (vehicleIndex < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(LivePositionMapper.toDto(livePositionStore.get(vehicleIndex)));
+    }
+
+    /**
+     * Coordenadas del vehículo que reportó más recientemente en la ruta.
+     * Recibe el id tal como llega en la URL o el destino STOMP.
+     */
+    public Optional<CoordinatesResponseDto> findLatestCoordinatesByRoute(String routeId) {
+        long id;
+        try {
+            id = Long.parseLong(routeId);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(LivePositionMapper.toCoordinates(livePositionStore.findLatestByRouteId(id)));
+    }
+
+    /**
+     * Vehículos dentro del rectángulo visible del mapa
+     */
+    public List<LivePositionResDto> findInBox(double minLatitude, double minLongitude,
+                                              double maxLatitude, double maxLongitude) {
+        validateCoordinates(minLatitude, minLongitude);
+        validateCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new ValidationException("Los límites mínimos del rectángulo deben ser menores que los máximos");
+        }
+        return toDtos(liveSpatialIndex.findInBox(minLatitude, minLongitude, maxLatitude, maxLongitude));
+    }
+
+    /**
+     * Vehículos a menos de radiusMeters del punto, del más cercano al más lejano
+     */
+    public List<LivePositionResDto> findWithinRadius(double latitude, double longitude, double radiusMeters) {
+        validateCoordinates(latitude, longitude);
+        if (radiusMeters <= 0 || radiusMeters > MAX_RADIUS_METERS) {
+            throw new ValidationException("El radio debe estar entre 0 y " + (int) MAX_RADIUS_METERS + " metros");
+        }
+        return toNearbyDtos(liveSpatialIndex.findWithinRadius(latitude, longitude, radiusMeters));
+    }
+
+    /**
+     * Los k vehículos más cercanos al punto
+     */
+    public List<LivePositionResDto> findNearest(double latitude, double longitude, int k) {
+        validateCoordinates(latitude, longitude);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new ValidationException("La cantidad de vehículos debe estar entre 1 y " + MAX_NEAREST);
+        }
+        return toNearbyDtos(liveSpatialIndex.findNearest(latitude, longitude, k));
+    }
+
+    private static double orNaN(Double value) {
+        return value != null && Double.isFinite(value) ? value : Double.NaN;
+    }
+
+    private void validateCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ValidationException("Coordenadas fuera de rango: " + latitude + ", " + longitude);
+        }
+    }
+
+    private List<LivePositionResDto> toNearbyDtos(List<NearbyPosition> positions) {
+        return positions.stream()
+                .map(LivePositionMapper::toDto)
+                .toList();
+    }
+
+    private List<LivePositionResDto> toDtos(List<LivePosition> positions) {
+        return positions.stream()
+                .map(LivePositionMapper::toDto)
+                .toList();
+    }
+}
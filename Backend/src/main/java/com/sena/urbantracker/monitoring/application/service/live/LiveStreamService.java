@@ -0,0 +1,287 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.application.mapper.LivePositionMapper;
+import com.sena.urbantracker.monitoring.domain.live.LivePosition;
+import com.sena.urbantracker.monitoring.domain.live.LivePositionStore;
+import com.sena.urbantracker.monitoring.domain.live.PositionEventRing;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feed de posiciones por Server-Sent Events para consumidores de solo lectura.
+ *
+ * En cada tick se publica en un {@link PositionEventRing} compartido la última
+ * posición de cada vehículo que reportó, serializada una sola vez. Cada conexión
+ * solo guarda su cursor y su filtro (ruta o compañía); un pool de hilos recorre el
+ * buffer desde el cursor y envía los eventos que le corresponden.
+ * El id de cada evento es la época del buffer más su secuencia, así el cliente puede
+ * reanudar con Last-Event-ID; con un id de un arranque anterior recibe el estado completo.
+ *
+ * Cada conexión tiene a lo sumo una tarea de envío y envía un lote acotado antes de
+ * ceder el hilo. Las conexiones con un envío trabado más de send-time-limit-ms se
+ * cierran, así un cliente lento no retiene hilos del pool.
+ */
+@Slf4j
+@Service
+public class LiveStreamService {
+
+    private final LivePositionStore livePositionStore;
+    private final LivePositionService livePositionService;
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final PositionEventRing ring;
+    private static final int DRAIN_BATCH = 256;
+
+    private final ThreadPoolExecutor drainExecutor;
+    private final long timeoutMs;
+    private final long sendTimeLimitMs;
+
+    private final Set<StreamConnection> connections = ConcurrentHashMap.newKeySet();
+    // Vehículos que reportaron desde el último tick
+    private final Set<Integer> dirtyVehicles = ConcurrentHashMap.newKeySet();
+
+    public LiveStreamService(LivePositionStore livePositionStore,
+                             LivePositionService livePositionService,
+                             VehicleIndexRegistry vehicleIndexRegistry,
+                             ObjectMapper objectMapper,
+                             @Value("${monitoring.live.stream.capacity:65536}") int capacity,
+                             @Value("${monitoring.live.stream.drain-threads:32}") int drainThreads,
+                             @Value("${monitoring.live.stream.timeout-ms:1800000}") long timeoutMs,
+                             @Value("${monitoring.live.stream.send-time-limit-ms:10000}") long sendTimeLimitMs) {
+        this.livePositionStore = livePositionStore;
+        this.livePositionService = livePositionService;
+        this.vehicleIndexRegistry = vehicleIndexRegistry;
+        this.objectMapper = objectMapper;
+        this.ring = new PositionEventRing(capacity);
+        // Los hilos se crean según la demanda hasta drainThreads y se liberan al quedar ociosos
+        this.drainExecutor = new ThreadPoolExecutor(drainThreads, drainThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        this.drainExecutor.allowCoreThreadTimeOut(true);
+        this.timeoutMs = timeoutMs;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    /**
+     * Marca el vehículo para publicarlo en el siguiente tick. Sin conexiones abiertas no hace nada.
+     */
+    public void submit(TrackingReqDto telemetry) {
+        if (connections.isEmpty() || telemetry.getVehicleId() == null) {
+            return;
+        }
+        int vehicleIndex = vehicleIndexRegistry.indexOf(telemetry.getVehicleId());
+        if (vehicleIndex >= 0) {
+            dirtyVehicles.add(vehicleIndex);
+        }
+    }
+
+    public SseEmitter streamRoute(long routeId, String lastEventId) {
+        return open(routeId, LivePositionStore.NO_ID, lastEventId);
+    }
+
+    public SseEmitter streamCompany(long companyId, String lastEventId) {
+        return open(LivePositionStore.NO_ID, companyId, lastEventId);
+    }
+
+    public int connectionCount() {
+        return connections.size();
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.websocket.conflation-interval-ms:1000}")
+    public void flush() {
+        if (dirtyVehicles.isEmpty()) {
+            return;
+        }
+        for (Integer vehicleIndex : dirtyVehicles) {
+            dirtyVehicles.remove(vehicleIndex);
+            LivePosition position = livePositionStore.get(vehicleIndex);
+            if (position == null) {
+                continue;
+            }
+            try {
+                ring.publish(
+                        position.getRouteId() != null ? position.getRouteId() : LivePositionStore.NO_ID,
+                        position.getCompanyId() != null ? position.getCompanyId() : LivePositionStore.NO_ID,
+                        objectMapper.writeValueAsString(LivePositionMapper.toDto(position)));
+            } catch (JsonProcessingException e) {
+                log.error("Error serializando posición del vehículo {}: {}", position.getVehicleId(), e.getMessage());
+            }
+        }
+        for (StreamConnection connection : connections) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * Cierra las conexiones con un envío bloqueado por más del límite de tiempo
+     */
+    @Scheduled(fixedRate = 1000)
+    public void evictStalledConnections() {
+        long now = System.currentTimeMillis();
+        for (StreamConnection connection : connections) {
+            long since = connection.sendingSince;
+            if (since != 0 && now - since > sendTimeLimitMs && connections.remove(connection)) {
+                log.warn("🐢 Conexión SSE cerrada por cliente lento (ruta {}, compañía {})",
+                        connection.routeId, connection.companyId);
+                connection.emitter.completeWithError(new TimeoutException("Envío SSE bloqueado"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdownNow();
+    }
+
+    private SseEmitter open(long routeId, long companyId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        StreamConnection connection = new StreamConnection(emitter, routeId, companyId);
+        emitter.onCompletion(() -> connections.remove(connection));
+        emitter.onTimeout(() -> connections.remove(connection));
+        emitter.onError(e -> connections.remove(connection));
+
+        // Se registra antes de leer el estado para que submit() ya marque los reportes que
+        // lleguen mientras se arma el snapshot. Mientras tanto la conexión retiene su tarea
+        // de envío, así flush() no la drena con el cursor todavía sin fijar
+        connection.draining.set(true);
+        connections.add(connection);
+        long resumeFrom = lastEventId != null ? ring.sequenceOf(lastEventId.trim()) + 1 : 0;
+        try {
+            if (resumeFrom > 0 && ring.isAvailable(resumeFrom)) {
+                connection.cursor = resumeFrom;
+            } else {
+                sendSnapshot(connection);
+            }
+        } catch (IOException e) {
+            connections.remove(connection);
+            emitter.completeWithError(e);
+            return emitter;
+        } finally {
+            connection.draining.set(false);
+        }
+
+        scheduleDrain(connection);
+        log.debug("📺 Conexión SSE abierta (ruta {}, compañía {}), {} activas", routeId, companyId, connections.size());
+        return emitter;
+    }
+
+    // Estado actual filtrado; el cursor queda en la cabeza del buffer tomada antes de leer el estado
+    private void sendSnapshot(StreamConnection connection) throws IOException {
+        long head = ring.head();
+        List<LivePositionResDto> snapshot = connection.routeId != LivePositionStore.NO_ID
+                ? livePositionService.findByRouteId(connection.routeId)
+                : livePositionService.findByCompanyId(connection.companyId);
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name("snapshot")
+                .data(snapshot, MediaType.APPLICATION_JSON);
+        if (head > 0) {
+            event.id(ring.eventId(head - 1));
+        }
+        send(connection, event);
+        connection.cursor = head;
+    }
+
+    private void scheduleDrain(StreamConnection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainExecutor.execute(() -> {
+                try {
+                    drain(connection);
+                } finally {
+                    connection.draining.set(false);
+                }
+                // Quedó trabajo del lote o llegaron eventos mientras se terminaba de enviar
+                if (connections.contains(connection) && connection.cursor < ring.head()) {
+                    scheduleDrain(connection);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Apagando la aplicación
+            connection.draining.set(false);
+        }
+    }
+
+    private void drain(StreamConnection connection) {
+        try {
+            long head = ring.head();
+            int sent = 0;
+            while (connection.cursor < head && sent < DRAIN_BATCH) {
+                PositionEventRing.Entry entry = ring.get(connection.cursor);
+                if (entry == null) {
+                    // El lector se quedó atrás y el buffer dio la vuelta: se reenvía el estado completo
+                    sendSnapshot(connection);
+                    return;
+                }
+                if (connection.matches(entry)) {
+                    send(connection, SseEmitter.event()
+                            .id(ring.eventId(entry.getSequence()))
+                            .name("position")
+                            .data(entry.getPayload(), MediaType.APPLICATION_JSON));
+                    sent++;
+                }
+                connection.cursor++;
+            }
+        } catch (IOException | IllegalStateException e) {
+            connections.remove(connection);
+            connection.emitter.completeWithError(e);
+        }
+    }
+
+    // Marca el inicio del envío para detectar clientes trabados
+    private static void send(StreamConnection connection, SseEmitter.SseEventBuilder event) throws IOException {
+        connection.sendingSince = System.currentTimeMillis();
+        try {
+            connection.emitter.send(event);
+        } finally {
+            connection.sendingSince = 0;
+        }
+    }
+
+    /**
+     * Conexión SSE: solo su filtro y su cursor en el buffer compartido
+     */
+    private static final class StreamConnection {
+        private final SseEmitter emitter;
+        private final long routeId;
+        private final long companyId;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Lo modifica un solo hilo a la vez (el que tiene draining o el que abre la conexión)
+        private volatile long cursor;
+        private volatile long sendingSince; // 0 si no hay un envío en curso
+
+        private StreamConnection(SseEmitter emitter, long routeId, long companyId) {
+            this.emitter = emitter;
+            this.routeId = routeId;
+            this.companyId = companyId;
+        }
+
+        private boolean matches(PositionEventRing.Entry entry) {
+            return routeId != LivePositionStore.NO_ID
+                    ? entry.getRouteId() == routeId
+                    : entry.getCompanyId() == companyId;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Formato de los frames binarios de /ws/binary (big endian).
+ *
+ * Posiciones (tipo 1):
+ *   byte 1 | short largo + UTF-8 del destino | int n |
+ *   n x (int índice de vehículo, int lat e6, int lon e6, long epoch millis)
+ *
+ * Identificadores (tipo 2), se envía antes de usar un índice nuevo en la sesión:
+ *   byte 2 | int n | n x (int índice, short largo + UTF-8 del vehicleId)
+ */
+public final class BinaryTelemetryCodec {
+
+    public static final byte POSITIONS = 1;
+    public static final byte VEHICLE_IDS = 2;
+
+    private static final int POSITION_BYTES = 4 + 4 + 4 + 8;
+    private static final double SCALE = 1_000_000d;
+
+    private BinaryTelemetryCodec() {
+    }
+
+    /**
+     * Codifica las posiciones; indices recibe el índice de cada vehículo en el mismo orden
+     */
+    public static byte[] encodePositions(String destination, Collection<TrackingReqDto> telemetry, int[] indices) {
+        byte[] destinationBytes = destination.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 2 + destinationBytes.length + 4 + indices.length * POSITION_BYTES);
+        buffer.put(POSITIONS);
+        buffer.putShort((short) destinationBytes.length);
+        buffer.put(destinationBytes);
+        buffer.putInt(indices.length);
+
+        int n = 0;
+        for (TrackingReqDto fix : telemetry) {
+            buffer.putInt(indices[n++]);
+            buffer.putInt((int) Math.round(fix.getLatitude().doubleValue() * SCALE));
+            buffer.putInt((int) Math.round(fix.getLongitude().doubleValue() * SCALE));
+            buffer.putLong(fix.getTimestamp() != null
+                    ? fix.getTimestamp().toInstant().toEpochMilli()
+                    : System.currentTimeMillis());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Une dos frames de posiciones del mismo destino por índice de vehículo; gana el
+     * más nuevo. Retorna null si alguno no es de posiciones o los destinos difieren.
+     */
+    public static byte[] mergePositions(byte[] older, byte[] newer) {
+        if (older.length < 3 || newer.length < 3 || older[0] != POSITIONS || newer[0] != POSITIONS) {
+            return null;
+        }
+        ByteBuffer olderBuffer = ByteBuffer.wrap(older);
+        ByteBuffer newerBuffer = ByteBuffer.wrap(newer);
+        int header = 1 + 2 + (olderBuffer.getShort(1) & 0xFFFF);
+        if (header != 1 + 2 + (newerBuffer.getShort(1) & 0xFFFF)
+                || !Arrays.equals(older, 0, header, newer, 0, header)) {
+            return null;
+        }
+
+        int olderCount = olderBuffer.getInt(header);
+        int newerCount = newerBuffer.getInt(header);
+        Set<Integer> newerIndices = new HashSet<>(newerCount * 2);
+        for (int i = 0; i < newerCount; i++) {
+            newerIndices.add(newerBuffer.getInt(header + 4 + i * POSITION_BYTES));
+        }
+
+        ByteBuffer merged = ByteBuffer.allocate(header + 4 + (olderCount + newerCount) * POSITION_BYTES);
+        merged.put(newer, 0, header);
+        merged.putInt(0); // se completa al final
+        int count = 0;
+        for (int i = 0; i < olderCount; i++) {
+            int offset = header + 4 + i * POSITION_BYTES;
+            if (!newerIndices.contains(olderBuffer.getInt(offset))) {
+                merged.put(older, offset, POSITION_BYTES);
+                count++;
+            }
+        }
+        merged.put(newer, header + 4, newerCount * POSITION_BYTES);
+        count += newerCount;
+        merged.putInt(header, count);
+        return Arrays.copyOf(merged.array(), merged.position());
+    }
+
+    public static byte[] encodeVehicleIds(int[] indices, String[] vehicleIds) {
+        byte[][] encoded = new byte[vehicleIds.length][];
+        int size = 1 + 4;
+        for (int i = 0; i < vehicleIds.length; i++) {
+            encoded[i] = vehicleIds[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + 2 + encoded[i].length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VEHICLE_IDS);
+        buffer.putInt(indices.length);
+        for (int i = 0; i < indices.length; i++) {
+            buffer.putInt(indices[i]);
+            buffer.putShort((short) encoded[i].length);
+            buffer.put(encoded[i]);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,240 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.monitoring.infrastructure.websocket.DropToLatestSession;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distribución de telemetría por el endpoint WebSocket binario /ws/binary.
+ *
+ * Usa los mismos frames agrupados que los tópicos STOMP: cada frame de un destino
+ * se codifica una vez con {@link BinaryTelemetryCodec} y se envía a todas las
+ * sesiones suscritas. Las suscripciones se anotan en {@link StompSubscriptionRegistry}
+ * con el sufijo /binary, así cuentan en las métricas y activan las teselas.
+ *
+ * onFrame corre en el hilo de flush de la conflación y solo encola: cada sesión
+ * tiene su cola de salida ({@link DropToLatestSession}) donde el frame pendiente de
+ * un destino se une por vehículo con el más reciente (ver
+ * {@link BinaryTelemetryCodec#mergePositions}), y los envíos se hacen fuera de ese hilo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BinaryTelemetryService implements TelemetryConflationService.FrameListener {
+
+    public static final String SUFFIX = "/binary";
+
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final TelemetryConflationService conflationService;
+    private final SubscriptionSnapshotService snapshotService;
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+
+    @Value("${monitoring.websocket.binary.max-subscriptions:256}")
+    private int maxSubscriptions;
+
+    private final Map<String, BinarySession> sessions = new ConcurrentHashMap<>();
+    // destino -> sesiones suscritas
+    private final Map<String, Set<BinarySession>> sessionsByDestination = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerListener() {
+        conflationService.addFrameListener(this);
+    }
+
+    public void open(DropToLatestSession session) {
+        sessions.put(session.getId(), new BinarySession(session));
+    }
+
+    public void close(String sessionId) {
+        BinarySession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        for (String destination : session.destinations) {
+            removeFromDestination(destination, session);
+        }
+        subscriptionRegistry.removeSession(session.registryId());
+    }
+
+    /**
+     * Suscribe la sesión a un tópico de ruta o tesela y le envía el estado actual
+     */
+    public void subscribe(String sessionId, String destination) {
+        BinarySession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        if (!snapshotService.hasSnapshot(destination)) {
+            throw new ValidationException("Destino no soportado: " + destination);
+        }
+        if (!session.destinations.contains(destination) && session.destinations.size() >= maxSubscriptions) {
+            throw new ValidationException("Máximo " + maxSubscriptions + " suscripciones por sesión");
+        }
+
+        if (session.destinations.add(destination)) {
+            sessionsByDestination.computeIfAbsent(destination, key -> ConcurrentHashMap.newKeySet()).add(session);
+            subscriptionRegistry.subscribe(session.registryId(), destination, destination + SUFFIX);
+        }
+
+        List<TrackingReqDto> snapshot = snapshotService.snapshotFor(destination);
+        if (!snapshot.isEmpty()) {
+            int[] indices = indicesOf(snapshot);
+            session.send(BinaryTelemetryCodec.encodePositions(destination, snapshot, indices), indices, destination);
+        }
+    }
+
+    public void unsubscribe(String sessionId, String destination) {
+        BinarySession session = sessions.get(sessionId);
+        if (session == null || !session.destinations.remove(destination)) {
+            return;
+        }
+        removeFromDestination(destination, session);
+        subscriptionRegistry.unsubscribe(session.registryId(), destination);
+    }
+
+    /**
+     * Respuesta de texto del protocolo de suscripción
+     */
+    public void reply(String sessionId, String text) {
+        BinarySession session = sessions.get(sessionId);
+        if (session != null) {
+            session.send(new TextMessage(text), null);
+        }
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public boolean wants(String destination) {
+        return subscriptionRegistry.hasSubscribers(destination + SUFFIX);
+    }
+
+    @Override
+    public void onFrame(String destination, Collection<TrackingReqDto> telemetry) {
+        Set<BinarySession> subscribers = sessionsByDestination.get(destination);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        List<TrackingReqDto> positions = new ArrayList<>(telemetry.size());
+        for (TrackingReqDto fix : telemetry) {
+            if (fix.getLatitude() != null && fix.getLongitude() != null && fix.getVehicleId() != null) {
+                positions.add(fix);
+            }
+        }
+        int[] indices = indicesOf(positions);
+        byte[] frame = BinaryTelemetryCodec.encodePositions(destination, positions, indices);
+        for (BinarySession session : subscribers) {
+            session.send(frame, indices, destination);
+        }
+    }
+
+    // Solo frames de posiciones; el resto no lleva clave
+    private static WebSocketMessage<?> mergePositions(WebSocketMessage<?> older, WebSocketMessage<?> newer) {
+        if (!(older instanceof BinaryMessage olderFrame) || !(newer instanceof BinaryMessage newerFrame)) {
+            return null;
+        }
+        byte[] merged = BinaryTelemetryCodec.mergePositions(bytes(olderFrame), bytes(newerFrame));
+        return merged != null ? new BinaryMessage(merged) : null;
+    }
+
+    private static byte[] bytes(BinaryMessage message) {
+        ByteBuffer payload = message.getPayload().duplicate();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    private void removeFromDestination(String destination, BinarySession session) {
+        sessionsByDestination.computeIfPresent(destination, (key, subscribers) -> {
+            subscribers.remove(session);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private int[] indicesOf(List<TrackingReqDto> telemetry) {
+        int[] indices = new int[telemetry.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = vehicleIndexRegistry.intern(telemetry.get(i).getVehicleId());
+        }
+        return indices;
+    }
+
+    /**
+     * Sesión binaria: los envíos pasan por la cola de salida de la sesión
+     */
+    private final class BinarySession {
+        private final DropToLatestSession session;
+        private final Set<String> destinations = ConcurrentHashMap.newKeySet();
+        // Índices cuyo vehicleId ya se le envió a la sesión
+        private final BitSet knownVehicles = new BitSet();
+
+        private BinarySession(DropToLatestSession session) {
+            this.session = session;
+        }
+
+        private String registryId() {
+            return "binary-" + session.getId();
+        }
+
+        // Sincronizado para que el frame de identificadores siempre quede en cola antes que las posiciones que lo usan
+        private synchronized void send(byte[] frame, int[] indices, String key) {
+            byte[] vehicleIds = unknownVehicleIds(indices);
+            if (vehicleIds != null) {
+                send(new BinaryMessage(vehicleIds), null);
+            }
+            send(new BinaryMessage(frame), key);
+        }
+
+        // Solo encola; la cola cierra la sesión si supera el buffer o el tiempo de envío
+        private void send(WebSocketMessage<?> message, String key) {
+            if (session.isOpen()) {
+                session.sendMessage(message, key, BinaryTelemetryService::mergePositions);
+            }
+        }
+
+        private byte[] unknownVehicleIds(int[] indices) {
+            int unknown = 0;
+            for (int index : indices) {
+                if (!knownVehicles.get(index)) {
+                    unknown++;
+                }
+            }
+            if (unknown == 0) {
+                return null;
+            }
+
+            int[] newIndices = new int[unknown];
+            String[] newIds = new String[unknown];
+            int n = 0;
+            for (int index : indices) {
+                if (!knownVehicles.get(index)) {
+                    knownVehicles.set(index);
+                    newIndices[n] = index;
+                    newIds[n++] = vehicleIndexRegistry.vehicleIdAt(index);
+                }
+            }
+            return BinaryTelemetryCodec.encodeVehicleIds(newIndices, newIds);
+        }
+    }
+}
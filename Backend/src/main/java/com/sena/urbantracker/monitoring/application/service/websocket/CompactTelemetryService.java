@@ -0,0 +1,266 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.dto.response.CompactTelemetryFrameDto;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Variante compacta de los tópicos de ruta y tesela: el cliente se suscribe a
+ * /topic/route/{id}/telemetry/compact o /topic/tiles/{z}/{x}/{y}/compact y recibe
+ * {@link CompactTelemetryFrameDto} en columnas con deltas enteros.
+ *
+ * Los deltas se calculan contra el último frame del destino y no por sesión, así
+ * cada frame se serializa una sola vez para todos. Al suscribirse la sesión recibe
+ * un keyframe con el estado base del destino y cada cierto número de frames se
+ * publica un keyframe para todos.
+ *
+ * El keyframe de la suscripción y los deltas del broker viajan por caminos distintos
+ * y pueden llegar en cualquier orden, por eso cada delta lleva la base (seq) sobre la
+ * que se aplica: el cliente guarda los deltas que lleguen antes del keyframe, aplica
+ * los que encadenen con él y, si encuentra un hueco, pide un keyframe solo para su
+ * suscripción con {@link #resync(String, String)}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompactTelemetryService implements TelemetryConflationService.FrameListener,
+        StompSubscriptionRegistry.DestinationListener {
+
+    public static final String SUFFIX = "/compact";
+
+    private static final double SCALE = 1_000_000d;
+
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final TelemetryConflationService conflationService;
+    private final SubscriptionSnapshotService snapshotService;
+    private final WebSocketBroadcastService broadcastService;
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+
+    @Value("${monitoring.websocket.compact.keyframe-interval:30}")
+    private int keyframeInterval;
+
+    @Value("${monitoring.websocket.compact.stale-seconds:300}")
+    private long staleSeconds;
+
+    // destino compacto -> estado base del stream
+    private final Map<String, CompactStream> streams = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerListeners() {
+        conflationService.addFrameListener(this);
+        subscriptionRegistry.addListener(this);
+    }
+
+    @Override
+    public boolean wants(String destination) {
+        return subscriptionRegistry.hasSubscribers(destination + SUFFIX);
+    }
+
+    @Override
+    public void onFrame(String destination, Collection<TrackingReqDto> telemetry) {
+        String compactDestination = destination + SUFFIX;
+        CompactStream stream = streams.get(compactDestination);
+        if (stream == null || !subscriptionRegistry.hasSubscribers(compactDestination)) {
+            return;
+        }
+
+        EncodedFrame frame;
+        synchronized (stream) {
+            CompactTelemetryFrameDto dto = stream.framesSinceKeyframe + 1 >= keyframeInterval
+                    ? stream.applyAndKeyframe(telemetry)
+                    : stream.applyAndDelta(telemetry);
+            frame = broadcastService.encode(dto, stream.seq);
+            if ("K".equals(dto.getType())) {
+                stream.keyframe = frame;
+            }
+        }
+        broadcastService.broadcast(compactDestination, frame);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        sendKeyframe(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+    }
+
+    /**
+     * Reenvía el keyframe actual a una suscripción compacta de la sesión que detectó un hueco
+     */
+    public void resync(String sessionId, String subscriptionId) {
+        String destination = subscriptionRegistry.destinationOf(sessionId, subscriptionId);
+        if (destination == null) {
+            log.debug("Resync ignorado: la sesión {} no tiene la suscripción {}", sessionId, subscriptionId);
+            return;
+        }
+        sendKeyframe(sessionId, subscriptionId, destination);
+    }
+
+    private void sendKeyframe(String sessionId, String subscriptionId, String destination) {
+        if (destination == null || !destination.endsWith(SUFFIX) || sessionId == null || subscriptionId == null) {
+            return;
+        }
+        String baseDestination = destination.substring(0, destination.length() - SUFFIX.length());
+        if (!snapshotService.hasSnapshot(baseDestination)) {
+            return;
+        }
+
+        try {
+            CompactStream stream = streams.computeIfAbsent(destination,
+                    key -> seed(snapshotService.snapshotFor(baseDestination)));
+            EncodedFrame keyframe;
+            synchronized (stream) {
+                if (stream.keyframe == null) {
+                    stream.keyframe = broadcastService.encode(stream.keyframe(), stream.seq);
+                }
+                keyframe = stream.keyframe;
+            }
+            broadcastService.sendToSession(sessionId, subscriptionId, destination, keyframe);
+        } catch (Exception e) {
+            log.error("Error enviando keyframe compacto de {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onDestinationActivated(String destination) {
+    }
+
+    @Override
+    public void onDestinationDeactivated(String destination) {
+        if (destination.endsWith(SUFFIX) && streams.remove(destination) != null) {
+            log.debug("🗜️ Stream compacto liberado: {}", destination);
+        }
+    }
+
+    private CompactStream seed(List<TrackingReqDto> snapshot) {
+        CompactStream stream = new CompactStream();
+        for (TrackingReqDto telemetry : snapshot) {
+            stream.base.put(vehicleIndexRegistry.intern(telemetry.getVehicleId()), toState(telemetry));
+        }
+        return stream;
+    }
+
+    private static long[] toState(TrackingReqDto telemetry) {
+        long seconds = telemetry.getTimestamp() != null
+                ? telemetry.getTimestamp().toEpochSecond()
+                : System.currentTimeMillis() / 1000;
+        return new long[]{
+                Math.round(telemetry.getLatitude().doubleValue() * SCALE),
+                Math.round(telemetry.getLongitude().doubleValue() * SCALE),
+                seconds
+        };
+    }
+
+    /**
+     * Estado base de un destino compacto. Solo se toca con el lock del propio stream.
+     */
+    private final class CompactStream {
+        // índice de vehículo -> {lat e6, lon e6, segundos epoch} del último valor enviado
+        private final Map<Integer, long[]> base = new HashMap<>();
+        private long seq;
+        private int framesSinceKeyframe;
+        private EncodedFrame keyframe; // keyframe del seq actual, null si hay que regenerarlo
+
+        private CompactTelemetryFrameDto applyAndDelta(Collection<TrackingReqDto> telemetry) {
+            int size = telemetry.size();
+            int[] indices = new int[size];
+            int[] latitudes = new int[size];
+            int[] longitudes = new int[size];
+            long[] times = new long[size];
+            Map<Integer, String> ids = new HashMap<>();
+
+            int n = 0;
+            for (TrackingReqDto fix : telemetry) {
+                if (fix.getLatitude() == null || fix.getLongitude() == null) {
+                    continue;
+                }
+                int index = vehicleIndexRegistry.intern(fix.getVehicleId());
+                long[] state = toState(fix);
+                long[] previous = base.put(index, state);
+                if (previous == null) {
+                    previous = new long[3];
+                    ids.put(index, fix.getVehicleId());
+                }
+                indices[n] = index;
+                latitudes[n] = (int) (state[0] - previous[0]);
+                longitudes[n] = (int) (state[1] - previous[1]);
+                times[n] = state[2] - previous[2];
+                n++;
+            }
+
+            long base = seq;
+            seq++;
+            framesSinceKeyframe++;
+            keyframe = null;
+            return CompactTelemetryFrameDto.builder()
+                    .type("D")
+                    .seq(seq)
+                    .base(base)
+                    .ids(ids)
+                    .i(Arrays.copyOf(indices, n))
+                    .lat(Arrays.copyOf(latitudes, n))
+                    .lon(Arrays.copyOf(longitudes, n))
+                    .t(Arrays.copyOf(times, n))
+                    .build();
+        }
+
+        private CompactTelemetryFrameDto applyAndKeyframe(Collection<TrackingReqDto> telemetry) {
+            for (TrackingReqDto fix : telemetry) {
+                if (fix.getLatitude() != null && fix.getLongitude() != null) {
+                    base.put(vehicleIndexRegistry.intern(fix.getVehicleId()), toState(fix));
+                }
+            }
+            // Los vehículos que llevan mucho sin reportar salen del stream; si vuelven llegan como nuevos
+            long oldest = System.currentTimeMillis() / 1000 - staleSeconds;
+            base.values().removeIf(state -> state[2] < oldest);
+
+            seq++;
+            framesSinceKeyframe = 0;
+            return keyframe();
+        }
+
+        private CompactTelemetryFrameDto keyframe() {
+            int size = base.size();
+            int[] indices = new int[size];
+            int[] latitudes = new int[size];
+            int[] longitudes = new int[size];
+            long[] times = new long[size];
+            Map<Integer, String> ids = new HashMap<>(size * 2);
+
+            int n = 0;
+            for (Iterator<Map.Entry<Integer, long[]>> it = base.entrySet().iterator(); it.hasNext(); n++) {
+                Map.Entry<Integer, long[]> entry = it.next();
+                indices[n] = entry.getKey();
+                latitudes[n] = (int) entry.getValue()[0];
+                longitudes[n] = (int) entry.getValue()[1];
+                times[n] = entry.getValue()[2];
+                ids.put(entry.getKey(), vehicleIndexRegistry.vehicleIdAt(entry.getKey()));
+            }
+
+            return CompactTelemetryFrameDto.builder()
+                    .type("K")
+                    .seq(seq)
+                    .ids(ids)
+                    .i(indices)
+                    .lat(latitudes)
+                    .lon(longitudes)
+                    .t(times)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.MimeType;
+
+/**
+ * Payload ya serializado, listo para entregarse a cualquier número de sesiones.
+ * El arreglo se comparte entre todos los envíos y nunca se modifica.
+ */
+@Getter
+@AllArgsConstructor
+public class EncodedFrame {
+    private final byte[] payload;
+    private final MimeType contentType;
+    private final long version;
+}
@@ -0,0 +1,224 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de las suscripciones STOMP activas, alimentado por los eventos de sesión.
+ * Permite saber cuántos clientes escuchan cada destino y avisa cuando un destino
+ * gana su primer suscriptor o pierde el último.
+ *
+ * Publica los gauges websocket.subscribers y websocket.destinations.active por
+ * familia de destino (route, vehicle, tile, parking, fleet, other).
+ */
+@Slf4j
+@Component
+public class StompSubscriptionRegistry {
+
+    /**
+     * Recibe los cambios de destinos activos. Se invoca dentro de la actualización
+     * atómica del contador del destino, así los avisos de un mismo destino llegan en
+     * el mismo orden que los cambios y nunca se cruzan; por eso deben ser rápidos y
+     * no consultar ni modificar este registro.
+     */
+    public interface DestinationListener {
+        void onDestinationActivated(String destination);
+
+        void onDestinationDeactivated(String destination);
+    }
+
+    /**
+     * Familia de un destino según su prefijo, usada como tag de las métricas
+     */
+    public enum DestinationFamily {
+        ROUTE("/topic/route/"),
+        VEHICLE("/topic/vehicles/"),
+        TILE("/topic/tiles/"),
+        PARKING("/topic/parking"),
+        FLEET("/topic/fleet"),
+        COMPANY("/topic/company/"),
+        OTHER("");
+
+        private final String prefix;
+
+        DestinationFamily(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public static DestinationFamily of(String destination) {
+            for (DestinationFamily family : values()) {
+                if (destination.startsWith(family.prefix)) {
+                    return family;
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    // sessionId -> (subscriptionId -> destino)
+    private final Map<String, Map<String, String>> subscriptionsBySession = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> subscribersByDestination = new ConcurrentHashMap<>();
+    private final List<DestinationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<DestinationFamily, AtomicInteger> subscribersByFamily = new EnumMap<>(DestinationFamily.class);
+    private final Map<DestinationFamily, AtomicInteger> destinationsByFamily = new EnumMap<>(DestinationFamily.class);
+
+    public StompSubscriptionRegistry(MeterRegistry meterRegistry) {
+        for (DestinationFamily family : DestinationFamily.values()) {
+            String tag = family.name().toLowerCase();
+            AtomicInteger subscribers = new AtomicInteger();
+            AtomicInteger destinations = new AtomicInteger();
+            subscribersByFamily.put(family, subscribers);
+            destinationsByFamily.put(family, destinations);
+            Gauge.builder("websocket.subscribers", subscribers, AtomicInteger::get)
+                    .description("Suscripciones STOMP activas")
+                    .tag("family", tag)
+                    .register(meterRegistry);
+            Gauge.builder("websocket.destinations.active", destinations, AtomicInteger::get)
+                    .description("Destinos STOMP con al menos un suscriptor")
+                    .tag("family", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public void addListener(DestinationListener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean hasSubscribers(String destination) {
+        return subscriberCount(destination) > 0;
+    }
+
+    public int subscriberCount(String destination) {
+        AtomicInteger count = subscribersByDestination.get(destination);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Destino de una suscripción de la sesión, o null si no existe
+     */
+    public String destinationOf(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) {
+            return null;
+        }
+        Map<String, String> subscriptions = subscriptionsBySession.get(sessionId);
+        return subscriptions != null ? subscriptions.get(subscriptionId) : null;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        subscribe(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSession(event.getSessionId());
+    }
+
+    /**
+     * Registra una suscripción. Lo usan los eventos STOMP y los transportes propios
+     * (por ejemplo el endpoint binario) para que todos cuenten en el mismo registro.
+     */
+    public void subscribe(String sessionId, String subscriptionId, String destination) {
+        if (sessionId == null || subscriptionId == null || destination == null) {
+            return;
+        }
+
+        String previous = subscriptionsBySession
+                .computeIfAbsent(sessionId, key -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            decrement(previous);
+        }
+        increment(destination);
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = subscriptionsBySession.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            decrement(destination);
+        }
+    }
+
+    public void removeSession(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        Map<String, String> subscriptions = subscriptionsBySession.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        for (String destination : subscriptions.values()) {
+            decrement(destination);
+        }
+    }
+
+    // Los contadores solo se modifican dentro de compute para no perder cambios al llegar a
+    // cero; los avisos también salen desde ahí para que queden ordenados con el cambio
+    private void increment(String destination) {
+        DestinationFamily family = DestinationFamily.of(destination);
+        subscribersByFamily.get(family).incrementAndGet();
+        subscribersByDestination.compute(destination, (key, count) -> {
+            AtomicInteger target = count != null ? count : new AtomicInteger();
+            if (target.incrementAndGet() == 1) {
+                destinationsByFamily.get(family).incrementAndGet();
+                notifyListeners(destination, true);
+            }
+            return target;
+        });
+    }
+
+    private void decrement(String destination) {
+        DestinationFamily family = DestinationFamily.of(destination);
+        subscribersByFamily.get(family).decrementAndGet();
+        subscribersByDestination.computeIfPresent(destination, (key, count) -> {
+            if (count.decrementAndGet() > 0) {
+                return count;
+            }
+            destinationsByFamily.get(family).decrementAndGet();
+            notifyListeners(destination, false);
+            return null;
+        });
+    }
+
+    private void notifyListeners(String destination, boolean activated) {
+        for (DestinationListener listener : listeners) {
+            try {
+                if (activated) {
+                    listener.onDestinationActivated(destination);
+                } else {
+                    listener.onDestinationDeactivated(destination);
+                }
+            } catch (Exception e) {
+                log.error("Error notificando el cambio del destino {}: {}", destination, e.getMessage(), e);
+            }
+        }
+    }
+}
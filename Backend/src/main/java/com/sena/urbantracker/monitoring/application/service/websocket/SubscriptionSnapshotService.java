@@ -0,0 +1,95 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import com.sena.urbantracker.monitoring.domain.live.MapTile;
+import com.sena.urbantracker.monitoring.infrastructure.websocket.OutboundSessionLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Envía el estado actual de una ruta o tesela apenas un cliente se suscribe,
+ * solo a esa sesión. El cliente pinta el mapa de inmediato sin esperar el
+ * siguiente reporte de cada bus ni consultar la API REST.
+ *
+ * El estado se serializa una vez por destino y tick de agrupación: si muchas
+ * sesiones se suscriben a la vez (por ejemplo al reconectarse) comparten el mismo frame.
+ * Las posiciones que lleguen después viajan en el siguiente frame agrupado.
+ *
+ * El mismo frame reemplaza la telemetría pendiente de las sesiones lentas
+ * (ver {@link OutboundSessionLimiter.TelemetryStateSource}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SubscriptionSnapshotService {
+
+    private static final Pattern ROUTE_TELEMETRY = Pattern.compile("^/topic/route/(\\d+)/telemetry$");
+
+    private final LivePositionService livePositionService;
+    private final TelemetryConflationService conflationService;
+    private final WebSocketBroadcastService broadcastService;
+    private final OutboundSessionLimiter outboundSessionLimiter;
+
+    @PostConstruct
+    void registerStateSource() {
+        outboundSessionLimiter.setTelemetryStateSource(this::currentState);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null
+                || !hasSnapshot(destination)) {
+            return;
+        }
+
+        try {
+            EncodedFrame frame = currentState(destination);
+            if (frame.getPayload().length <= 2) {
+                return; // Lista vacía ("[]"): todavía no hay nada que pintar
+            }
+            broadcastService.sendToSession(accessor.getSessionId(), accessor.getSubscriptionId(), destination, frame);
+            log.debug("📸 Estado inicial enviado a la sesión {} para {}", accessor.getSessionId(), destination);
+        } catch (Exception e) {
+            log.error("Error enviando estado inicial de {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Estado actual de la ruta o tesela serializado una vez por tick, o null si el destino no tiene
+     */
+    public EncodedFrame currentState(String destination) {
+        if (!hasSnapshot(destination)) {
+            return null;
+        }
+        return broadcastService.encodeVersioned("snapshot:" + destination,
+                conflationService.currentTick(), () -> snapshotFor(destination));
+    }
+
+    boolean hasSnapshot(String destination) {
+        return ROUTE_TELEMETRY.matcher(destination).matches() || MapTile.parseDestination(destination) != MapTile.INVALID;
+    }
+
+    List<TrackingReqDto> snapshotFor(String destination) {
+        Matcher route = ROUTE_TELEMETRY.matcher(destination);
+        if (route.matches()) {
+            return livePositionService.findRouteTelemetry(Long.parseLong(route.group(1)));
+        }
+        long tile = MapTile.parseDestination(destination);
+        if (tile != MapTile.INVALID) {
+            return livePositionService.findTileTelemetry(tile);
+        }
+        return List.of();
+    }
+}
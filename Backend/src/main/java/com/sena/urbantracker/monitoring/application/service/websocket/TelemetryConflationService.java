@@ -0,0 +1,161 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa la telemetría que va hacia WebSocket: por cada vehículo solo se conserva
+ * la última posición y en cada tick se envía un único frame por destino (ruta o tesela).
+ * Así el tráfico de salida depende del número de destinos y no de la frecuencia
+ * con que reportan los dispositivos.
+ *
+ * Los destinos sin suscriptores se descartan antes de encolar y otra vez antes de
+ * serializar, así la telemetría que nadie mira no genera frames ni JSON.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryConflationService {
+
+    /**
+     * Recibe cada frame agrupado de ruta o tesela, por ejemplo para publicarlo en otro formato
+     */
+    public interface FrameListener {
+        /**
+         * true si el listener necesita los frames del destino aunque nadie esté suscrito al JSON
+         */
+        boolean wants(String destination);
+
+        void onFrame(String destination, Collection<TrackingReqDto> telemetry);
+    }
+
+    private final WebSocketBroadcastService broadcastService;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+
+    // Número de tick; sirve como versión de los frames que se cachean entre ticks
+    private final AtomicLong tick = new AtomicLong();
+
+    // destino -> (vehicleId -> última telemetría). Los mapas internos solo se tocan dentro de compute/remove
+    private final Map<String, Map<String, TrackingReqDto>> pendingFrames = new ConcurrentHashMap<>();
+    // Vehículos sin ruta: vehicleId -> última telemetría
+    private final Map<String, TrackingReqDto> pendingByVehicle = new ConcurrentHashMap<>();
+    private final List<FrameListener> frameListeners = new CopyOnWriteArrayList<>();
+
+    public void addFrameListener(FrameListener listener) {
+        frameListeners.add(listener);
+    }
+
+    /**
+     * Encola la telemetría para el tópico /topic/route/{routeId}/telemetry
+     */
+    public void submitForRoute(String routeId, TrackingReqDto telemetry) {
+        submit("/topic/route/" + routeId + "/telemetry", telemetry);
+    }
+
+    /**
+     * Encola la telemetría para un destino que recibe listas de posiciones (ruta o tesela)
+     */
+    public void submit(String destination, TrackingReqDto telemetry) {
+        if (!isWanted(destination)) {
+            return;
+        }
+        pendingFrames.compute(destination, (key, pending) -> {
+            Map<String, TrackingReqDto> target = pending != null ? pending : new HashMap<>();
+            target.merge(telemetry.getVehicleId(), telemetry, TelemetryConflationService::latest);
+            return target;
+        });
+    }
+
+    /**
+     * Encola la telemetría para el tópico /topic/vehicles/{vehicleId}/telemetry
+     */
+    public void submitForVehicle(String vehicleId, TrackingReqDto telemetry) {
+        if (!subscriptionRegistry.hasSubscribers(vehicleDestination(vehicleId))) {
+            return;
+        }
+        pendingByVehicle.merge(vehicleId, telemetry, TelemetryConflationService::latest);
+    }
+
+    public long currentTick() {
+        return tick.get();
+    }
+
+    @Scheduled(fixedRateString = "${monitoring.websocket.conflation-interval-ms:1000}")
+    public void flush() {
+        for (String destination : pendingFrames.keySet()) {
+            Map<String, TrackingReqDto> pending = pendingFrames.remove(destination);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            List<TrackingReqDto> frame = new ArrayList<>(pending.values());
+            if (subscriptionRegistry.hasSubscribers(destination)) {
+                send(destination, frame);
+            }
+            for (FrameListener listener : frameListeners) {
+                notify(listener, destination, frame);
+            }
+        }
+
+        for (String vehicleId : pendingByVehicle.keySet()) {
+            TrackingReqDto telemetry = pendingByVehicle.remove(vehicleId);
+            String destination = vehicleDestination(vehicleId);
+            if (telemetry != null && subscriptionRegistry.hasSubscribers(destination)) {
+                send(destination, telemetry);
+            }
+        }
+
+        // Lo cacheado en este tick ya no refleja el estado siguiente
+        broadcastService.evictBefore(tick.incrementAndGet());
+    }
+
+    private void send(String destination, Object payload) {
+        try {
+            broadcastService.broadcast(destination, payload);
+        } catch (Exception e) {
+            log.error("Error enviando telemetría agrupada a {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    private void notify(FrameListener listener, String destination, List<TrackingReqDto> frame) {
+        try {
+            listener.onFrame(destination, frame);
+        } catch (Exception e) {
+            log.error("Error procesando frame agrupado de {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    private boolean isWanted(String destination) {
+        if (subscriptionRegistry.hasSubscribers(destination)) {
+            return true;
+        }
+        for (FrameListener listener : frameListeners) {
+            if (listener.wants(destination)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String vehicleDestination(String vehicleId) {
+        return "/topic/vehicles/" + vehicleId + "/telemetry";
+    }
+
+    private static TrackingReqDto latest(TrackingReqDto current, TrackingReqDto candidate) {
+        if (current.getTimestamp() == null || candidate.getTimestamp() == null) {
+            return candidate;
+        }
+        return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+    }
+}
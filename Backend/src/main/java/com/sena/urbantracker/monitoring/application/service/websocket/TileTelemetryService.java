@@ -0,0 +1,121 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.domain.live.MapTile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Publica la telemetría en los tópicos de teselas /topic/tiles/{z}/{x}/{y}.
+ *
+ * Solo se consideran las teselas que tienen al menos un suscriptor: un mapa que
+ * muestra parte de la ciudad se suscribe a las teselas visibles y recibe solo los
+ * vehículos que caen en ellas, sin importar su ruta. Una tesela está activa si
+ * tiene suscriptores en su tópico JSON, en su variante compacta o en el endpoint binario:
+ * se lleva la cuenta de esas variantes activas por tesela, actualizada de forma atómica
+ * con cada aviso del registro.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TileTelemetryService implements StompSubscriptionRegistry.DestinationListener {
+
+    private static final String[] VARIANT_SUFFIXES = {CompactTelemetryService.SUFFIX, BinaryTelemetryService.SUFFIX};
+
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final TelemetryConflationService telemetryConflationService;
+
+    @Value("${monitoring.websocket.tiles.min-zoom:10}")
+    private int minZoom;
+
+    @Value("${monitoring.websocket.tiles.max-zoom:18}")
+    private int maxZoom;
+
+    // tesela -> cuántas de sus variantes (JSON, compacta, binaria) tienen suscriptores
+    private final Map<Long, Integer> activeTiles = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray activeTilesByZoom = new AtomicIntegerArray(MapTile.MAX_ZOOM + 1);
+
+    @PostConstruct
+    public void registerListener() {
+        subscriptionRegistry.addListener(this);
+    }
+
+    /**
+     * Encola la telemetría en cada tesela suscrita que contiene la posición
+     */
+    public void submit(TrackingReqDto telemetry) {
+        if (telemetry.getLatitude() == null || telemetry.getLongitude() == null) {
+            return;
+        }
+        double latitude = telemetry.getLatitude().doubleValue();
+        double longitude = telemetry.getLongitude().doubleValue();
+
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            if (activeTilesByZoom.get(zoom) == 0) {
+                continue;
+            }
+            long tile = MapTile.keyFor(latitude, longitude, zoom);
+            if (activeTiles.containsKey(tile)) {
+                telemetryConflationService.submit(MapTile.destination(tile), telemetry);
+            }
+        }
+    }
+
+    @Override
+    public void onDestinationActivated(String destination) {
+        long tile = tileOf(destination);
+        if (tile == MapTile.INVALID) {
+            return;
+        }
+        activeTiles.compute(tile, (key, variants) -> {
+            if (variants == null) {
+                activeTilesByZoom.incrementAndGet(MapTile.zoomOf(tile));
+                log.debug("🗺️ Tesela activa: {}", destination);
+                return 1;
+            }
+            return variants + 1;
+        });
+    }
+
+    @Override
+    public void onDestinationDeactivated(String destination) {
+        long tile = tileOf(destination);
+        if (tile == MapTile.INVALID) {
+            return;
+        }
+        activeTiles.computeIfPresent(tile, (key, variants) -> {
+            if (variants > 1) {
+                return variants - 1;
+            }
+            activeTilesByZoom.decrementAndGet(MapTile.zoomOf(tile));
+            log.debug("🗺️ Tesela inactiva: {}", destination);
+            return null;
+        });
+    }
+
+    // Tesela del destino, o INVALID si no es de tesela o está fuera del rango de zoom publicado
+    private long tileOf(String destination) {
+        long tile = MapTile.parseDestination(baseDestination(destination));
+        if (tile == MapTile.INVALID || MapTile.zoomOf(tile) < minZoom || MapTile.zoomOf(tile) > maxZoom) {
+            return MapTile.INVALID;
+        }
+        return tile;
+    }
+
+    // Quita el sufijo de las variantes (compacta o binaria) para llegar al tópico de la tesela
+    private static String baseDestination(String destination) {
+        for (String suffix : VARIANT_SUFFIXES) {
+            if (destination.endsWith(suffix)) {
+                return destination.substring(0, destination.length() - suffix.length());
+            }
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Punto único de salida hacia WebSocket. Cada payload se serializa una sola vez
+ * con el mismo convertidor del broker y el byte[] resultante se comparte entre
+ * todas las sesiones suscritas; el broker solo copia los headers por sesión.
+ *
+ * Los frames que se piden varias veces dentro de la misma versión (por ejemplo el
+ * estado inicial de una ruta durante una ola de reconexiones) se guardan por
+ * (clave, versión) y se reutilizan sin volver a serializar.
+ */
+@Slf4j
+@Service
+public class WebSocketBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+
+    private final Map<String, EncodedFrame> versionedFrames = new ConcurrentHashMap<>();
+
+    public WebSocketBroadcastService(SimpMessagingTemplate messagingTemplate,
+                                     @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    /**
+     * Serializa el payload una vez y lo publica a todos los suscriptores del destino
+     */
+    public void broadcast(String destination, Object payload) {
+        broadcast(destination, encode(payload, 0L));
+    }
+
+    public void broadcast(String destination, EncodedFrame frame) {
+        messagingTemplate.send(destination, MessageBuilder.createMessage(frame.getPayload(), headers(frame)));
+    }
+
+    /**
+     * Envía un frame solo a una suscripción de una sesión, sin pasar por el broker
+     */
+    public void sendToSession(String sessionId, String subscriptionId, String destination, EncodedFrame frame) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        accessor.setContentType(frame.getContentType());
+        accessor.setLeaveMutable(true);
+        clientOutboundChannel.send(MessageBuilder.createMessage(frame.getPayload(), accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Frame de la clave para la versión dada; solo se serializa si la versión cambió
+     */
+    public EncodedFrame encodeVersioned(String key, long version, Supplier<?> payload) {
+        EncodedFrame cached = versionedFrames.get(key);
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+        EncodedFrame frame = encode(payload.get(), version);
+        versionedFrames.put(key, frame);
+        return frame;
+    }
+
+    /**
+     * Descarta los frames guardados de versiones anteriores
+     */
+    public void evictBefore(long version) {
+        versionedFrames.values().removeIf(frame -> frame.getVersion() < version);
+    }
+
+    public EncodedFrame encode(Object payload, long version) {
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (message == null) {
+            throw new IllegalArgumentException("No se pudo serializar el payload de tipo " + payload.getClass().getName());
+        }
+        Object body = message.getPayload();
+        byte[] bytes = body instanceof byte[] ? (byte[]) body : body.toString().getBytes(StandardCharsets.UTF_8);
+        MimeType contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE, MimeType.class);
+        return new EncodedFrame(bytes, contentType, version);
+    }
+
+    private MessageHeaders headers(EncodedFrame frame) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(frame.getContentType());
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+}
@@ -19,4 +19,9 @@ public class TrackingDomain extends ABaseDomain {
     private BigDecimal latitude;
     private BigDecimal longitude;
     private DataSourceType dataSource;
+    private Double speedKmh;
+    private Double heading;
+    private Double accuracyMeters;
+    private Double hdop;
+    private Integer satellites;
 }
\ No newline at end of file
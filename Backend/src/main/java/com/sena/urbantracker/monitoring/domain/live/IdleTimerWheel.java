@@ -0,0 +1,183 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rueda de temporizadores (hashed timer wheel) para detectar vehículos inactivos,
+ * indexada por el índice de {@link VehicleIndexRegistry}.
+ *
+ * Reportar solo escribe la hora en un arreglo; el vehículo entra a la rueda una vez
+ * y, cuando su casilla vence, se revisa su última hora: si reportó desde entonces
+ * se vuelve a programar, si no se da por inactivo. Cada tick solo recorre su casilla.
+ */
+@Component
+public class IdleTimerWheel {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final long tickMillis;
+    private final long idleMillis;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private long lastTick = -1;
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    // chunks se reemplaza al crecer, por eso el lock es un objeto aparte
+    private final Object chunksLock = new Object();
+    private final AtomicInteger tracked = new AtomicInteger();
+
+    public IdleTimerWheel(@Value("${monitoring.live.idle-tick-ms:1000}") long tickMillis,
+                          @Value("${monitoring.live.idle-seconds:1800}") long idleSeconds) {
+        this.tickMillis = tickMillis;
+        this.idleMillis = idleSeconds * 1000;
+        // Una vuelta completa cubre el periodo de inactividad, así nunca hace falta contar vueltas
+        int slots = (int) (idleMillis / tickMillis) + 2;
+        this.buckets = new int[slots][];
+        this.bucketSizes = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            buckets[i] = new int[8];
+        }
+    }
+
+    /**
+     * Registra actividad del vehículo. Solo toma el lock la primera vez de cada periodo.
+     */
+    public void touch(int vehicleIndex, long now) {
+        Chunk chunk = chunkFor(vehicleIndex);
+        int slot = vehicleIndex & CHUNK_MASK;
+        chunk.lastSeen.set(slot, now);
+        if (chunk.scheduled.get(slot) == 0 && chunk.scheduled.compareAndSet(slot, 0, 1)) {
+            tracked.incrementAndGet();
+            schedule(vehicleIndex, now + idleMillis);
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta now y retorna los vehículos que llevan idle-seconds sin reportar.
+     * Lo llama un solo hilo.
+     */
+    public int[] advance(long now) {
+        long currentTick = now / tickMillis;
+        int[] expired = new int[0];
+        int expiredCount = 0;
+
+        long firstTick;
+        synchronized (this) {
+            firstTick = lastTick < 0 ? currentTick : lastTick + 1;
+            // Tras una pausa larga basta con recorrer una vuelta
+            firstTick = Math.max(firstTick, currentTick - buckets.length + 1);
+            lastTick = currentTick;
+        }
+
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            int[] due = takeBucket((int) (tick % buckets.length));
+            for (int vehicleIndex : due) {
+                if (vehicleIndex < 0) {
+                    break;
+                }
+                if (check(vehicleIndex, now)) {
+                    if (expiredCount == expired.length) {
+                        expired = Arrays.copyOf(expired, Math.max(16, expiredCount * 2));
+                    }
+                    expired[expiredCount++] = vehicleIndex;
+                }
+            }
+        }
+        return Arrays.copyOf(expired, expiredCount);
+    }
+
+    /**
+     * true si el vehículo no reporta desde hace idle-seconds. Sirve para confirmar, justo
+     * antes de retirarlo, que no reportó después de que {@link #advance} lo diera por inactivo.
+     */
+    public boolean isIdle(int vehicleIndex, long now) {
+        return now - chunkFor(vehicleIndex).lastSeen.get(vehicleIndex & CHUNK_MASK) >= idleMillis;
+    }
+
+    /**
+     * Cantidad de vehículos activos (en la rueda)
+     */
+    public int trackedCount() {
+        return tracked.get();
+    }
+
+    // true si el vehículo quedó inactivo; si reportó desde que se programó, se reprograma
+    private boolean check(int vehicleIndex, long now) {
+        Chunk chunk = chunkFor(vehicleIndex);
+        int slot = vehicleIndex & CHUNK_MASK;
+        long lastSeen = chunk.lastSeen.get(slot);
+        if (now - lastSeen < idleMillis) {
+            schedule(vehicleIndex, lastSeen + idleMillis);
+            return false;
+        }
+
+        chunk.scheduled.set(slot, 0);
+        tracked.decrementAndGet();
+        // Pudo reportar justo ahora: en ese caso no se expira. Si su touch ganó el CAS ya
+        // lo volvió a programar; si no, se programa aquí
+        long latest = chunk.lastSeen.get(slot);
+        if (now - latest < idleMillis) {
+            if (chunk.scheduled.compareAndSet(slot, 0, 1)) {
+                tracked.incrementAndGet();
+                schedule(vehicleIndex, latest + idleMillis);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void schedule(int vehicleIndex, long deadline) {
+        long tick = Math.max(deadline / tickMillis, lastTick + 1);
+        int bucket = (int) (tick % buckets.length);
+        int size = bucketSizes[bucket];
+        if (size == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], size * 2);
+        }
+        buckets[bucket][size] = vehicleIndex;
+        bucketSizes[bucket] = size + 1;
+    }
+
+    // Retorna el contenido de la casilla terminado en -1 si no está lleno, y la deja vacía
+    private synchronized int[] takeBucket(int bucket) {
+        int size = bucketSizes[bucket];
+        int[] due = Arrays.copyOf(buckets[bucket], size + 1);
+        due[size] = -1;
+        bucketSizes[bucket] = 0;
+        if (buckets[bucket].length > 1024 && size < 256) {
+            buckets[bucket] = new int[8];
+        }
+        return due;
+    }
+
+    private Chunk chunkFor(int vehicleIndex) {
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (chunksLock) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+            }
+            if (current[chunkIndex] == null) {
+                current[chunkIndex] = new Chunk();
+            }
+            chunks = current;
+            return current[chunkIndex];
+        }
+    }
+
+    private static final class Chunk {
+        private final AtomicLongArray lastSeen = new AtomicLongArray(CHUNK_SIZE);
+        private final AtomicIntegerArray scheduled = new AtomicIntegerArray(CHUNK_SIZE);
+    }
+}
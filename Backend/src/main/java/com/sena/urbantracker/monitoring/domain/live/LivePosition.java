@@ -0,0 +1,29 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Copia inmutable de la última posición conocida de un vehículo
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LivePosition {
+    private final int vehicleIndex;
+    private final String vehicleId;
+    private final Long routeId;
+    private final Long companyId;
+    private final double latitude;
+    private final double longitude;
+    private final long timestamp; // epoch millis
+    private final DataSourceType dataSource;
+    // Datos opcionales del GPS del dispositivo; null si no los envió
+    private final Double speedKmh;
+    private final Double heading;
+    private final Double accuracyMeters;
+    private final Double hdop;
+    private final Integer satellites;
+}
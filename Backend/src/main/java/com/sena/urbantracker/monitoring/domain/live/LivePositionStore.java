@@ -0,0 +1,294 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Última posición conocida de cada vehículo, guardada en arreglos primitivos
+ * indexados por el índice de {@link VehicleIndexRegistry}.
+ *
+ * Los arreglos se reservan por bloques que nunca se mueven, así crecer no
+ * bloquea a los lectores. Cada posición tiene una versión tipo seqlock: el
+ * escritor la deja impar mientras escribe y los lectores reintentan si cambió,
+ * de modo que las lecturas nunca toman locks.
+ */
+@Component
+public class LivePositionStore {
+
+    public static final long NO_ID = 0L;
+    public static final int NO_SATELLITES = -1;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final DataSourceType[] DATA_SOURCES = DataSourceType.values();
+
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private volatile Chunk[] chunks = new Chunk[16];
+
+    public LivePositionStore(VehicleIndexRegistry vehicleIndexRegistry) {
+        this.vehicleIndexRegistry = vehicleIndexRegistry;
+    }
+
+    /**
+     * Actualiza la posición del vehículo. Las posiciones más antiguas que la
+     * almacenada se ignoran para que un mensaje atrasado no retroceda el mapa.
+     *
+     * @return true si la posición quedó registrada
+     */
+    public boolean update(int vehicleIndex, double latitude, double longitude, long timestamp,
+                          long routeId, long companyId, DataSourceType dataSource) {
+        return update(vehicleIndex, latitude, longitude, timestamp, routeId, companyId, dataSource,
+                Double.NaN, Double.NaN, Double.NaN, Double.NaN, NO_SATELLITES);
+    }
+
+    /**
+     * Igual que {@link #update(int, double, double, long, long, long, DataSourceType)} pero guarda
+     * además los datos del GPS del dispositivo. NaN (o {@link #NO_SATELLITES}) indica que no se enviaron.
+     */
+    public boolean update(int vehicleIndex, double latitude, double longitude, long timestamp,
+                          long routeId, long companyId, DataSourceType dataSource,
+                          double speedKmh, double heading, double accuracyMeters, double hdop, int satellites) {
+        Chunk chunk = chunkFor(vehicleIndex);
+        int slot = vehicleIndex & CHUNK_MASK;
+        long version = chunk.lock(slot);
+        try {
+            if (timestamp < chunk.timestamps[slot]) {
+                return false;
+            }
+            chunk.latitudes[slot] = latitude;
+            chunk.longitudes[slot] = longitude;
+            chunk.timestamps[slot] = timestamp;
+            chunk.routeIds[slot] = routeId;
+            chunk.companyIds[slot] = companyId;
+            chunk.dataSources[slot] = dataSource != null ? (byte) dataSource.ordinal() : -1;
+            chunk.speeds[slot] = speedKmh;
+            chunk.headings[slot] = heading;
+            chunk.accuracies[slot] = accuracyMeters;
+            chunk.hdops[slot] = hdop;
+            chunk.satellites[slot] = satellites;
+            return true;
+        } finally {
+            chunk.unlock(slot, version);
+        }
+    }
+
+    /**
+     * Olvida la posición del vehículo; el siguiente reporte se acepta sin importar su hora
+     */
+    public void remove(int vehicleIndex) {
+        Chunk[] current = chunks;
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        if (vehicleIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return;
+        }
+        Chunk chunk = current[chunkIndex];
+        int slot = vehicleIndex & CHUNK_MASK;
+        long version = chunk.lock(slot);
+        try {
+            chunk.timestamps[slot] = 0L;
+            chunk.routeIds[slot] = NO_ID;
+            chunk.companyIds[slot] = NO_ID;
+        } finally {
+            chunk.unlock(slot, version);
+        }
+    }
+
+    /**
+     * Versión actual de la posición; cambia con cada escritura. -1 si el vehículo nunca reportó
+     */
+    public long version(int vehicleIndex) {
+        Chunk[] current = chunks;
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        if (vehicleIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return -1L;
+        }
+        return current[chunkIndex].versions.get(vehicleIndex & CHUNK_MASK);
+    }
+
+    /**
+     * Igual que {@link #remove(int)} pero solo si nadie escribió la posición desde que se leyó
+     * version; así un reporte que llega mientras se retira al vehículo no se pierde.
+     *
+     * @return true si la posición se olvidó
+     */
+    public boolean removeIfUnchanged(int vehicleIndex, long version) {
+        Chunk[] current = chunks;
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        if (vehicleIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return false;
+        }
+        Chunk chunk = current[chunkIndex];
+        int slot = vehicleIndex & CHUNK_MASK;
+        long locked = chunk.lock(slot);
+        try {
+            if (locked != version) {
+                return false;
+            }
+            chunk.timestamps[slot] = 0L;
+            chunk.routeIds[slot] = NO_ID;
+            chunk.companyIds[slot] = NO_ID;
+            return true;
+        } finally {
+            chunk.unlock(slot, locked);
+        }
+    }
+
+    /**
+     * Retorna la última posición del vehículo o null si no tiene ninguna
+     */
+    public LivePosition get(int vehicleIndex) {
+        return read(vehicleIndex, NO_ID, NO_ID);
+    }
+
+    public List<LivePosition> findAll() {
+        return collect(NO_ID, NO_ID);
+    }
+
+    public List<LivePosition> findByRouteId(long routeId) {
+        return routeId != NO_ID ? collect(routeId, NO_ID) : List.of();
+    }
+
+    public List<LivePosition> findByCompanyId(long companyId) {
+        return companyId != NO_ID ? collect(NO_ID, companyId) : List.of();
+    }
+
+    /**
+     * Posición más reciente reportada en la ruta, o null si la ruta no tiene vehículos
+     */
+    public LivePosition findLatestByRouteId(long routeId) {
+        LivePosition latest = null;
+        for (LivePosition position : findByRouteId(routeId)) {
+            if (latest == null || position.getTimestamp() > latest.getTimestamp()) {
+                latest = position;
+            }
+        }
+        return latest;
+    }
+
+    private List<LivePosition> collect(long routeFilter, long companyFilter) {
+        int size = vehicleIndexRegistry.size();
+        List<LivePosition> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            LivePosition position = read(i, routeFilter, companyFilter);
+            if (position != null) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    private LivePosition read(int vehicleIndex, long routeFilter, long companyFilter) {
+        Chunk[] current = chunks;
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        if (vehicleIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return null;
+        }
+        Chunk chunk = current[chunkIndex];
+        int slot = vehicleIndex & CHUNK_MASK;
+
+        while (true) {
+            long version = chunk.versions.get(slot);
+            if ((version & 1L) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long timestamp = chunk.timestamps[slot];
+            long routeId = chunk.routeIds[slot];
+            long companyId = chunk.companyIds[slot];
+            double latitude = chunk.latitudes[slot];
+            double longitude = chunk.longitudes[slot];
+            byte dataSource = chunk.dataSources[slot];
+            double speedKmh = chunk.speeds[slot];
+            double heading = chunk.headings[slot];
+            double accuracyMeters = chunk.accuracies[slot];
+            double hdop = chunk.hdops[slot];
+            int satellites = chunk.satellites[slot];
+            VarHandle.acquireFence();
+            if (chunk.versions.get(slot) != version) {
+                continue;
+            }
+
+            if (timestamp == 0L
+                    || (routeFilter != NO_ID && routeId != routeFilter)
+                    || (companyFilter != NO_ID && companyId != companyFilter)) {
+                return null;
+            }
+            return new LivePosition(
+                    vehicleIndex,
+                    vehicleIndexRegistry.vehicleIdAt(vehicleIndex),
+                    routeId != NO_ID ? routeId : null,
+                    companyId != NO_ID ? companyId : null,
+                    latitude,
+                    longitude,
+                    timestamp,
+                    dataSource >= 0 ? DATA_SOURCES[dataSource] : null,
+                    optional(speedKmh),
+                    optional(heading),
+                    optional(accuracyMeters),
+                    optional(hdop),
+                    satellites != NO_SATELLITES ? satellites : null
+            );
+        }
+    }
+
+    private static Double optional(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private Chunk chunkFor(int vehicleIndex) {
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+            }
+            if (current[chunkIndex] == null) {
+                current[chunkIndex] = new Chunk();
+            }
+            chunks = current;
+            return current[chunkIndex];
+        }
+    }
+
+    private static final class Chunk {
+        private final AtomicLongArray versions = new AtomicLongArray(CHUNK_SIZE);
+        private final double[] latitudes = new double[CHUNK_SIZE];
+        private final double[] longitudes = new double[CHUNK_SIZE];
+        private final long[] timestamps = new long[CHUNK_SIZE];
+        private final long[] routeIds = new long[CHUNK_SIZE];
+        private final long[] companyIds = new long[CHUNK_SIZE];
+        private final byte[] dataSources = new byte[CHUNK_SIZE];
+        private final double[] speeds = new double[CHUNK_SIZE];
+        private final double[] headings = new double[CHUNK_SIZE];
+        private final double[] accuracies = new double[CHUNK_SIZE];
+        private final double[] hdops = new double[CHUNK_SIZE];
+        private final int[] satellites = new int[CHUNK_SIZE];
+
+        // La versión impar funciona también como lock de escritura de la posición
+        private long lock(int slot) {
+            while (true) {
+                long version = versions.get(slot);
+                if ((version & 1L) == 0 && versions.compareAndSet(slot, version, version + 1)) {
+                    VarHandle.storeStoreFence();
+                    return version;
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        private void unlock(int slot, long version) {
+            versions.set(slot, version + 2);
+        }
+    }
+}
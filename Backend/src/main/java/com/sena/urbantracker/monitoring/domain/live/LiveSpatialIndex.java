@@ -0,0 +1,350 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import com.sena.urbantracker.shared.infrastructure.util.GeoMath;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice espacial de las posiciones en vivo sobre una grilla uniforme de celdas lat/lon.
+ *
+ * Cada vehículo pertenece a una sola celda y solo cambia de celda cuando la cruza,
+ * así que la mayoría de actualizaciones no modifican el índice. Las consultas recorren
+ * únicamente las celdas que cubren el área pedida y filtran con la posición exacta
+ * del {@link LivePositionStore}, por lo que su costo depende del resultado y no del
+ * tamaño de la flota.
+ */
+@Component
+public class LiveSpatialIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final long NO_CELL = Long.MIN_VALUE;
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int STRIPES = 64;
+
+    private final LivePositionStore livePositionStore;
+    private final double cellDegrees;
+
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicInteger indexedVehicles = new AtomicInteger();
+    private volatile long[][] cellByVehicle = new long[16][];
+
+    public LiveSpatialIndex(LivePositionStore livePositionStore,
+                            @Value("${monitoring.live.grid-cell-degrees:0.0025}") double cellDegrees) {
+        this.livePositionStore = livePositionStore;
+        this.cellDegrees = cellDegrees;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Ubica al vehículo en la celda de su nueva posición; si no cambió de celda no hace nada
+     */
+    public void move(int vehicleIndex, double latitude, double longitude) {
+        long newCell = cellKey(row(latitude), column(longitude));
+        synchronized (stripes[vehicleIndex & (STRIPES - 1)]) {
+            long[] chunk = chunkFor(vehicleIndex);
+            int slot = vehicleIndex & CHUNK_MASK;
+            long oldCell = chunk[slot];
+            if (oldCell == newCell) {
+                return;
+            }
+            if (oldCell != NO_CELL) {
+                removeFromCell(oldCell, vehicleIndex);
+            } else {
+                indexedVehicles.incrementAndGet();
+            }
+            cells.compute(newCell, (key, cell) -> {
+                Cell target = cell != null ? cell : new Cell();
+                target.add(vehicleIndex);
+                return target;
+            });
+            chunk[slot] = newCell;
+        }
+    }
+
+    /**
+     * Saca al vehículo del índice
+     */
+    public void remove(int vehicleIndex) {
+        synchronized (stripes[vehicleIndex & (STRIPES - 1)]) {
+            long[] chunk = chunkFor(vehicleIndex);
+            int slot = vehicleIndex & CHUNK_MASK;
+            if (chunk[slot] != NO_CELL) {
+                removeFromCell(chunk[slot], vehicleIndex);
+                chunk[slot] = NO_CELL;
+                indexedVehicles.decrementAndGet();
+            }
+        }
+    }
+
+    public int size() {
+        return indexedVehicles.get();
+    }
+
+    /**
+     * Vehículos dentro del rectángulo (límites inclusivos)
+     */
+    public List<LivePosition> findInBox(double minLatitude, double minLongitude,
+                                        double maxLatitude, double maxLongitude) {
+        List<LivePosition> result = new ArrayList<>();
+        for (int vehicleIndex : candidatesInBox(minLatitude, minLongitude, maxLatitude, maxLongitude).toArray()) {
+            LivePosition position = livePositionStore.get(vehicleIndex);
+            if (position != null
+                    && position.getLatitude() >= minLatitude && position.getLatitude() <= maxLatitude
+                    && position.getLongitude() >= minLongitude && position.getLongitude() <= maxLongitude) {
+                result.add(position);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vehículos a menos de radiusMeters del punto, ordenados del más cercano al más lejano
+     */
+    public List<NearbyPosition> findWithinRadius(double latitude, double longitude, double radiusMeters) {
+        double latitudeDelta = radiusMeters / METERS_PER_DEGREE;
+        double longitudeDelta = radiusMeters / (METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+
+        IntList candidates = candidatesInBox(latitude - latitudeDelta, longitude - longitudeDelta,
+                latitude + latitudeDelta, longitude + longitudeDelta);
+
+        List<NearbyPosition> result = new ArrayList<>();
+        for (int vehicleIndex : candidates.toArray()) {
+            LivePosition position = livePositionStore.get(vehicleIndex);
+            if (position == null) {
+                continue;
+            }
+            double distance = GeoMath.distanceMeters(latitude, longitude, position.getLatitude(), position.getLongitude());
+            if (distance <= radiusMeters) {
+                result.add(new NearbyPosition(position, distance));
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyPosition::getDistanceMeters));
+        return result;
+    }
+
+    /**
+     * Los k vehículos más cercanos al punto. Recorre anillos de celdas alrededor del punto
+     * y se detiene cuando ningún anillo pendiente puede tener un vehículo más cercano.
+     */
+    public List<NearbyPosition> findNearest(double latitude, double longitude, int k) {
+        PriorityQueue<NearbyPosition> best = new PriorityQueue<>(
+                Comparator.comparingDouble(NearbyPosition::getDistanceMeters).reversed());
+        if (k <= 0) {
+            return List.of();
+        }
+
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        IntList ringCandidates = new IntList();
+
+        for (int ring = 0; ; ring++) {
+            long ringCells = (long) (2 * ring + 1) * (2 * ring + 1);
+            if (ringCells > cells.size()) {
+                // Con anillos más grandes que el número de celdas ocupadas es más barato recorrerlas todas
+                scanRemainingCells(centerRow, centerColumn, ring, latitude, longitude, k, best);
+                break;
+            }
+
+            ringCandidates.clear();
+            for (int dRow = -ring; dRow <= ring; dRow++) {
+                boolean edgeRow = Math.abs(dRow) == ring;
+                for (int dColumn = -ring; dColumn <= ring; dColumn += edgeRow ? 1 : Math.max(1, 2 * ring)) {
+                    Cell cell = cells.get(cellKey(centerRow + dRow, centerColumn + dColumn));
+                    if (cell != null) {
+                        cell.copyTo(ringCandidates);
+                    }
+                }
+            }
+            offer(ringCandidates, latitude, longitude, k, best);
+
+            double minPendingDistance = ring * minCellSideMeters(latitude, ring);
+            if (best.size() == k && best.peek().getDistanceMeters() <= minPendingDistance) {
+                break;
+            }
+        }
+
+        List<NearbyPosition> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyPosition::getDistanceMeters));
+        return result;
+    }
+
+    private void scanRemainingCells(int centerRow, int centerColumn, int fromRing,
+                                    double latitude, double longitude, int k,
+                                    PriorityQueue<NearbyPosition> best) {
+        IntList candidates = new IntList();
+        for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+            long key = entry.getKey();
+            int ring = Math.max(Math.abs(rowOf(key) - centerRow), Math.abs(columnOf(key) - centerColumn));
+            if (ring >= fromRing) {
+                entry.getValue().copyTo(candidates);
+            }
+        }
+        offer(candidates, latitude, longitude, k, best);
+    }
+
+    private void offer(IntList candidates, double latitude, double longitude, int k,
+                       PriorityQueue<NearbyPosition> best) {
+        for (int vehicleIndex : candidates.toArray()) {
+            LivePosition position = livePositionStore.get(vehicleIndex);
+            if (position == null) {
+                continue;
+            }
+            double distance = GeoMath.distanceMeters(latitude, longitude, position.getLatitude(), position.getLongitude());
+            if (best.size() < k) {
+                best.add(new NearbyPosition(position, distance));
+            } else if (distance < best.peek().getDistanceMeters()) {
+                best.poll();
+                best.add(new NearbyPosition(position, distance));
+            }
+        }
+    }
+
+    private IntList candidatesInBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        int minRow = row(minLatitude);
+        int maxRow = row(maxLatitude);
+        int minColumn = column(minLongitude);
+        int maxColumn = column(maxLongitude);
+        IntList candidates = new IntList();
+
+        long boxCells = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (boxCells <= cells.size()) {
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minColumn; c <= maxColumn; c++) {
+                    Cell cell = cells.get(cellKey(r, c));
+                    if (cell != null) {
+                        cell.copyTo(candidates);
+                    }
+                }
+            }
+        } else {
+            // Rectángulo más grande que las celdas ocupadas: se recorren solo las ocupadas
+            for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+                int r = rowOf(entry.getKey());
+                int c = columnOf(entry.getKey());
+                if (r >= minRow && r <= maxRow && c >= minColumn && c <= maxColumn) {
+                    entry.getValue().copyTo(candidates);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void removeFromCell(long key, int vehicleIndex) {
+        cells.computeIfPresent(key, (k, cell) -> cell.remove(vehicleIndex) ? null : cell);
+    }
+
+    private long[] chunkFor(int vehicleIndex) {
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        long[][] current = cellByVehicle;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = cellByVehicle;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+            }
+            if (current[chunkIndex] == null) {
+                long[] chunk = new long[CHUNK_SIZE];
+                Arrays.fill(chunk, NO_CELL);
+                current[chunkIndex] = chunk;
+            }
+            cellByVehicle = current;
+            return current[chunkIndex];
+        }
+    }
+
+    private double minCellSideMeters(double latitude, int ring) {
+        double farthestLatitude = Math.min(89.0, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        return cellDegrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    private static int rowOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int columnOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Vehículos de una celda. Solo se modifica dentro de compute del mapa de celdas;
+     * la sincronización protege las copias que hacen las consultas concurrentes.
+     */
+    private static final class Cell {
+        private int[] members = new int[4];
+        private int size;
+
+        synchronized void add(int vehicleIndex) {
+            if (size == members.length) {
+                members = Arrays.copyOf(members, size * 2);
+            }
+            members[size++] = vehicleIndex;
+        }
+
+        /**
+         * @return true si la celda quedó vacía
+         */
+        synchronized boolean remove(int vehicleIndex) {
+            for (int i = 0; i < size; i++) {
+                if (members[i] == vehicleIndex) {
+                    members[i] = members[--size];
+                    break;
+                }
+            }
+            return size == 0;
+        }
+
+        synchronized void copyTo(IntList target) {
+            target.addAll(members, size);
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void addAll(int[] source, int count) {
+            if (size + count > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + count));
+            }
+            System.arraycopy(source, 0, values, size, count);
+            size += count;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
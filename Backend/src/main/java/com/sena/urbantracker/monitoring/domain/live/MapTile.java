@@ -0,0 +1,101 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+/**
+ * Utilidades de teselas del mapa (esquema XYZ de OpenStreetMap / Web Mercator)
+ * y de sus destinos STOMP /topic/tiles/{z}/{x}/{y}.
+ */
+public final class MapTile {
+
+    public static final String DESTINATION_PREFIX = "/topic/tiles/";
+    public static final int MAX_ZOOM = 22;
+    public static final long INVALID = -1L;
+
+    private MapTile() {
+    }
+
+    public static int tileX(double longitude, int zoom) {
+        int tiles = 1 << zoom;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * tiles);
+        return Math.max(0, Math.min(tiles - 1, x));
+    }
+
+    public static int tileY(double latitude, int zoom) {
+        int tiles = 1 << zoom;
+        double latRad = Math.toRadians(latitude);
+        int y = (int) Math.floor((1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * tiles);
+        return Math.max(0, Math.min(tiles - 1, y));
+    }
+
+    public static double westLongitude(long key) {
+        return xOf(key) / (double) (1 << zoomOf(key)) * 360.0 - 180.0;
+    }
+
+    public static double eastLongitude(long key) {
+        return (xOf(key) + 1) / (double) (1 << zoomOf(key)) * 360.0 - 180.0;
+    }
+
+    public static double northLatitude(long key) {
+        return latitudeOfRow(yOf(key), zoomOf(key));
+    }
+
+    public static double southLatitude(long key) {
+        return latitudeOfRow(yOf(key) + 1, zoomOf(key));
+    }
+
+    private static double latitudeOfRow(int y, int zoom) {
+        double n = Math.PI - 2.0 * Math.PI * y / (1 << zoom);
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Empaqueta z/x/y en un long: 6 bits de zoom y 29 bits para cada coordenada
+     */
+    public static long key(int zoom, int x, int y) {
+        return ((long) zoom << 58) | ((long) x << 29) | y;
+    }
+
+    public static long keyFor(double latitude, double longitude, int zoom) {
+        return key(zoom, tileX(longitude, zoom), tileY(latitude, zoom));
+    }
+
+    public static int zoomOf(long key) {
+        return (int) (key >>> 58);
+    }
+
+    public static int xOf(long key) {
+        return (int) ((key >>> 29) & 0x1FFFFFFFL);
+    }
+
+    public static int yOf(long key) {
+        return (int) (key & 0x1FFFFFFFL);
+    }
+
+    public static String destination(long key) {
+        return DESTINATION_PREFIX + zoomOf(key) + "/" + xOf(key) + "/" + yOf(key);
+    }
+
+    /**
+     * Interpreta un destino /topic/tiles/{z}/{x}/{y}; retorna INVALID si no es una tesela válida
+     */
+    public static long parseDestination(String destination) {
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX)) {
+            return INVALID;
+        }
+        String[] parts = destination.substring(DESTINATION_PREFIX.length()).split("/");
+        if (parts.length != 3) {
+            return INVALID;
+        }
+        try {
+            int zoom = Integer.parseInt(parts[0]);
+            int x = Integer.parseInt(parts[1]);
+            int y = Integer.parseInt(parts[2]);
+            int tiles = zoom >= 0 && zoom <= MAX_ZOOM ? 1 << zoom : 0;
+            if (x < 0 || y < 0 || x >= tiles || y >= tiles) {
+                return INVALID;
+            }
+            return key(zoom, x, y);
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Posición en vivo junto con su distancia al punto consultado
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NearbyPosition {
+    private final LivePosition position;
+    private final double distanceMeters;
+}
@@ -0,0 +1,107 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular de eventos de posición compartido por todos los lectores.
+ *
+ * Cada evento tiene un número de secuencia creciente; los lectores solo guardan
+ * su cursor y leen sin locks. Cuando el buffer da la vuelta los eventos más viejos
+ * se sobrescriben: un lector que se quedó atrás lo detecta porque la entrada ya
+ * no tiene la secuencia que buscaba.
+ *
+ * Las secuencias vuelven a 0 en cada arranque, por eso el id público de un evento
+ * lleva la época del buffer: un id de otra época no se puede reanudar.
+ */
+public class PositionEventRing {
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long sequence;
+        private final long routeId;
+        private final long companyId;
+        private final String payload; // JSON ya serializado
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<Entry> entries;
+    // Siguiente secuencia a escribir; las secuencias publicadas van de 0 a head - 1
+    private final AtomicLong head = new AtomicLong();
+    @Getter
+    private final long epoch = System.currentTimeMillis();
+
+    public PositionEventRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser potencia de 2: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Publica un evento y retorna su secuencia. Los escritores se serializan entre sí;
+     * los lectores nunca esperan.
+     */
+    public synchronized long publish(long routeId, long companyId, String payload) {
+        long sequence = head.get();
+        entries.set((int) (sequence & mask), new Entry(sequence, routeId, companyId, payload));
+        head.set(sequence + 1);
+        return sequence;
+    }
+
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * Evento con la secuencia dada, o null si todavía no existe o ya fue sobrescrito
+     */
+    public Entry get(long sequence) {
+        if (sequence < 0 || sequence >= head.get()) {
+            return null;
+        }
+        Entry entry = entries.get((int) (sequence & mask));
+        return entry != null && entry.getSequence() == sequence ? entry : null;
+    }
+
+    /**
+     * Id público del evento: época y secuencia
+     */
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Secuencia de un id generado por {@link #eventId}, o -1 si es inválido o de otra época
+     */
+    public long sequenceOf(String eventId) {
+        if (eventId == null) {
+            return -1;
+        }
+        int separator = eventId.indexOf('-');
+        if (separator <= 0) {
+            return -1;
+        }
+        try {
+            if (Long.parseLong(eventId.substring(0, separator).trim()) != epoch) {
+                return -1;
+            }
+            return Long.parseLong(eventId.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * true si la secuencia sigue disponible para leer (o es la próxima a publicarse)
+     */
+    public boolean isAvailable(long sequence) {
+        long current = head.get();
+        return sequence >= 0 && sequence <= current && current - sequence <= mask + 1;
+    }
+}
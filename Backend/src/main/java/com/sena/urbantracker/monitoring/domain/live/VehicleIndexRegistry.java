@@ -0,0 +1,65 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asigna a cada vehicleId un índice entero compacto y estable.
+ * Los almacenes en memoria usan ese índice para indexar arreglos primitivos
+ * en lugar de mapas por String.
+ */
+@Component
+public class VehicleIndexRegistry {
+
+    private final ConcurrentHashMap<String, Integer> indexByVehicleId = new ConcurrentHashMap<>();
+    private volatile String[] vehicleIdByIndex = new String[256];
+    private volatile int size = 0;
+
+    /**
+     * Retorna el índice del vehículo, asignando uno nuevo si es la primera vez que se ve
+     */
+    public int intern(String vehicleId) {
+        Integer index = indexByVehicleId.get(vehicleId);
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            index = indexByVehicleId.get(vehicleId);
+            if (index != null) {
+                return index;
+            }
+            int next = size;
+            String[] ids = vehicleIdByIndex;
+            if (next == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[next] = vehicleId;
+            vehicleIdByIndex = ids;
+            indexByVehicleId.put(vehicleId, next);
+            size = next + 1;
+            return next;
+        }
+    }
+
+    /**
+     * Retorna el índice del vehículo o -1 si nunca se ha registrado
+     */
+    public int indexOf(String vehicleId) {
+        Integer index = indexByVehicleId.get(vehicleId);
+        return index != null ? index : -1;
+    }
+
+    public String vehicleIdAt(int index) {
+        String[] ids = vehicleIdByIndex;
+        return index >= 0 && index < ids.length ? ids[index] : null;
+    }
+
+    /**
+     * Cantidad de índices asignados; los índices válidos van de 0 a size() - 1
+     */
+    public int size() {
+        return size;
+    }
+}
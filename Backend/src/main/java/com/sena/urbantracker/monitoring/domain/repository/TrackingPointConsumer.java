@@ -0,0 +1,10 @@
+package com.sena.urbantracker.monitoring.domain.repository;
+
+/**
+ * Recibe los puntos de un recorrido histórico sin crear objetos por punto.
+ * speedKmh es la velocidad reportada por el dispositivo, o NaN si no la tiene.
+ */
+@FunctionalInterface
+public interface TrackingPointConsumer {
+    void accept(long timestampMillis, double latitude, double longitude, double speedKmh);
+}
@@ -2,6 +2,7 @@ package com.sena.urbantracker.monitoring.domain.repository;
 
 import com.sena.urbantracker.monitoring.domain.entity.TrackingDomain;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +19,16 @@ public interface TrackingRepository {
     boolean existsById(Long id);
 
     TrackingDomain saveAndFlush(TrackingDomain tracking);
+
+    /**
+     * Vehículos con telemetría guardada en [from, to); companyId null para toda la flota
+     */
+    List<Long> findVehicleIdsWithTracking(OffsetDateTime from, OffsetDateTime to, Long companyId);
+
+    /**
+     * Entrega en orden de tiempo los puntos del vehículo en [from, to), leyéndolos por partes
+     *
+     * @return cantidad de puntos entregados
+     */
+    long forEachPoint(Long vehicleId, OffsetDateTime from, OffsetDateTime to, TrackingPointConsumer consumer);
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.sena.urbantracker.monitoring.infrastructure.controller;
+
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/monitoring/live")
+@RequiredArgsConstructor
+public class LivePositionController {
+
+    private final LivePositionService livePositionService;
+
+    /**
+     * Última posición conocida de toda la flota
+     */
+    @GetMapping
+    public ResponseEntity<List<LivePositionResDto>> getFleetSnapshot() {
+        return ResponseEntity.ok(livePositionService.findAll());
+    }
+
+    /**
+     * Última posición conocida de los vehículos de una ruta
+     */
+    @GetMapping("/route/{routeId}")
+    public ResponseEntity<List<LivePositionResDto>> getRouteSnapshot(@PathVariable Long routeId) {
+        return ResponseEntity.ok(livePositionService.findByRouteId(routeId));
+    }
+
+    /**
+     * Última posición conocida de los vehículos de una compañía
+     */
+    @GetMapping("/company/{companyId}")
+    public ResponseEntity<List<LivePositionResDto>> getCompanySnapshot(@PathVariable Long companyId) {
+        return ResponseEntity.ok(livePositionService.findByCompanyId(companyId));
+    }
+
+    /**
+     * Última posición conocida de un vehículo
+     */
+    @GetMapping("/vehicle/{vehicleId}")
+    public ResponseEntity<LivePositionResDto> getVehiclePosition(@PathVariable String vehicleId) {
+        return livePositionService.findByVehicleId(vehicleId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,54 @@
+package com.sena.urbantracker.monitoring.infrastructure.controller;
+
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/public/live")
+@RequiredArgsConstructor
+public class LivePositionPublicController {
+
+    private final LivePositionService livePositionService;
+
+    /**
+     * Vehículos dentro del área visible del mapa
+     */
+    @GetMapping("/bbox")
+    public ResponseEntity<List<LivePositionResDto>> getInBox(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon) {
+        return ResponseEntity.ok(livePositionService.findInBox(minLat, minLon, maxLat, maxLon));
+    }
+
+    /**
+     * Vehículos dentro de un radio alrededor de un punto
+     */
+    @GetMapping("/radius")
+    public ResponseEntity<List<LivePositionResDto>> getWithinRadius(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "500") double radiusMeters) {
+        return ResponseEntity.ok(livePositionService.findWithinRadius(lat, lon, radiusMeters));
+    }
+
+    /**
+     * Los k vehículos más cercanos a un punto
+     */
+    @GetMapping("/nearest")
+    public ResponseEntity<List<LivePositionResDto>> getNearest(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") int k) {
+        return ResponseEntity.ok(livePositionService.findNearest(lat, lon, k));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sena.urbantracker.monitoring.infrastructure.controller;
+
+import com.sena.urbantracker.monitoring.application.service.live.LiveStreamService;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Feed de posiciones en vivo por Server-Sent Events para pantallas y tableros de solo lectura.
+ * El primer evento es "snapshot" con el estado actual; después llegan eventos "position".
+ */
+@RestController
+@RequestMapping("/api/v1/public/live/stream")
+@RequiredArgsConstructor
+public class LiveStreamController {
+
+    private final LiveStreamService liveStreamService;
+
+    @GetMapping(value = "/route/{routeId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRoute(
+            @PathVariable Long routeId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        // 0 es el id vacío del almacén en vivo: se interpretaría como los vehículos sin ruta
+        if (routeId <= 0) {
+            throw new ValidationException("El ID de la ruta debe ser un número positivo");
+        }
+        return liveStreamService.streamRoute(routeId, lastEventId);
+    }
+
+    @GetMapping(value = "/company/{companyId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCompany(
+            @PathVariable Long companyId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (companyId <= 0) {
+            throw new ValidationException("El ID de la compañía debe ser un número positivo");
+        }
+        return liveStreamService.streamCompany(companyId, lastEventId);
+    }
+}
@@ -1,32 +1,63 @@
 package com.sena.urbantracker.monitoring.infrastructure.controller;
 
 import com.sena.urbantracker.monitoring.application.dto.response.CoordinatesResponseDto;
+import com.sena.urbantracker.monitoring.application.dto.response.FleetGroupSummaryResDto;
+import com.sena.urbantracker.monitoring.application.dto.response.FleetSummaryResDto;
+import com.sena.urbantracker.monitoring.application.service.live.FleetSummaryService;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/monitoring")
 public class MonitoringController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketBroadcastService broadcastService;
+
+    @Autowired
+    private LivePositionService livePositionService;
+
+    @Autowired
+    private FleetSummaryService fleetSummaryService;
 
     @GetMapping("/coordinates/{routeName}")
     public ResponseEntity<CoordinatesResponseDto> getCoordinates(@PathVariable String routeName) {
-        // Valores fijos para prueba, mismo formato que WebSocket
-        CoordinatesResponseDto coordinates = new CoordinatesResponseDto(new BigDecimal("-74.08175"), new BigDecimal("4.60971"));
+        // Última posición conocida en la ruta, mismo formato que WebSocket
+        Optional<CoordinatesResponseDto> coordinates = livePositionService.findLatestCoordinatesByRoute(routeName);
+        if (coordinates.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
         // Publicar al tópico WebSocket
-        messagingTemplate.convertAndSend("/topic/route/" + routeName + "/coordinates", coordinates);
+        broadcastService.broadcast("/topic/route/" + routeName + "/coordinates", coordinates.get());
         System.out.println("REST: Enviando coordenadas vía WebSocket para ruta: " + routeName);
 
-        return ResponseEntity.ok(coordinates);
+        return ResponseEntity.ok(coordinates.get());
+    }
+
+    /**
+     * Resumen de la flota por ruta y compañía, el mismo que se publica en /topic/fleet/summary
+     */
+    @GetMapping("/fleet/summary")
+    public ResponseEntity<FleetSummaryResDto> getFleetSummary() {
+        return ResponseEntity.ok(fleetSummaryService.getSummary());
+    }
+
+    @GetMapping("/fleet/summary/route/{routeId}")
+    public ResponseEntity<FleetGroupSummaryResDto> getRouteSummary(@PathVariable Long routeId) {
+        return ResponseEntity.ok(fleetSummaryService.getRouteSummary(routeId));
+    }
+
+    @GetMapping("/fleet/summary/company/{companyId}")
+    public ResponseEntity<FleetGroupSummaryResDto> getCompanySummary(@PathVariable Long companyId) {
+        return ResponseEntity.ok(fleetSummaryService.getCompanySummary(companyId));
     }
-}
\ No newline at end of file
+}
@@ -2,53 +2,78 @@ package com.sena.urbantracker.monitoring.infrastructure.controller;
 
 import com.sena.urbantracker.monitoring.application.dto.response.CoordinatesResponseDto;
 import com.sena.urbantracker.monitoring.application.dto.RouteStatusDto;
+import com.sena.urbantracker.monitoring.application.service.live.FleetSummaryService;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import com.sena.urbantracker.monitoring.application.service.websocket.CompactTelemetryService;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Controller("")
 public class WebSocketController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketBroadcastService broadcastService;
+
+    @Autowired
+    private LivePositionService livePositionService;
+
+    @Autowired
+    private FleetSummaryService fleetSummaryService;
+
+    @Autowired
+    private CompactTelemetryService compactTelemetryService;
 
     @MessageMapping("/coordinates/{routeName}")
     @SendTo("/topic/route/{routeName}/coordinates")
     public CoordinatesResponseDto getCoordinates(@DestinationVariable String routeName) {
         System.out.println("WebSocket funcionando: Solicitando coordenadas para ruta: " + routeName);
-        // Valores fijos para prueba
-        return new CoordinatesResponseDto(new BigDecimal("-74.08175"), new BigDecimal("4.60971"));
+        // Última posición conocida en la ruta; sin posición no se publica nada
+        return livePositionService.findLatestCoordinatesByRoute(routeName).orElse(null);
     }
 
     @MessageMapping("/status/{routeName}")
     @SendTo("/topic/route/{routeName}/status")
     public RouteStatusDto getStatus(@DestinationVariable String routeName) {
         System.out.println("WebSocket funcionando: Solicitando status para ruta: " + routeName);
-        // Valores fijos para prueba
-        return new RouteStatusDto("ACTIVE", OffsetDateTime.now());
+        // ACTIVE si algún vehículo de la ruta está reportando
+        boolean active;
+        try {
+            active = fleetSummaryService.isRouteActive(Long.parseLong(routeName));
+        } catch (NumberFormatException e) {
+            active = false;
+        }
+        return new RouteStatusDto(active ? "ACTIVE" : "INACTIVE", OffsetDateTime.now());
+    }
+
+    // El cliente compacto detectó un hueco en los deltas: se le reenvía el keyframe de su suscripción
+    @MessageMapping("/telemetry/compact/resync")
+    public void resyncCompact(@Header("simpSessionId") String sessionId,
+                              @Header(name = "subscription", required = false) String subscriptionId) {
+        compactTelemetryService.resync(sessionId, subscriptionId);
     }
 
     // Método para publicar coordenadas desde el servidor
     public void sendCoordinates(String routeName, CoordinatesResponseDto coordinates) {
         System.out.println("WebSocket funcionando: Enviando coordenadas para ruta: " + routeName + " - " + coordinates);
-        messagingTemplate.convertAndSend("/topic/route/" + routeName + "/coordinates", coordinates);
+        broadcastService.broadcast("/topic/route/" + routeName + "/coordinates", coordinates);
     }
 
     // Método para publicar status desde el servidor
     public void sendStatus(String routeName, RouteStatusDto status) {
         System.out.println("WebSocket funcionando: Enviando status para ruta: " + routeName + " - " + status);
-        messagingTemplate.convertAndSend("/topic/route/" + routeName + "/status", status);
+        broadcastService.broadcast("/topic/route/" + routeName + "/status", status);
     }
 
     // Método para publicar telemetría desde el servidor
     public void sendTelemetry(String routeName, String telemetry) {
         System.out.println("WebSocket funcionando: Enviando telemetría para ruta: " + routeName + " - " + telemetry);
-        messagingTemplate.convertAndSend("/topic/route/" + routeName + "/telemetry", telemetry);
+        broadcastService.broadcast("/topic/route/" + routeName + "/telemetry", telemetry);
     }
 }
\ No newline at end of file
@@ -4,33 +4,45 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.service.live.LivePositionService;
+import com.sena.urbantracker.monitoring.application.service.live.LiveStreamService;
+import com.sena.urbantracker.monitoring.application.service.websocket.TelemetryConflationService;
+import com.sena.urbantracker.monitoring.application.service.websocket.TileTelemetryService;
 import com.sena.urbantracker.parking.application.service.ParkingDetectionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.messaging.Message;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
 public class MqttMessageListener {
 
-    @Autowired
-    private SimpMessagingTemplate messagingTemplate;
-
     @Autowired
     private ObjectMapper objectMapper;
 
     @Autowired
     private ParkingDetectionService parkingDetectionService;
 
+    @Autowired
+    private LivePositionService livePositionService;
+
+    @Autowired
+    private LiveStreamService liveStreamService;
+
+    @Autowired
+    private TelemetryConflationService telemetryConflationService;
+
+    @Autowired
+    private TileTelemetryService tileTelemetryService;
+
     @ServiceActivator(inputChannel = "mqttInputChannel")
     public void handleIncomingMessage(Message<?> message) throws JsonProcessingException {
         String topic = (String) message.getHeaders().get("mqtt_receivedTopic");
         String payload = message.getPayload().toString();
 
-        log.info("📩 MQTT recibido | Topic: {} | Payload: {}", topic, payload);
+        log.debug("📩 MQTT recibido | Topic: {} | Payload: {}", topic, payload);
 
         if (topic.startsWith("routes/")) {
             String[] parts = topic.split("/");
@@ -38,8 +50,11 @@ public class MqttMessageListener {
 
             try {
                 TrackingReqDto telemetry = objectMapper.readValue(payload, TrackingReqDto.class);
-                messagingTemplate.convertAndSend("/topic/route/" + routeId + "/telemetry", telemetry);
-                log.info("📡 Telemetría enviada vía WebSocket para routeId: {}", routeId);
+                livePositionService.record(telemetry);
+                tileTelemetryService.submit(telemetry);
+                liveStreamService.submit(telemetry);
+                telemetryConflationService.submitForRoute(routeId, telemetry);
+                log.debug("📡 Telemetría encolada para WebSocket para routeId: {}", routeId);
 
                 // Procesar ubicación para detección de estacionamiento
                 parkingDetectionService.processLocationUpdate(telemetry);
@@ -52,13 +67,20 @@ public class MqttMessageListener {
 
             try {
                 TrackingReqDto telemetry = objectMapper.readValue(payload, TrackingReqDto.class);
+                if (telemetry.getVehicleId() == null) {
+                    telemetry.setVehicleId(vehicleId);
+                }
+                livePositionService.record(telemetry);
+                tileTelemetryService.submit(telemetry);
+                liveStreamService.submit(telemetry);
+
                 // Si tiene routeId, enviar a route, sino a vehicles
                 if (telemetry.getRouteId() != null) {
-                    messagingTemplate.convertAndSend("/topic/route/" + telemetry.getRouteId() + "/telemetry", telemetry);
-                    log.info("📡 Telemetría enviada vía WebSocket para routeId: {} desde vehicles", telemetry.getRouteId());
+                    telemetryConflationService.submitForRoute(telemetry.getRouteId().toString(), telemetry);
+                    log.debug("📡 Telemetría encolada para WebSocket para routeId: {} desde vehicles", telemetry.getRouteId());
                 } else {
-                    messagingTemplate.convertAndSend("/topic/vehicles/" + vehicleId + "/telemetry", telemetry);
-                    log.info("📡 Telemetría enviada vía WebSocket para vehicleId: {} (sin ruta)", vehicleId);
+                    telemetryConflationService.submitForVehicle(vehicleId, telemetry);
+                    log.debug("📡 Telemetría encolada para WebSocket para vehicleId: {} (sin ruta)", vehicleId);
                 }
 
                 // Procesar ubicación para detección de estacionamiento
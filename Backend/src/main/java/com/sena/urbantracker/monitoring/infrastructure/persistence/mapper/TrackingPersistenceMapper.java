@@ -18,6 +18,11 @@ public class TrackingPersistenceMapper {
                 .latitude(domain.getLatitude())
                 .longitude(domain.getLongitude())
                 .dataSource(domain.getDataSource())
+                .speedKmh(domain.getSpeedKmh())
+                .heading(domain.getHeading())
+                .accuracyMeters(domain.getAccuracyMeters())
+                .hdop(domain.getHdop())
+                .satellites(domain.getSatellites())
                 .build();
     }
 
@@ -31,6 +36,11 @@ public class TrackingPersistenceMapper {
                 .latitude(model.getLatitude())
                 .longitude(model.getLongitude())
                 .dataSource(model.getDataSource())
+                .speedKmh(model.getSpeedKmh())
+                .heading(model.getHeading())
+                .accuracyMeters(model.getAccuracyMeters())
+                .hdop(model.getHdop())
+                .satellites(model.getSatellites())
                 .build();
     }
 }
\ No newline at end of file
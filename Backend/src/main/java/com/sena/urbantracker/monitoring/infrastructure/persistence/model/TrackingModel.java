@@ -14,7 +14,13 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "tracking", schema = "monitoring")
+@Table(
+        name = "tracking",
+        schema = "monitoring",
+        indexes = {
+                @Index(name = "idx_tracking_vehicle_timestamp", columnList = "vehicle_id, timestamp"),
+                @Index(name = "idx_tracking_timestamp", columnList = "timestamp")
+        })
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -47,4 +53,20 @@ public class TrackingModel {
 
     @Column(name = "data_source", length = 20)
     private DataSourceType dataSource;
+
+    // Datos opcionales reportados por el GPS del dispositivo
+    @Column(name = "speed_kmh")
+    private Double speedKmh;
+
+    @Column(name = "heading")
+    private Double heading;
+
+    @Column(name = "accuracy_meters")
+    private Double accuracyMeters;
+
+    @Column(name = "hdop")
+    private Double hdop;
+
+    @Column(name = "satellites")
+    private Integer satellites;
 }
\ No newline at end of file
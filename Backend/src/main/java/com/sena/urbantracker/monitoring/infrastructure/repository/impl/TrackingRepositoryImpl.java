@@ -1,14 +1,20 @@
 package com.sena.urbantracker.monitoring.infrastructure.repository.impl;
 
 import com.sena.urbantracker.monitoring.domain.entity.TrackingDomain;
+import com.sena.urbantracker.monitoring.domain.repository.TrackingPointConsumer;
 import com.sena.urbantracker.monitoring.domain.repository.TrackingRepository;
 import com.sena.urbantracker.monitoring.infrastructure.persistence.mapper.TrackingPersistenceMapper;
 import com.sena.urbantracker.monitoring.infrastructure.persistence.model.TrackingModel;
 import com.sena.urbantracker.monitoring.infrastructure.repository.jpa.TrackingJpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class TrackingRepositoryImpl implements TrackingRepository {
@@ -55,4 +61,30 @@ public class TrackingRepositoryImpl implements TrackingRepository {
         TrackingModel saved = jpaRepository.saveAndFlush(model);
         return TrackingPersistenceMapper.toDomain(saved);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<Long> findVehicleIdsWithTracking(OffsetDateTime from, OffsetDateTime to, Long companyId) {
+        return companyId != null
+                ? jpaRepository.findVehicleIdsByCompanyBetween(companyId, from, to)
+                : jpaRepository.findVehicleIdsBetween(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEachPoint(Long vehicleId, OffsetDateTime from, OffsetDateTime to, TrackingPointConsumer consumer) {
+        long count = 0;
+        try (Stream<Object[]> rows = jpaRepository.streamPoints(vehicleId, from, to)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                consumer.accept(
+                        ((OffsetDateTime) row[0]).toInstant().toEpochMilli(),
+                        ((BigDecimal) row[1]).doubleValue(),
+                        ((BigDecimal) row[2]).doubleValue(),
+                        row[3] != null ? (Double) row[3] : Double.NaN);
+                count++;
+            }
+        }
+        return count;
+    }
+}
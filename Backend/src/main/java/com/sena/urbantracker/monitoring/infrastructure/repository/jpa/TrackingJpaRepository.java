@@ -1,8 +1,34 @@
 package com.sena.urbantracker.monitoring.infrastructure.repository.jpa;
 
 import com.sena.urbantracker.monitoring.infrastructure.persistence.model.TrackingModel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface TrackingJpaRepository extends JpaRepository<TrackingModel, Long> {
-    // Additional query methods if needed
-}
\ No newline at end of file
+
+    @Query("SELECT DISTINCT t.vehicle.id FROM TrackingModel t WHERE t.timestamp >= :from AND t.timestamp < :to")
+    List<Long> findVehicleIdsBetween(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    @Query("SELECT DISTINCT t.vehicle.id FROM TrackingModel t WHERE t.vehicle.company.id = :companyId AND t.timestamp >= :from AND t.timestamp < :to")
+    List<Long> findVehicleIdsByCompanyBetween(@Param("companyId") Long companyId,
+                                              @Param("from") OffsetDateTime from,
+                                              @Param("to") OffsetDateTime to);
+
+    // Solo las columnas necesarias, leídas por bloques y sin pasar por el contexto de persistencia
+    @Query("SELECT t.timestamp, t.latitude, t.longitude, t.speedKmh FROM TrackingModel t WHERE t.vehicle.id = :vehicleId AND t.timestamp >= :from AND t.timestamp < :to ORDER BY t.timestamp")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamPoints(@Param("vehicleId") Long vehicleId,
+                                  @Param("from") OffsetDateTime from,
+                                  @Param("to") OffsetDateTime to);
+}
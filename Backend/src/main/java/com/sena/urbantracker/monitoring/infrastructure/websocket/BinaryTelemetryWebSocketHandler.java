@@ -0,0 +1,79 @@
+package com.sena.urbantracker.monitoring.infrastructure.websocket;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.BinaryTelemetryService;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * Endpoint WebSocket sin SockJS ni STOMP para consumidores de alta frecuencia.
+ *
+ * El cliente envía comandos de texto:
+ *   SUB /topic/route/{id}/telemetry
+ *   SUB /topic/tiles/{z}/{x}/{y}
+ *   UNSUB {destino}
+ * y recibe "OK ..." o "ERR ..." como texto; la telemetría llega en frames binarios
+ * (ver BinaryTelemetryCodec). Cada sesión tiene una cola de envío acotada en el
+ * {@link OutboundSessionLimiter}: si el cliente no alcanza a leer, la sesión se
+ * cierra y debe reconectarse.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BinaryTelemetryWebSocketHandler extends TextWebSocketHandler {
+
+    private final BinaryTelemetryService binaryTelemetryService;
+    private final OutboundSessionLimiter outboundSessionLimiter;
+
+    @Value("${monitoring.websocket.binary.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${monitoring.websocket.binary.buffer-size-bytes:1048576}")
+    private int bufferSizeBytes;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        binaryTelemetryService.open(outboundSessionLimiter.register(session, bufferSizeBytes, sendTimeLimitMs));
+        log.info("🔌 Sesión binaria conectada: {}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        String[] parts = message.getPayload().trim().split("\\s+");
+        if (parts.length != 2) {
+            binaryTelemetryService.reply(session.getId(), "ERR comando inválido");
+            return;
+        }
+
+        String command = parts[0].toUpperCase();
+        String destination = parts[1];
+        try {
+            switch (command) {
+                case "SUB" -> binaryTelemetryService.subscribe(session.getId(), destination);
+                case "UNSUB" -> binaryTelemetryService.unsubscribe(session.getId(), destination);
+                default -> throw new ValidationException("Comando desconocido: " + command);
+            }
+            binaryTelemetryService.reply(session.getId(), "OK " + command + " " + destination);
+        } catch (ValidationException e) {
+            binaryTelemetryService.reply(session.getId(), "ERR " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        binaryTelemetryService.close(session.getId());
+        outboundSessionLimiter.unregister(session.getId());
+        log.info("🔌 Sesión binaria cerrada: {} ({})", session.getId(), status.getCode());
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Error de transporte en sesión binaria {}: {}", session.getId(), exception.getMessage());
+    }
+}
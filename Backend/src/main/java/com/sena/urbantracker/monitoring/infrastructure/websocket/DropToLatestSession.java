@@ -0,0 +1,263 @@
+package com.sena.urbantracker.monitoring.infrastructure.websocket;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.CompactTelemetryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BinaryOperator;
+
+/**
+ * Sesión WebSocket con cola de salida propia. Un frame de telemetría que llega
+ * mientras otro de la misma suscripción espera en la cola lo reemplaza por el estado
+ * actual del destino (los frames solo traen los vehículos que reportaron en el tick, así que
+ * reemplazarlo por el nuevo perdería posiciones; ver {@link StompTelemetryMerger}); el resto de
+ * frames conserva su orden. Los envíos al socket los hace un hilo del pool del
+ * {@link OutboundSessionLimiter}, así quien publica nunca se bloquea por un cliente lento.
+ *
+ * Cada sesión tiene a lo sumo una tarea de envío en el pool: se agenda al pasar de
+ * vacía a pendiente y envía un lote acotado antes de ceder el hilo.
+ */
+@Slf4j
+public class DropToLatestSession extends WebSocketSessionDecorator {
+
+    private static final String DESTINATION_HEADER = "\ndestination:";
+    private static final String SUBSCRIPTION_HEADER = "\nsubscription:";
+    // Propiedad de Tomcat que corta los envíos bloqueantes del socket
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+    private static final int DRAIN_BATCH = 64;
+
+    private final OutboundSessionLimiter limiter;
+    private final int bufferLimit;
+    private final long sendTimeLimit;
+
+    // Cola y mapa se protegen con el lock de la cola
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private final Map<String, Pending> pendingByKey = new HashMap<>();
+    private int queuedBytes;
+
+    // true mientras hay una tarea de envío agendada o en curso
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long sendingSince; // 0 si no hay un envío en curso
+    private volatile boolean closed;
+
+    DropToLatestSession(WebSocketSession delegate, OutboundSessionLimiter limiter, int bufferLimit, long sendTimeLimit) {
+        super(delegate);
+        this.limiter = limiter;
+        this.bufferLimit = bufferLimit;
+        this.sendTimeLimit = sendTimeLimit;
+        boundBlockingSends(delegate, sendTimeLimit);
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        String key = conflationKey(message);
+        if (key == null) {
+            sendMessage(message, null, null);
+            return;
+        }
+        String destination = key.substring(key.indexOf('\n') + 1);
+        sendMessage(message, key,
+                (older, newer) -> StompTelemetryMerger.merge(older, newer, destination, limiter::telemetryState));
+    }
+
+    /**
+     * Encola el mensaje. Si hay uno pendiente con la misma clave se fusionan con merge
+     * (que retorna null si no se pueden fusionar; en ese caso se encolan los dos).
+     * Con clave null el mensaje se encola tal cual.
+     */
+    public void sendMessage(WebSocketMessage<?> message, String key, BinaryOperator<WebSocketMessage<?>> merge) {
+        if (closed) {
+            return;
+        }
+        int bytes;
+        synchronized (queue) {
+            Pending existing = key != null ? pendingByKey.get(key) : null;
+            WebSocketMessage<?> merged = existing != null ? merge.apply(existing.message, message) : null;
+            if (merged != null) {
+                // Se mueve al final para no adelantarse a los frames encolados después
+                queue.remove(existing);
+                queuedBytes -= existing.size;
+                limiter.recordQueued(-1);
+                limiter.recordMerged();
+                message = merged;
+            }
+            int size = message.getPayloadLength();
+            Pending pending = new Pending(key, message, size);
+            queue.addLast(pending);
+            if (key != null) {
+                pendingByKey.put(key, pending);
+            }
+            queuedBytes += size;
+            limiter.recordQueued(1);
+            bytes = queuedBytes;
+        }
+
+        if (bytes > bufferLimit) {
+            evict("buffer");
+            return;
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            limiter.scheduleDrain(this);
+        }
+    }
+
+    /**
+     * Envía un lote de la cola; solo hay una tarea de envío por sesión
+     */
+    void drain() {
+        int sent = 0;
+        Pending next;
+        try {
+            while (!closed && sent < DRAIN_BATCH && (next = poll()) != null) {
+                sendingSince = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(next.message);
+                } catch (IOException | RuntimeException e) {
+                    log.debug("Error enviando a la sesión {}: {}", getId(), e.getMessage());
+                    evict("error");
+                    return;
+                } finally {
+                    sendingSince = 0;
+                }
+                sent++;
+            }
+        } finally {
+            // Aunque algo inesperado corte el lote, la sesión debe poder agendarse otra vez
+            scheduled.set(false);
+        }
+        // Si llegó algo entre el último poll y el reset, alguien tiene que agendarlo
+        if (!closed && hasPending() && scheduled.compareAndSet(false, true)) {
+            limiter.scheduleDrain(this);
+        }
+    }
+
+    /**
+     * true si el envío en curso lleva más del límite de tiempo de la sesión
+     */
+    boolean isStalled(long now) {
+        long since = sendingSince;
+        return since != 0 && now - since > sendTimeLimit;
+    }
+
+    void evict(String reason) {
+        if (closed) {
+            return;
+        }
+        discard();
+        limiter.recordEviction(reason);
+        log.warn("🐢 Sesión WebSocket {} desconectada por cliente lento ({})", getId(), reason);
+        // Cerrar puede bloquear si el socket está trabado
+        limiter.closeAsync(() -> {
+            try {
+                getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | IllegalStateException ignored) {
+                // La sesión ya estaba cerrada
+            }
+        });
+    }
+
+    /**
+     * Vacía la cola y deja de aceptar mensajes
+     */
+    void discard() {
+        closed = true;
+        synchronized (queue) {
+            limiter.recordQueued(-queue.size());
+            queue.clear();
+            pendingByKey.clear();
+            queuedBytes = 0;
+        }
+    }
+
+    private Pending poll() {
+        synchronized (queue) {
+            Pending pending = queue.pollFirst();
+            if (pending != null) {
+                if (pending.key != null) {
+                    pendingByKey.remove(pending.key);
+                }
+                queuedBytes -= pending.size;
+                limiter.recordQueued(-1);
+            }
+            return pending;
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (queue) {
+            return !queue.isEmpty();
+        }
+    }
+
+    // Sin límite el contenedor puede dejar un hilo de envío bloqueado indefinidamente
+    private static void boundBlockingSends(WebSocketSession session, long limitMs) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            jakarta.websocket.Session standard = nativeSession.getNativeSession(jakarta.websocket.Session.class);
+            if (standard != null) {
+                standard.getUserProperties().put(BLOCKING_SEND_TIMEOUT, limitMs);
+            }
+        }
+    }
+
+    // "suscripción\ndestino" de los frames MESSAGE de telemetría (un header no puede traer \n); null para el resto
+    private static String conflationKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return null;
+        }
+        String frame = text.getPayload();
+        if (!frame.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        int headersEnd = frame.indexOf("\n\n");
+        if (headersEnd < 0) {
+            return null;
+        }
+        String destination = header(frame, DESTINATION_HEADER, headersEnd);
+        if (destination == null || !isTelemetry(destination)) {
+            return null;
+        }
+        return header(frame, SUBSCRIPTION_HEADER, headersEnd) + "\n" + destination;
+    }
+
+    // El stream compacto (rutas y teselas) no se fusiona: cada delta depende del anterior
+    private static boolean isTelemetry(String destination) {
+        if (destination.endsWith(CompactTelemetryService.SUFFIX)) {
+            return false;
+        }
+        return destination.startsWith("/topic/tiles/")
+                || destination.endsWith("/telemetry");
+    }
+
+    private static String header(String frame, String name, int headersEnd) {
+        int start = frame.indexOf(name);
+        if (start < 0 || start > headersEnd) {
+            return null;
+        }
+        start += name.length();
+        int end = frame.indexOf('\n', start);
+        return frame.substring(start, end);
+    }
+
+    private static final class Pending {
+        private final String key;
+        private final WebSocketMessage<?> message;
+        private final int size;
+
+        private Pending(String key, WebSocketMessage<?> message, int size) {
+            this.key = key;
+            this.message = message;
+            this.size = size;
+        }
+    }
+}
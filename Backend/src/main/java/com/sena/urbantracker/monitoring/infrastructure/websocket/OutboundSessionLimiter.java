@@ -0,0 +1,208 @@
+package com.sena.urbantracker.monitoring.infrastructure.websocket;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.EncodedFrame;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Protección contra clientes WebSocket lentos (STOMP y /ws/binary). Cada sesión tiene su cola de salida
+ * ({@link DropToLatestSession}) con límite de bytes; la telemetría pendiente se
+ * reemplaza por el estado actual del destino ({@link TelemetryStateSource}) y las sesiones que
+ * pasan el límite de tamaño o de tiempo de envío se desconectan, sin afectar la entrega a las demás.
+ *
+ * Cada sesión tiene como máximo una tarea de envío en el pool. El pool crece según
+ * la demanda hasta send-threads hilos y cada envío bloqueante se corta al pasar
+ * send-time-limit-ms, así unos pocos clientes trabados no acaparan todos los hilos.
+ * Los cierres de sesión van en su propio pool para que un socket trabado no bloquee
+ * a quien lo desconecta.
+ *
+ * Métricas: websocket.outbound.queue.depth, websocket.outbound.sessions,
+ * websocket.outbound.merged y websocket.sessions.evicted (tag reason).
+ */
+@Slf4j
+@Component
+public class OutboundSessionLimiter {
+
+    /**
+     * Estado actual de un destino de telemetría, ya serializado
+     */
+    public interface TelemetryStateSource {
+        /**
+         * Frame con el estado del destino, o null si el destino no tiene estado
+         */
+        EncodedFrame currentState(String destination);
+    }
+
+    @Getter
+    private final int bufferSizeLimit;
+    @Getter
+    private final int sendTimeLimitMs;
+
+    private final ThreadPoolExecutor sendExecutor;
+    private final ExecutorService closeExecutor;
+    private final Map<String, DropToLatestSession> sessions = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Counter merged;
+    private volatile TelemetryStateSource telemetryStateSource;
+
+    public OutboundSessionLimiter(MeterRegistry meterRegistry,
+                                  @Value("${monitoring.websocket.outbound.buffer-size-bytes:524288}") int bufferSizeLimit,
+                                  @Value("${monitoring.websocket.outbound.send-time-limit-ms:10000}") int sendTimeLimitMs,
+                                  @Value("${monitoring.websocket.outbound.send-threads:32}") int sendThreads) {
+        this.meterRegistry = meterRegistry;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        // Los hilos se crean según la demanda hasta sendThreads y se liberan al quedar ociosos
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("ws-send-"));
+        this.sendExecutor.allowCoreThreadTimeOut(true);
+        this.closeExecutor = Executors.newCachedThreadPool(daemonThreads("ws-close-"));
+
+        Gauge.builder("websocket.outbound.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Frames esperando envío en todas las sesiones WebSocket")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.sessions", sessions, Map::size)
+                .description("Sesiones WebSocket con cola de salida")
+                .register(meterRegistry);
+        this.merged = Counter.builder("websocket.outbound.merged")
+                .description("Frames de telemetría fusionados con uno pendiente antes de enviarse")
+                .register(meterRegistry);
+    }
+
+    public void setTelemetryStateSource(TelemetryStateSource telemetryStateSource) {
+        this.telemetryStateSource = telemetryStateSource;
+    }
+
+    /**
+     * Decorador para el handler STOMP: cada sesión nueva recibe su cola de salida
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(register(session, bufferSizeLimit, sendTimeLimitMs));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                DropToLatestSession decorated = unregister(session.getId());
+                super.afterConnectionClosed(decorated != null ? decorated : session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Envuelve la sesión con su cola de salida y la incluye en la revisión de envíos bloqueados
+     */
+    public DropToLatestSession register(WebSocketSession session, int bufferLimit, int sendTimeLimit) {
+        DropToLatestSession decorated = new DropToLatestSession(session, this, bufferLimit, sendTimeLimit);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    /**
+     * Descarta la cola de la sesión cerrada
+     */
+    public DropToLatestSession unregister(String sessionId) {
+        DropToLatestSession decorated = sessions.remove(sessionId);
+        if (decorated != null) {
+            decorated.discard();
+        }
+        return decorated;
+    }
+
+    /**
+     * Revisa periódicamente los envíos bloqueados por más del límite de tiempo
+     */
+    @Scheduled(fixedRate = 1000)
+    public void evictStalledSessions() {
+        long now = System.currentTimeMillis();
+        for (DropToLatestSession session : sessions.values()) {
+            if (session.isStalled(now)) {
+                session.evict("send-time");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        closeExecutor.shutdownNow();
+    }
+
+    void scheduleDrain(DropToLatestSession session) {
+        try {
+            sendExecutor.execute(session::drain);
+        } catch (RejectedExecutionException e) {
+            // Apagando la aplicación
+            session.discard();
+        }
+    }
+
+    void closeAsync(Runnable close) {
+        try {
+            closeExecutor.execute(close);
+        } catch (RejectedExecutionException e) {
+            // Apagando la aplicación
+        }
+    }
+
+    // null si no hay fuente o falló: el frame pendiente y el nuevo se envían los dos
+    EncodedFrame telemetryState(String destination) {
+        TelemetryStateSource source = telemetryStateSource;
+        if (source == null) {
+            return null;
+        }
+        try {
+            return source.currentState(destination);
+        } catch (Exception e) {
+            log.debug("Error obteniendo el estado de {}: {}", destination, e.getMessage());
+            return null;
+        }
+    }
+
+    void recordQueued(int delta) {
+        queueDepth.addAndGet(delta);
+    }
+
+    void recordMerged() {
+        merged.increment();
+    }
+
+    void recordEviction(String reason) {
+        meterRegistry.counter("websocket.sessions.evicted", "reason", reason).increment();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
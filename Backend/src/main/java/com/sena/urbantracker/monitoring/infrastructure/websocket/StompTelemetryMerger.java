@@ -0,0 +1,60 @@
+package com.sena.urbantracker.monitoring.infrastructure.websocket;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.EncodedFrame;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Reemplaza un frame STOMP MESSAGE de telemetría pendiente por el más nuevo del
+ * mismo destino y suscripción, sin leer el JSON de ninguno de los dos.
+ *
+ * Los frames de ruta y tesela solo traen los vehículos que reportaron en el tick,
+ * así que el reemplazo lleva el estado actual completo del destino: el mismo frame
+ * que recibe quien se suscribe, serializado una vez por destino y tick y compartido
+ * por todas las sesiones atrasadas. Un frame de un solo vehículo reemplaza al anterior.
+ */
+final class StompTelemetryMerger {
+
+    private static final String VEHICLE_PREFIX = "/topic/vehicles/";
+    private static final String CONTENT_LENGTH = "content-length:";
+
+    private StompTelemetryMerger() {
+    }
+
+    /**
+     * Frame con los headers del más nuevo, o null si no se pueden fusionar
+     *
+     * @param states estado actual serializado de un destino, o null si no tiene
+     */
+    static WebSocketMessage<?> merge(WebSocketMessage<?> older, WebSocketMessage<?> newer, String destination,
+                                     Function<String, EncodedFrame> states) {
+        if (!(older instanceof TextMessage) || !(newer instanceof TextMessage newerText)) {
+            return null;
+        }
+        if (destination.startsWith(VEHICLE_PREFIX)) {
+            return newer;
+        }
+        String newerFrame = newerText.getPayload();
+        int headersEnd = newerFrame.indexOf("\n\n");
+        EncodedFrame state = headersEnd >= 0 ? states.apply(destination) : null;
+        if (state == null) {
+            return null;
+        }
+        return new TextMessage(frame(newerFrame.substring(0, headersEnd), state.getPayload()));
+    }
+
+    private static String frame(String headers, byte[] body) {
+        String text = new String(body, StandardCharsets.UTF_8);
+        StringBuilder frame = new StringBuilder(headers.length() + text.length() + 8);
+        for (String line : headers.split("\n")) {
+            if (line.startsWith(CONTENT_LENGTH)) {
+                line = CONTENT_LENGTH + body.length;
+            }
+            frame.append(line).append('\n');
+        }
+        return frame.append('\n').append(text).append('\0').toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.sena.urbantracker.parking.application.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingBacktestReqDto {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long companyId; // null para toda la flota
+    private List<Thresholds> configs;
+    private Integer maxEventsPerConfig; // eventos detallados por configuración en la respuesta
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Thresholds {
+        private Integer minTimeMinutes;
+        private Double maxDistanceMeters;
+        private Double maxSpeedKmh;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sena.urbantracker.parking.application.dto.request;
+
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import com.sena.urbantracker.shared.application.dto.request.ABaseReqDto;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ParkingZoneReqDto extends ABaseReqDto {
+
+    @NotNull(message = "El ID de la compañía es obligatorio")
+    private Long companyId;
+
+    @NotBlank(message = "El nombre de la zona es obligatorio")
+    @Size(max = 100, message = "El nombre no puede exceder 100 caracteres")
+    private String name;
+
+    @NotNull(message = "El tipo de zona es obligatorio")
+    private ParkingZoneType type;
+
+    // Las terminales y patios no generan alertas de estacionamiento
+    @Builder.Default
+    private Boolean exemptFromParking = true;
+
+    @NotNull(message = "Los vértices de la zona son obligatorios")
+    @Size(min = 3, max = 500, message = "La zona debe tener entre 3 y 500 vértices")
+    private List<ZoneVertex> vertices;
+
+    @Builder.Default
+    private Boolean isActive = true;
+}
@@ -0,0 +1,18 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ParkingBacktestEventDto {
+    private String vehicleId;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt; // null si seguía estacionado al final del periodo
+    private Integer durationMinutes;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+}
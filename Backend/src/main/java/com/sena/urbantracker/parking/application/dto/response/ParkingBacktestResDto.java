@@ -0,0 +1,24 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ParkingBacktestResDto {
+    private String id;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long companyId;
+    private int vehiclesTotal;
+    private int vehiclesProcessed;
+    private long pointsProcessed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private List<ParkingBacktestResultDto> results; // solo cuando termina
+}
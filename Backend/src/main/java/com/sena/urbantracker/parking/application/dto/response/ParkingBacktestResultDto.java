@@ -0,0 +1,20 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ParkingBacktestResultDto {
+    private Integer minTimeMinutes;
+    private Double maxDistanceMeters;
+    private Double maxSpeedKmh;
+    private long totalEvents;
+    private int vehiclesWithEvents;
+    private double totalParkedMinutes;
+    private double averageDurationMinutes;
+    private boolean eventsTruncated;
+    private List<ParkingBacktestEventDto> events;
+}
@@ -0,0 +1,14 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class ParkingEventPageResDto {
+    private List<ParkingEventResDto> items;
+    private String nextCursor; // null si no hay más páginas
+    private int limit;
+}
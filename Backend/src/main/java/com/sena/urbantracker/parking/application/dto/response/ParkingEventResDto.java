@@ -24,6 +24,7 @@ public class ParkingEventResDto extends ABaseResDto {
     private Integer totalDurationMinutes;
     private BigDecimal finalLocationLat;
     private BigDecimal finalLocationLng;
+    private Long zoneId;
     private ParkingStatusType status;
 
     // Campos calculados para la UI
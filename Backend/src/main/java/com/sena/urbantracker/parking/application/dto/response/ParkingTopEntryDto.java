@@ -0,0 +1,12 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ParkingTopEntryDto {
+    private String key; // id del vehículo o del conductor
+    private long count; // eventos estimados (nunca menor al real)
+    private long maxError; // el conteo real está entre count - maxError y count
+}
@@ -0,0 +1,25 @@
+package com.sena.urbantracker.parking.application.dto.response;
+
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import com.sena.urbantracker.shared.application.dto.response.ABaseResDto;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ParkingZoneResDto extends ABaseResDto {
+
+    private Long companyId;
+    private String name;
+    private ParkingZoneType type;
+    private Boolean exemptFromParking;
+    private List<ZoneVertex> vertices;
+    private Boolean isActive;
+}
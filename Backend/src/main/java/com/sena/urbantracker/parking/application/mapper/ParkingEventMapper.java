@@ -23,6 +23,7 @@ public class ParkingEventMapper {
                 .totalDurationMinutes(entity.getTotalDurationMinutes())
                 .finalLocationLat(entity.getFinalLocationLat())
                 .finalLocationLng(entity.getFinalLocationLng())
+                .zoneId(entity.getZoneId())
                 .status(status)
                 .active(entity.getActive())
                 .build();
@@ -42,6 +43,7 @@ public class ParkingEventMapper {
                 .totalDurationMinutes(dto.getTotalDurationMinutes())
                 .finalLocationLat(dto.getFinalLocationLat())
                 .finalLocationLng(dto.getFinalLocationLng())
+                .zoneId(dto.getZoneId())
                 .isActive(isActive)
                 .active(dto.getActive())
                 .build();
@@ -0,0 +1,35 @@
+package com.sena.urbantracker.parking.application.mapper;
+
+import com.sena.urbantracker.parking.application.dto.request.ParkingZoneReqDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingZoneResDto;
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+
+public class ParkingZoneMapper {
+
+    public static ParkingZoneResDto toDto(ParkingZoneDomain entity) {
+        if (entity == null) return null;
+        return ParkingZoneResDto.builder()
+                .id(entity.getId())
+                .companyId(entity.getCompanyId())
+                .name(entity.getName())
+                .type(entity.getType())
+                .exemptFromParking(entity.getExemptFromParking())
+                .vertices(entity.getVertices())
+                .isActive(entity.getIsActive())
+                .active(entity.getActive())
+                .build();
+    }
+
+    public static ParkingZoneDomain toEntity(ParkingZoneReqDto dto) {
+        if (dto == null) return null;
+        return ParkingZoneDomain.builder()
+                .companyId(dto.getCompanyId())
+                .name(dto.getName())
+                .type(dto.getType())
+                .exemptFromParking(dto.getExemptFromParking() != null ? dto.getExemptFromParking() : true)
+                .vertices(dto.getVertices())
+                .isActive(dto.getIsActive() != null ? dto.getIsActive() : true)
+                .active(true)
+                .build();
+    }
+}
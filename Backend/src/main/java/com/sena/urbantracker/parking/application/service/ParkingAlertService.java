@@ -0,0 +1,198 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
+import com.sena.urbantracker.monitoring.application.service.websocket.StompSubscriptionRegistry;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envía las alertas de estacionamiento a /topic/company/{id}/parking-alerts y
+ * /topic/route/{id}/parking-alerts, así cada cliente solo recibe las de su compañía
+ * o ruta. El tópico global /topic/parking-alerts queda detrás de parking.alerts.global-enabled,
+ * encendido por defecto mientras los clientes existentes migran a los tópicos por compañía y ruta.
+ *
+ * Las alertas esperan parking.alerts.coalesce-ms antes de salir: si en ese tiempo llega
+ * la alerta contraria del mismo vehículo (inicio y fin seguidos) ambas se descartan.
+ */
+@Slf4j
+@Service
+public class ParkingAlertService {
+
+    public static final String GLOBAL_DESTINATION = "/topic/parking-alerts";
+    public static final String TYPE_STARTED = "VEHÍCULO_ESTACIONADO";
+    public static final String TYPE_ENDED = "VEHÍCULO_REANUDÓ_MOVIMIENTO";
+
+    private final WebSocketBroadcastService broadcastService;
+    private final StompSubscriptionRegistry subscriptionRegistry;
+    private final CompanyLookupService companyLookupService;
+    private final long coalesceMillis;
+    private final boolean globalEnabled;
+
+    // vehicleId -> alerta en espera; protegido con su propio lock
+    private final Map<String, PendingAlert> pending = new HashMap<>();
+
+    public ParkingAlertService(WebSocketBroadcastService broadcastService,
+                               StompSubscriptionRegistry subscriptionRegistry,
+                               CompanyLookupService companyLookupService,
+                               @Value("${parking.alerts.coalesce-ms:3000}") long coalesceMillis,
+                               @Value("${parking.alerts.global-enabled:true}") boolean globalEnabled) {
+        this.broadcastService = broadcastService;
+        this.subscriptionRegistry = subscriptionRegistry;
+        this.companyLookupService = companyLookupService;
+        this.coalesceMillis = coalesceMillis;
+        this.globalEnabled = globalEnabled;
+    }
+
+    public void parkingStarted(ParkingEventDomain event) {
+        submit(toAlert(event, TYPE_STARTED, "Vehículo estacionado por tiempo excesivo"));
+    }
+
+    public void parkingEnded(ParkingEventDomain event) {
+        submit(toAlert(event, TYPE_ENDED, "Vehículo reanudó su recorrido"));
+    }
+
+    @Scheduled(fixedDelayString = "${parking.alerts.flush-interval-ms:1000}")
+    public void flush() {
+        sendQueuedUntil(System.currentTimeMillis() - coalesceMillis);
+    }
+
+    /**
+     * Envía las alertas que aún esperan, sin completar su tiempo de espera
+     */
+    @PreDestroy
+    public void shutdown() {
+        sendQueuedUntil(Long.MAX_VALUE);
+    }
+
+    private void sendQueuedUntil(long limit) {
+        List<ParkingAlert> due = new ArrayList<>();
+        synchronized (pending) {
+            Iterator<PendingAlert> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                PendingAlert alert = iterator.next();
+                if (alert.queuedAt <= limit) {
+                    due.add(alert.alert);
+                    iterator.remove();
+                }
+            }
+        }
+        due.forEach(this::send);
+    }
+
+    private void submit(ParkingAlert alert) {
+        if (coalesceMillis <= 0 || alert.getVehicleId() == null) {
+            send(alert);
+            return;
+        }
+        ParkingAlert displaced = null;
+        synchronized (pending) {
+            PendingAlert previous = pending.get(alert.getVehicleId());
+            if (previous != null && !previous.alert.getType().equals(alert.getType())) {
+                // Inicio y fin (o fin e inicio) seguidos: el estado visible no cambió
+                pending.remove(alert.getVehicleId());
+                log.debug("🅿️ Alertas de estacionamiento del vehículo {} descartadas por oscilación", alert.getVehicleId());
+                return;
+            }
+            if (previous != null) {
+                displaced = previous.alert;
+            }
+            pending.put(alert.getVehicleId(), new PendingAlert(alert, System.currentTimeMillis()));
+        }
+        if (displaced != null) {
+            send(displaced);
+        }
+    }
+
+    private void send(ParkingAlert alert) {
+        try {
+            if (alert.getCompanyId() != null) {
+                sendIfSubscribed("/topic/company/" + alert.getCompanyId() + "/parking-alerts", alert);
+            }
+            if (alert.getRouteId() != null) {
+                sendIfSubscribed("/topic/route/" + alert.getRouteId() + "/parking-alerts", alert);
+            }
+            if (globalEnabled) {
+                sendIfSubscribed(GLOBAL_DESTINATION, alert);
+            }
+            log.info("📱 Alerta de estacionamiento {} | Vehículo: {} | Evento: {}",
+                    alert.getType(), alert.getVehicleId(), alert.getId());
+        } catch (Exception e) {
+            log.error("Error enviando alerta de estacionamiento via WebSocket: {}", e.getMessage(), e);
+        }
+    }
+
+    private void sendIfSubscribed(String destination, ParkingAlert alert) {
+        if (subscriptionRegistry.hasSubscribers(destination)) {
+            broadcastService.broadcast(destination, alert);
+        }
+    }
+
+    private ParkingAlert toAlert(ParkingEventDomain event, String type, String message) {
+        return new ParkingAlert(
+                event.getId(),
+                event.getVehicleId(),
+                event.getDriverId(),
+                event.getRouteId(),
+                companyLookupService.resolveCompanyId(event.getVehicleId(), event.getRouteId()),
+                event.getStartedAt(),
+                type,
+                message
+        );
+    }
+
+    private static final class PendingAlert {
+        private final ParkingAlert alert;
+        private final long queuedAt;
+
+        private PendingAlert(ParkingAlert alert, long queuedAt) {
+            this.alert = alert;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    // Clase interna para representar alertas de estacionamiento
+    public static class ParkingAlert {
+        private final Long id;
+        private final String vehicleId;
+        private final Long driverId;
+        private final Long routeId;
+        private final Long companyId;
+        private final LocalDateTime startedAt;
+        private final String type;
+        private final String message;
+
+        public ParkingAlert(Long id, String vehicleId, Long driverId, Long routeId, Long companyId,
+                          LocalDateTime startedAt, String type, String message) {
+            this.id = id;
+            this.vehicleId = vehicleId;
+            this.driverId = driverId;
+            this.routeId = routeId;
+            this.companyId = companyId;
+            this.startedAt = startedAt;
+            this.type = type;
+            this.message = message;
+        }
+
+        // Getters
+        public Long getId() { return id; }
+        public String getVehicleId() { return vehicleId; }
+        public Long getDriverId() { return driverId; }
+        public Long getRouteId() { return routeId; }
+        public Long getCompanyId() { return companyId; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public String getType() { return type; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,364 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.monitoring.domain.repository.TrackingRepository;
+import com.sena.urbantracker.parking.application.dto.request.ParkingBacktestReqDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingBacktestEventDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingBacktestResDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingBacktestResultDto;
+import com.sena.urbantracker.parking.domain.detection.ParkingDetector;
+import com.sena.urbantracker.parking.domain.detection.ParkingState;
+import com.sena.urbantracker.parking.domain.entity.ParkingConfigDomain;
+import com.sena.urbantracker.shared.infrastructure.exception.EntityNotFoundException;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backtest de la detección de estacionamiento sobre la telemetría guardada.
+ *
+ * Recorre el historial de cada vehículo con la misma máquina de estados de
+ * {@link ParkingDetector}, evaluando todas las configuraciones candidatas en una
+ * sola lectura del recorrido. Los vehículos se reparten en un ForkJoinPool propio;
+ * cada uno lee sus puntos por bloques sin cargarlos completos en memoria.
+ * No escribe en parking_event: solo reporta lo que cada configuración habría producido.
+ */
+@Slf4j
+@Service
+public class ParkingBacktestService {
+
+    private static final int MAX_CONFIGS = 20;
+    private static final int MAX_JOBS_KEPT = 20;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final TrackingRepository trackingRepository;
+    private final ForkJoinPool pool;
+    private final long maxRangeDays;
+    private final int defaultMaxEvents;
+
+    // Últimos trabajos, del más antiguo al más reciente
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public ParkingBacktestService(TrackingRepository trackingRepository,
+                                  @Value("${parking.backtest.parallelism:4}") int parallelism,
+                                  @Value("${parking.backtest.max-range-days:93}") long maxRangeDays,
+                                  @Value("${parking.backtest.max-events-per-config:500}") int defaultMaxEvents) {
+        this.trackingRepository = trackingRepository;
+        this.pool = new ForkJoinPool(parallelism);
+        this.maxRangeDays = maxRangeDays;
+        this.defaultMaxEvents = defaultMaxEvents;
+    }
+
+    /**
+     * Inicia un backtest en segundo plano; el resultado se consulta con {@link #find(String)}
+     */
+    public ParkingBacktestResDto start(ParkingBacktestReqDto request) {
+        List<ParkingConfigDomain> configs = validate(request);
+        int maxEvents = request.getMaxEventsPerConfig() != null
+                ? Math.max(0, request.getMaxEventsPerConfig())
+                : defaultMaxEvents;
+
+        Job job = new Job(UUID.randomUUID().toString(), request.getFrom(), request.getTo(),
+                request.getCompanyId(), configs, maxEvents);
+        synchronized (jobs) {
+            if (jobs.values().stream().anyMatch(existing -> existing.status.equals("RUNNING"))) {
+                throw new ValidationException("Ya hay un backtest de estacionamiento en ejecución");
+            }
+            jobs.put(job.id, job);
+            if (jobs.size() > MAX_JOBS_KEPT) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+        pool.execute(() -> run(job));
+        return toDto(job);
+    }
+
+    public ParkingBacktestResDto find(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new EntityNotFoundException("ParkingBacktest", "id", id);
+        }
+        return toDto(job);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void run(Job job) {
+        log.info("🅿️ Backtest {} iniciado: {} a {}, {} configuraciones", job.id, job.from, job.to, job.configs.size());
+        try {
+            List<Long> vehicleIds = trackingRepository.findVehicleIdsWithTracking(
+                    job.from.atZone(ZONE).toOffsetDateTime(), job.to.atZone(ZONE).toOffsetDateTime(), job.companyId);
+            job.vehiclesTotal = vehicleIds.size();
+
+            Partial total = vehicleIds.isEmpty()
+                    ? new Partial(job.configs.size())
+                    : new VehicleRangeTask(job, vehicleIds, 0, vehicleIds.size()).invoke();
+
+            job.results = toResults(job, total);
+            job.status = "COMPLETED";
+            log.info("🅿️ Backtest {} terminado: {} vehículos, {} puntos", job.id, job.vehiclesProcessed.get(), job.points.get());
+        } catch (Exception e) {
+            log.error("Error en backtest de estacionamiento {}: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage();
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private List<ParkingConfigDomain> validate(ParkingBacktestReqDto request) {
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new ValidationException("El periodo del backtest requiere from anterior a to");
+        }
+        if (Duration.between(request.getFrom(), request.getTo()).toDays() > maxRangeDays) {
+            throw new ValidationException("El periodo del backtest no puede superar " + maxRangeDays + " días");
+        }
+        if (request.getConfigs() == null || request.getConfigs().isEmpty() || request.getConfigs().size() > MAX_CONFIGS) {
+            throw new ValidationException("Se requieren entre 1 y " + MAX_CONFIGS + " configuraciones candidatas");
+        }
+
+        List<ParkingConfigDomain> configs = new ArrayList<>();
+        for (ParkingBacktestReqDto.Thresholds thresholds : request.getConfigs()) {
+            if (thresholds.getMinTimeMinutes() == null || thresholds.getMinTimeMinutes() < 1
+                    || thresholds.getMaxDistanceMeters() == null || thresholds.getMaxDistanceMeters() <= 0
+                    || thresholds.getMaxSpeedKmh() == null || thresholds.getMaxSpeedKmh() <= 0) {
+                throw new ValidationException("Cada configuración requiere minTimeMinutes, maxDistanceMeters y maxSpeedKmh positivos");
+            }
+            configs.add(ParkingConfigDomain.builder()
+                    .companyId(request.getCompanyId())
+                    .minTimeMinutes(thresholds.getMinTimeMinutes())
+                    .maxDistanceMeters(thresholds.getMaxDistanceMeters())
+                    .maxSpeedKmh(thresholds.getMaxSpeedKmh())
+                    .isActive(true)
+                    .build());
+        }
+        return configs;
+    }
+
+    /**
+     * Recorre el historial de un vehículo una sola vez, aplicando cada configuración sobre su propio estado
+     */
+    private Partial backtestVehicle(Job job, Long vehicleId) {
+        int configCount = job.configs.size();
+        Partial partial = new Partial(configCount);
+        ParkingState[] states = new ParkingState[configCount];
+        long[] openedAt = new long[configCount];
+        double[] openedLatitude = new double[configCount];
+        double[] openedLongitude = new double[configCount];
+        long[] lastTimestamp = new long[1];
+        for (int c = 0; c < configCount; c++) {
+            states[c] = new ParkingState();
+        }
+        String vehicle = String.valueOf(vehicleId);
+
+        long points = trackingRepository.forEachPoint(vehicleId,
+                job.from.atZone(ZONE).toOffsetDateTime(), job.to.atZone(ZONE).toOffsetDateTime(),
+                (timestamp, latitude, longitude, speedKmh) -> {
+                    lastTimestamp[0] = timestamp;
+                    for (int c = 0; c < configCount; c++) {
+                        ParkingDetector.Step step = ParkingDetector.step(
+                                states[c], latitude, longitude, speedKmh, timestamp, job.configs.get(c), () -> 1L);
+                        switch (step.getTransition()) {
+                            case PARKING_STARTED -> {
+                                openedAt[c] = timestamp;
+                                openedLatitude[c] = latitude;
+                                openedLongitude[c] = longitude;
+                            }
+                            case PARKING_ENDED -> partial.add(c, vehicle, openedAt[c], timestamp,
+                                    openedLatitude[c], openedLongitude[c], true, job.maxEvents);
+                            default -> {
+                            }
+                        }
+                    }
+                });
+
+        // Estacionamientos que seguían abiertos al final del periodo
+        for (int c = 0; c < configCount; c++) {
+            if (states[c].isEventOpen()) {
+                partial.add(c, vehicle, openedAt[c], lastTimestamp[0],
+                        openedLatitude[c], openedLongitude[c], false, job.maxEvents);
+            }
+        }
+        job.points.addAndGet(points);
+        job.vehiclesProcessed.incrementAndGet();
+        return partial;
+    }
+
+    private List<ParkingBacktestResultDto> toResults(Job job, Partial total) {
+        List<ParkingBacktestResultDto> results = new ArrayList<>(job.configs.size());
+        for (int c = 0; c < job.configs.size(); c++) {
+            ParkingConfigDomain config = job.configs.get(c);
+            double totalMinutes = total.parkedMillis[c] / 60_000.0;
+            results.add(ParkingBacktestResultDto.builder()
+                    .minTimeMinutes(config.getMinTimeMinutes())
+                    .maxDistanceMeters(config.getMaxDistanceMeters())
+                    .maxSpeedKmh(config.getMaxSpeedKmh())
+                    .totalEvents(total.eventCounts[c])
+                    .vehiclesWithEvents(total.vehiclesWithEvents[c])
+                    .totalParkedMinutes(totalMinutes)
+                    .averageDurationMinutes(total.eventCounts[c] > 0 ? totalMinutes / total.eventCounts[c] : 0.0)
+                    .eventsTruncated(total.eventCounts[c] > total.events.get(c).size())
+                    .events(total.events.get(c))
+                    .build());
+        }
+        return results;
+    }
+
+    private static ParkingBacktestResDto toDto(Job job) {
+        return ParkingBacktestResDto.builder()
+                .id(job.id)
+                .status(job.status)
+                .from(job.from)
+                .to(job.to)
+                .companyId(job.companyId)
+                .vehiclesTotal(job.vehiclesTotal)
+                .vehiclesProcessed(job.vehiclesProcessed.get())
+                .pointsProcessed(job.points.get())
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .error(job.error)
+                .results(job.results)
+                .build();
+    }
+
+    /**
+     * Divide el rango de vehículos a la mitad hasta llegar a uno por tarea
+     */
+    private final class VehicleRangeTask extends RecursiveTask<Partial> {
+        private final Job job;
+        private final List<Long> vehicleIds;
+        private final int from;
+        private final int to;
+
+        private VehicleRangeTask(Job job, List<Long> vehicleIds, int from, int to) {
+            this.job = job;
+            this.vehicleIds = vehicleIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 1) {
+                return backtestVehicle(job, vehicleIds.get(from));
+            }
+            int middle = (from + to) >>> 1;
+            VehicleRangeTask left = new VehicleRangeTask(job, vehicleIds, from, middle);
+            left.fork();
+            Partial right = new VehicleRangeTask(job, vehicleIds, middle, to).compute();
+            return left.join().merge(right, job.maxEvents);
+        }
+    }
+
+    /**
+     * Resultados acumulados por configuración
+     */
+    private static final class Partial {
+        private final long[] eventCounts;
+        private final long[] parkedMillis;
+        private final int[] vehiclesWithEvents;
+        private final List<List<ParkingBacktestEventDto>> events;
+        private final String[] lastVehicle; // para contar cada vehículo una vez dentro de su propio recorrido
+
+        private Partial(int configCount) {
+            eventCounts = new long[configCount];
+            parkedMillis = new long[configCount];
+            vehiclesWithEvents = new int[configCount];
+            lastVehicle = new String[configCount];
+            events = new ArrayList<>(configCount);
+            for (int c = 0; c < configCount; c++) {
+                events.add(new ArrayList<>());
+            }
+        }
+
+        private void add(int config, String vehicleId, long startedAt, long endedAt,
+                         double latitude, double longitude, boolean closed, int maxEvents) {
+            eventCounts[config]++;
+            parkedMillis[config] += endedAt - startedAt;
+            if (!vehicleId.equals(lastVehicle[config])) {
+                vehiclesWithEvents[config]++;
+                lastVehicle[config] = vehicleId;
+            }
+            if (events.get(config).size() < maxEvents) {
+                events.get(config).add(ParkingBacktestEventDto.builder()
+                        .vehicleId(vehicleId)
+                        .startedAt(toLocalDateTime(startedAt))
+                        .endedAt(closed ? toLocalDateTime(endedAt) : null)
+                        .durationMinutes((int) ((endedAt - startedAt) / 60_000))
+                        .latitude(BigDecimal.valueOf(latitude).setScale(6, RoundingMode.HALF_UP))
+                        .longitude(BigDecimal.valueOf(longitude).setScale(6, RoundingMode.HALF_UP))
+                        .build());
+            }
+        }
+
+        private Partial merge(Partial other, int maxEvents) {
+            for (int c = 0; c < eventCounts.length; c++) {
+                eventCounts[c] += other.eventCounts[c];
+                parkedMillis[c] += other.parkedMillis[c];
+                vehiclesWithEvents[c] += other.vehiclesWithEvents[c];
+                List<ParkingBacktestEventDto> target = events.get(c);
+                for (ParkingBacktestEventDto event : other.events.get(c)) {
+                    if (target.size() >= maxEvents) {
+                        break;
+                    }
+                    target.add(event);
+                }
+            }
+            return this;
+        }
+
+        private static LocalDateTime toLocalDateTime(long epochMillis) {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZONE);
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Long companyId;
+        private final List<ParkingConfigDomain> configs;
+        private final int maxEvents;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger vehiclesProcessed = new AtomicInteger();
+        private final AtomicLong points = new AtomicLong();
+        private volatile String status = "RUNNING";
+        private volatile int vehiclesTotal;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile List<ParkingBacktestResultDto> results;
+
+        private Job(String id, LocalDateTime from, LocalDateTime to, Long companyId,
+                    List<ParkingConfigDomain> configs, int maxEvents) {
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.companyId = companyId;
+            this.configs = configs;
+            this.maxEvents = maxEvents;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
+import com.sena.urbantracker.parking.domain.entity.ParkingConfigDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingConfigRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Configuración de estacionamiento vigente por compañía, cacheada en memoria.
+ * La compañía del vehículo se resuelve con {@link CompanyLookupService}; una
+ * compañía sin configuración activa no tiene detección. Solo si la compañía no se
+ * puede resolver se usa la primera configuración activa (menor id), como antes de
+ * separar por compañía.
+ * ParkingConfigService invalida la compañía afectada cada vez que crea, modifica o
+ * elimina una configuración; eso invalida también la configuración de respaldo.
+ * Los errores al cargar no se cachean: la siguiente ubicación vuelve a intentar.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParkingConfigCache {
+
+    // Clave de la configuración de respaldo; ninguna compañía tiene id negativo
+    private static final long FALLBACK = -1L;
+
+    private final ParkingConfigRepository parkingConfigRepository;
+    private final CompanyLookupService companyLookupService;
+
+    private final Map<Long, Optional<ParkingConfigDomain>> configByCompany = new ConcurrentHashMap<>();
+
+    /**
+     * Configuración activa que aplica al vehículo
+     */
+    public Optional<ParkingConfigDomain> resolve(String vehicleId, Long routeId) {
+        Long companyId = companyLookupService.resolveCompanyId(vehicleId, routeId);
+        if (companyId != null) {
+            return cached(companyId);
+        }
+        log.debug("Vehículo {} sin compañía conocida, se usa la configuración de respaldo", vehicleId);
+        return cached(FALLBACK);
+    }
+
+    public void evict(Long companyId) {
+        if (companyId != null) {
+            configByCompany.remove(companyId);
+        }
+        // Cualquier cambio puede cambiar cuál es la primera configuración activa
+        configByCompany.remove(FALLBACK);
+        log.debug("Configuración de estacionamiento invalidada para compañía {}", companyId);
+    }
+
+    private Optional<ParkingConfigDomain> cached(long key) {
+        try {
+            // Si load lanza, computeIfAbsent no guarda nada
+            return configByCompany.computeIfAbsent(key, this::load);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo cargar la configuración de estacionamiento ({}): {}",
+                    key == FALLBACK ? "respaldo" : "compañía " + key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ParkingConfigDomain> load(Long key) {
+        if (key == FALLBACK) {
+            return parkingConfigRepository.findAll().stream()
+                    .filter(config -> Boolean.TRUE.equals(config.getIsActive()))
+                    .min(Comparator.comparing(ParkingConfigDomain::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return parkingConfigRepository.findByCompanyIdAndIsActive(key, true).stream().findFirst();
+    }
+}
@@ -18,6 +18,7 @@ import java.util.stream.Collectors;
 public class ParkingConfigService {
 
     private final ParkingConfigRepository parkingConfigRepository;
+    private final ParkingConfigCache parkingConfigCache;
 
     public List<ParkingConfigResDto> findAll() {
         return parkingConfigRepository.findAll()
@@ -34,12 +35,14 @@ public class ParkingConfigService {
     public ParkingConfigResDto create(ParkingConfigReqDto request) {
         ParkingConfigDomain entity = ParkingConfigMapper.toEntity(request);
         ParkingConfigDomain saved = parkingConfigRepository.save(entity);
+        parkingConfigCache.evict(saved.getCompanyId());
         return ParkingConfigMapper.toDto(saved);
     }
 
     public ParkingConfigResDto update(Long id, ParkingConfigReqDto request) {
         ParkingConfigDomain existing = parkingConfigRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Configuración de estacionamiento con id " + id + " no encontrada"));
+        Long previousCompanyId = existing.getCompanyId();
 
         existing.setCompanyId(request.getCompanyId());
         existing.setMinTimeMinutes(request.getMinTimeMinutes());
@@ -48,14 +51,17 @@ public class ParkingConfigService {
         existing.setIsActive(request.getIsActive());
 
         ParkingConfigDomain updated = parkingConfigRepository.save(existing);
+        // Si cambió de compañía, las dos quedan con configuración distinta
+        parkingConfigCache.evict(previousCompanyId);
+        parkingConfigCache.evict(updated.getCompanyId());
         return ParkingConfigMapper.toDto(updated);
     }
 
     public void delete(Long id) {
-        if (!parkingConfigRepository.existsById(id)) {
-            throw new EntityNotFoundException("Configuración de estacionamiento con id " + id + " no encontrada");
-        }
+        ParkingConfigDomain existing = parkingConfigRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Configuración de estacionamiento con id " + id + " no encontrada"));
         parkingConfigRepository.deleteById(id);
+        parkingConfigCache.evict(existing.getCompanyId());
     }
 
     public Optional<ParkingConfigResDto> findByCompanyId(Long companyId) {
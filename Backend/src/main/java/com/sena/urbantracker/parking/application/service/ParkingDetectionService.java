@@ -3,21 +3,29 @@ package com.sena.urbantracker.parking.application.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
+import com.sena.urbantracker.monitoring.application.service.live.FleetSummaryService;
+import com.sena.urbantracker.monitoring.application.service.live.IdleVehicleService;
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.parking.domain.detection.ParkingDetector;
+import com.sena.urbantracker.parking.domain.detection.ParkingState;
+import com.sena.urbantracker.parking.domain.detection.ParkingStateStore;
 import com.sena.urbantracker.parking.domain.entity.ParkingConfigDomain;
-import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
-import com.sena.urbantracker.parking.domain.repository.ParkingConfigRepository;
-import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.domain.event.ParkingDomainEvent;
+import com.sena.urbantracker.parking.domain.zone.ParkingZoneIndex;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -25,310 +33,194 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ParkingDetectionService {
 
-    private final ParkingConfigRepository parkingConfigRepository;
-    private final ParkingEventRepository parkingEventRepository;
-    private final ObjectMapper objectMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    // Clave de los estacionamientos dentro de una zona exenta: se siguen en memoria pero no se publican
+    private static final long SUPPRESSED_EVENT_KEY = 0L;
+    // Zona de los LocalDateTime de estacionamiento guardados; toda conversión desde o hacia instantes la usa
+    static final ZoneId ZONE = ZoneId.systemDefault();
 
-    // Cache temporal para tracking por vehículo (en memoria, por simplicidad)
-    private final Map<String, VehicleTrackingInfo> vehicleTracking = new HashMap<>();
+    private final ParkingConfigCache parkingConfigCache;
+    private final ObjectMapper objectMapper;
+    private final ParkingEventPersister parkingEventPersister;
+    private final FleetSummaryService fleetSummaryService;
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private final ParkingStateStore parkingStateStore;
+    private final IdleTimerWheel idleTimerWheel;
+    private final IdleVehicleService idleVehicleService;
+    private final ParkingZoneIndexService parkingZoneIndexService;
+    private final CompanyLookupService companyLookupService;
+
+    // Cerrar el estacionamiento abierto de un vehículo que dejó de reportar
+    @Value("${parking.idle.close-open-events:true}")
+    private boolean closeOpenEventsOnIdle;
+
+    @PostConstruct
+    void registerIdleListener() {
+        idleVehicleService.addListener(this::onVehicleIdle);
+    }
 
     /**
-     * Procesa una ubicación GPS entrante para detectar estacionamiento
+     * Procesa una ubicación GPS entrante para detectar estacionamiento.
+     * Corre sin transacción: solo actualiza memoria y encola los eventos para
+     * {@link ParkingEventPersister}.
      */
-    @Transactional
     public void processLocationUpdate(TrackingReqDto trackingReqDto) {
         try {
             String vehicleId = trackingReqDto.getVehicleId();
             Long routeId = trackingReqDto.getRouteId();
+            if (vehicleId == null || trackingReqDto.getLatitude() == null || trackingReqDto.getLongitude() == null
+                    || trackingReqDto.getTimestamp() == null) {
+                return;
+            }
             
-            // Obtener configuración de la empresa (por ahora usar configuración por defecto)
-            Optional<ParkingConfigDomain> configOpt = getApplicableConfig(vehicleId, routeId);
-            if (!configOpt.isPresent()) {
-                log.debug("No hay configuración de estacionamiento para vehículo: {}", vehicleId);
+            // Configuración de la compañía del vehículo, desde memoria
+            // Sin configuración activa la detección está apagada para el vehículo
+            Optional<ParkingConfigDomain> configOpt = parkingConfigCache.resolve(vehicleId, routeId);
+            if (configOpt.isEmpty()) {
+                log.debug("Detección de estacionamiento deshabilitada para vehículo: {}", vehicleId);
                 return;
             }
-
             ParkingConfigDomain config = configOpt.get();
-            if (!config.getIsActive()) {
-                log.debug("Detección de estacionamiento deshabilitada para vehículo: {}", vehicleId);
+
+            // Aplicar la ubicación sobre el estado del vehículo con su lock tomado
+            int vehicleIndex = vehicleIndexRegistry.intern(vehicleId);
+            double latitude = trackingReqDto.getLatitude().doubleValue();
+            double longitude = trackingReqDto.getLongitude().doubleValue();
+            double reportedSpeedKmh = trackingReqDto.reportedSpeedKmh();
+            long timestamp = trackingReqDto.getTimestamp().toInstant().toEpochMilli();
+            // La zona solo se consulta cuando se abre un evento, dentro del lock del vehículo
+            ParkingZoneIndex.Zone[] startZone = new ParkingZoneIndex.Zone[1];
+            ParkingDetector.Step step = parkingStateStore.withState(vehicleIndex,
+                    state -> ParkingDetector.step(state, latitude, longitude, reportedSpeedKmh, timestamp, config, () -> {
+                        startZone[0] = parkingZoneIndexService.match(
+                                companyLookupService.resolveCompanyId(vehicleId, routeId), latitude, longitude);
+                        return startZone[0] != null && startZone[0].isExemptFromParking()
+                                ? SUPPRESSED_EVENT_KEY
+                                : parkingEventPersister.nextEventKey();
+                    }));
+            idleTimerWheel.touch(vehicleIndex, System.currentTimeMillis());
+
+            if (step.getTransition() != ParkingDetector.Transition.NONE && step.getEventKey() == SUPPRESSED_EVENT_KEY) {
+                if (step.getTransition() == ParkingDetector.Transition.PARKING_STARTED) {
+                    log.debug("Estacionamiento del vehículo {} omitido: está en la zona exenta '{}'",
+                            vehicleId, startZone[0].getName());
+                }
                 return;
             }
 
-            // Obtener o crear tracking info para este vehículo
-            VehicleTrackingInfo trackingInfo = getVehicleTrackingInfo(vehicleId);
-            
-            // Procesar la ubicación
-            processLocationForVehicle(trackingReqDto, config, trackingInfo);
+            switch (step.getTransition()) {
+                case PARKING_STARTED -> {
+                    log.debug("Estacionamiento detectado para vehículo {} ({} min, {} m, {} km/h)", vehicleId,
+                            config.getMinTimeMinutes(), config.getMaxDistanceMeters(), config.getMaxSpeedKmh());
+                    if (parkingEventPersister.publish(toDomainEvent(ParkingDomainEvent.Type.STARTED, step, trackingReqDto,
+                            startZone[0] != null ? startZone[0].getId() : null))) {
+                        fleetSummaryService.onParkingChanged(vehicleId, true);
+                    } else {
+                        // Sin lugar en la cola: el evento no existe; la siguiente ubicación detenida lo vuelve a abrir
+                        undoStart(vehicleIndex, step.getEventKey());
+                    }
+                }
+                case PARKING_ENDED -> {
+                    fleetSummaryService.onParkingChanged(vehicleId, false);
+                    parkingEventPersister.publish(toDomainEvent(ParkingDomainEvent.Type.ENDED, step, trackingReqDto, null));
+                }
+                default -> {
+                }
+            }
 
         } catch (Exception e) {
             log.error("Error procesando ubicación GPS para estacionamiento: {}", e.getMessage(), e);
         }
     }
 
-    private void processLocationForVehicle(TrackingReqDto trackingReqDto, ParkingConfigDomain config, VehicleTrackingInfo trackingInfo) {
-        String vehicleId = trackingReqDto.getVehicleId();
-        LocalDateTime currentTime = trackingReqDto.getTimestamp().toLocalDateTime();
-        
-        // Extraer información adicional del payload si está disponible
-        Double currentSpeed = extractSpeed(trackingReqDto);
-        BigDecimal currentLat = trackingReqDto.getLatitude();
-        BigDecimal currentLng = trackingReqDto.getLongitude();
-
-        // Primera ubicación del vehículo
-        if (trackingInfo.getLastLocation() == null) {
-            trackingInfo.setLastLocation(new LocationInfo(currentLat, currentLng, currentTime, currentSpeed));
-            return;
-        }
-
-        LocationInfo lastLocation = trackingInfo.getLastLocation();
-        
-        // Calcular distancia y velocidad
-        double distanceMeters = calculateDistance(
-                lastLocation.getLatitude().doubleValue(),
-                lastLocation.getLongitude().doubleValue(),
-                currentLat.doubleValue(),
-                currentLng.doubleValue()
-        );
-
-        Duration timeDifference = Duration.between(lastLocation.getTimestamp(), currentTime);
-        double speedKmh = calculateSpeed(distanceMeters, timeDifference.toMillis());
-
-        // Actualizar tracking info
-        trackingInfo.updateLocation(new LocationInfo(currentLat, currentLng, currentTime, currentSpeed));
-
-        // Detectar si el vehículo está estacionado
-        boolean isParked = isVehicleParked(distanceMeters, speedKmh, config);
-
-        if (isParked) {
-            trackingInfo.incrementParkedTime(timeDifference);
-            
-            // Verificar si supera el umbral configurado
-            if (trackingInfo.getAccumulatedParkedMinutes() >= config.getMinTimeMinutes()) {
-                handleParkingEventDetected(trackingReqDto, config, trackingInfo);
+    /**
+     * Olvida el estado de detección de todos los vehículos. Los estacionamientos abiertos
+     * se cierran en su última ubicación conocida, para no dejar eventos activos sin dueño,
+     * y dejan de contarse como estacionados en el resumen de flota.
+     */
+    public void resetTracking() {
+        List<String> unparked = new ArrayList<>();
+        List<ParkingDomainEvent> closing = new ArrayList<>();
+        parkingStateStore.clear((state, vehicleIndex) -> {
+            if (!state.isEventOpen()) {
+                return;
             }
-        } else {
-            // Vehículo se movió, reiniciar contador
-            trackingInfo.resetParkedTime();
-            
-            // Si había un evento de estacionamiento activo, cerrarlo
-            if (trackingInfo.getActiveParkingEventId() != null) {
-                handleParkingEventEnded(trackingReqDto, trackingInfo);
+            String vehicleId = vehicleIndexRegistry.vehicleIdAt(vehicleIndex);
+            unparked.add(vehicleId);
+            if (state.hasLocation() && state.getActiveEventKey() != SUPPRESSED_EVENT_KEY) {
+                closing.add(toClosingEvent(vehicleId, state));
             }
+        });
+        unparked.forEach(vehicleId -> fleetSummaryService.onParkingChanged(vehicleId, false));
+        closing.forEach(parkingEventPersister::publish);
+        if (!closing.isEmpty()) {
+            log.info("🅿️ {} estacionamientos abiertos cerrados al reiniciar la detección", closing.size());
         }
     }
 
-    private boolean isVehicleParked(double distanceMeters, double speedKmh, ParkingConfigDomain config) {
-        boolean closeDistance = distanceMeters <= config.getMaxDistanceMeters();
-        boolean lowSpeed = speedKmh <= config.getMaxSpeedKmh();
-        
-        return closeDistance && lowSpeed;
-    }
-
-    private void handleParkingEventDetected(TrackingReqDto trackingReqDto, ParkingConfigDomain config, VehicleTrackingInfo trackingInfo) {
-        String vehicleId = trackingReqDto.getVehicleId();
-        Long routeId = trackingReqDto.getRouteId();
-        
-        // Si ya hay un evento activo, no crear otro
-        if (trackingInfo.getActiveParkingEventId() != null) {
-            log.debug("Ya existe un evento de estacionamiento activo para vehículo: {}", vehicleId);
-            return;
+    /**
+     * Libera el estado del vehículo inactivo; si tenía un estacionamiento abierto
+     * se cierra en su última ubicación conocida.
+     */
+    private void onVehicleIdle(int vehicleIndex) {
+        String vehicleId = vehicleIndexRegistry.vehicleIdAt(vehicleIndex);
+        boolean[] wasOpen = new boolean[1];
+        long[] openKey = {SUPPRESSED_EVENT_KEY};
+        ParkingDomainEvent closing = parkingStateStore.remove(vehicleIndex, state -> {
+            wasOpen[0] = state.isEventOpen();
+            if (state.isEventOpen()) {
+                openKey[0] = state.getActiveEventKey();
+            }
+            return closeOpenEventsOnIdle && state.isEventOpen() && state.hasLocation()
+                    && state.getActiveEventKey() != SUPPRESSED_EVENT_KEY
+                    ? toClosingEvent(vehicleId, state)
+                    : null;
+        });
+        // Cerrado o solo olvidado, el detector ya no lo tiene abierto: al volver a reportar no está estacionado
+        if (wasOpen[0]) {
+            fleetSummaryService.onParkingChanged(vehicleId, false);
         }
-
-        // Crear nuevo evento de estacionamiento
-        ParkingEventDomain parkingEvent = ParkingEventDomain.builder()
-                .vehicleId(vehicleId)
-                .driverId(null) // Se puede obtener del vehicleId o routeId
-                .routeId(routeId)
-                .startedAt(trackingReqDto.getTimestamp().toLocalDateTime())
-                .isActive(true)
-                .finalLocationLat(trackingReqDto.getLatitude())
-                .finalLocationLng(trackingReqDto.getLongitude())
-                .active(true)
-                .build();
-
-        ParkingEventDomain savedEvent = parkingEventRepository.save(parkingEvent);
-        trackingInfo.setActiveParkingEventId(savedEvent.getId());
-
-        log.info("🚗🚗 EVENTO DE ESTACIONAMIENTO DETECTADO 🚗🚗");
-        log.info("Vehículo: {}", vehicleId);
-        log.info("Ruta: {}", routeId);
-        log.info("Configuración: {} min, {}m, {} km/h", 
-                config.getMinTimeMinutes(), 
-                config.getMaxDistanceMeters(), 
-                config.getMaxSpeedKmh());
-        log.info("ID del evento: {}", savedEvent.getId());
-        
-        // Aquí se puede enviar notificación via WebSocket al frontend
-        sendParkingAlert(savedEvent, "VEHÍCULO_ESTACIONADO", "Vehículo estacionado por tiempo excesivo");
-    }
-
-    private void handleParkingEventEnded(TrackingReqDto trackingReqDto, VehicleTrackingInfo trackingInfo) {
-        Long eventId = trackingInfo.getActiveParkingEventId();
-        if (eventId == null) return;
-
-        Optional<ParkingEventDomain> eventOpt = parkingEventRepository.findById(eventId);
-        if (!eventOpt.isPresent()) {
-            trackingInfo.setActiveParkingEventId(null);
-            return;
+        if (closing != null) {
+            log.info("🅿️ Cerrando estacionamiento del vehículo inactivo {}", closing.getVehicleId());
+            parkingEventPersister.publish(closing);
+        } else if (openKey[0] != SUPPRESSED_EVENT_KEY) {
+            // Queda abierto en base de datos pero ya nadie lo va a cerrar desde aquí
+            parkingEventPersister.release(openKey[0]);
         }
-
-        ParkingEventDomain event = eventOpt.get();
-        LocalDateTime endTime = trackingReqDto.getTimestamp().toLocalDateTime();
-        Duration eventDuration = Duration.between(event.getStartedAt(), endTime);
-        int totalMinutes = (int) eventDuration.toMinutes();
-
-        // Actualizar evento
-        event.setEndedAt(endTime);
-        event.setTotalDurationMinutes(totalMinutes);
-        event.setIsActive(false);
-        event.setFinalLocationLat(trackingReqDto.getLatitude());
-        event.setFinalLocationLng(trackingReqDto.getLongitude());
-
-        ParkingEventDomain updatedEvent = parkingEventRepository.save(event);
-        trackingInfo.setActiveParkingEventId(null);
-
-        log.info("🏁 EVENTO DE ESTACIONAMIENTO FINALIZADO");
-        log.info("Duración total: {} minutos", totalMinutes);
-        log.info("ID del evento: {}", updatedEvent.getId());
-        
-        // Enviar notificación de finalización
-        sendParkingAlert(updatedEvent, "VEHÍCULO_REANUDÓ_MOVIMIENTO", "Vehículo reanudó su recorrido");
-    }
-
-    private Optional<ParkingConfigDomain> getApplicableConfig(String vehicleId, Long routeId) {
-        // Por ahora retornamos la primera configuración activa
-        // En implementación real, se filtraría por companyId del vehículo/ruta
-        return parkingConfigRepository.findAll().stream()
-                .filter(config -> config.getIsActive())
-                .findFirst();
-    }
-
-    private VehicleTrackingInfo getVehicleTrackingInfo(String vehicleId) {
-        return vehicleTracking.computeIfAbsent(vehicleId, k -> new VehicleTrackingInfo());
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        // Fórmula de Haversine para calcular distancia entre dos puntos GPS
-        double earthRadius = 6371000; // Radio de la Tierra en metros
-        
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
-                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                Math.sin(dLon/2) * Math.sin(dLon/2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        
-        return earthRadius * c;
-    }
-
-    private double calculateSpeed(double distanceMeters, long timeMillis) {
-        if (timeMillis <= 0) return 0.0;
-        double timeHours = timeMillis / (1000.0 * 3600.0);
-        return distanceMeters / 1000.0 / timeHours; // km/h
+    private void undoStart(int vehicleIndex, long eventKey) {
+        parkingStateStore.withState(vehicleIndex, state -> {
+            if (state.isEventOpen() && state.getActiveEventKey() == eventKey) {
+                state.setEventOpen(false);
+                state.setActiveEventKey(0L);
+            }
+            return null;
+        });
     }
 
-    private Double extractSpeed(TrackingReqDto trackingReqDto) {
-        // Por ahora retornamos null, en implementación futura se puede extraer del JSON
-        return null;
+    private static ParkingDomainEvent toClosingEvent(String vehicleId, ParkingState state) {
+        return new ParkingDomainEvent(
+                ParkingDomainEvent.Type.ENDED,
+                state.getActiveEventKey(),
+                vehicleId,
+                null,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(state.getLastTimestamp()), ZONE),
+                BigDecimal.valueOf(state.getLatitudeE6(), 6),
+                BigDecimal.valueOf(state.getLongitudeE6(), 6),
+                null);
     }
 
-    private void sendParkingAlert(ParkingEventDomain event, String type, String message) {
-        try {
-            // Crear objeto de alerta para enviar via WebSocket
-            ParkingAlert alert = new ParkingAlert(
-                event.getId(),
-                event.getVehicleId(),
-                event.getDriverId(),
-                event.getRouteId(),
-                event.getStartedAt(),
+    private static ParkingDomainEvent toDomainEvent(ParkingDomainEvent.Type type, ParkingDetector.Step step,
+                                                    TrackingReqDto trackingReqDto, Long zoneId) {
+        return new ParkingDomainEvent(
                 type,
-                message
-            );
-
-            // Enviar alerta via WebSocket a todos los clientes conectados
-            messagingTemplate.convertAndSend("/topic/parking-alerts", alert);
-
-            log.info("📱 ALERTA DE ESTACIONAMIENTO ENVIADA:");
-            log.info("   Tipo: {}", type);
-            log.info("   Mensaje: {}", message);
-            log.info("   Vehículo: {}", event.getVehicleId());
-            log.info("   Event ID: {}", event.getId());
-
-        } catch (Exception e) {
-            log.error("Error enviando alerta de estacionamiento via WebSocket: {}", e.getMessage(), e);
-        }
-    }
-
-    // Clase interna para representar alertas de estacionamiento
-    public static class ParkingAlert {
-        private final Long id;
-        private final String vehicleId;
-        private final Long driverId;
-        private final Long routeId;
-        private final LocalDateTime startedAt;
-        private final String type;
-        private final String message;
-
-        public ParkingAlert(Long id, String vehicleId, Long driverId, Long routeId,
-                          LocalDateTime startedAt, String type, String message) {
-            this.id = id;
-            this.vehicleId = vehicleId;
-            this.driverId = driverId;
-            this.routeId = routeId;
-            this.startedAt = startedAt;
-            this.type = type;
-            this.message = message;
-        }
-
-        // Getters
-        public Long getId() { return id; }
-        public String getVehicleId() { return vehicleId; }
-        public Long getDriverId() { return driverId; }
-        public Long getRouteId() { return routeId; }
-        public LocalDateTime getStartedAt() { return startedAt; }
-        public String getType() { return type; }
-        public String getMessage() { return message; }
-    }
-
-    // Clases auxiliares para tracking temporal
-    private static class VehicleTrackingInfo {
-        private LocationInfo lastLocation;
-        private Long activeParkingEventId;
-        private int accumulatedParkedMinutes = 0;
-
-        public LocationInfo getLastLocation() { return lastLocation; }
-        public void setLastLocation(LocationInfo lastLocation) { this.lastLocation = lastLocation; }
-        public Long getActiveParkingEventId() { return activeParkingEventId; }
-        public void setActiveParkingEventId(Long activeParkingEventId) { this.activeParkingEventId = activeParkingEventId; }
-        public int getAccumulatedParkedMinutes() { return accumulatedParkedMinutes; }
-        public void incrementParkedTime(Duration timeDifference) { 
-            accumulatedParkedMinutes += (int) timeDifference.toMinutes(); 
-        }
-        public void resetParkedTime() { accumulatedParkedMinutes = 0; }
-        public void updateLocation(LocationInfo newLocation) { 
-            this.lastLocation = newLocation; 
-        }
-    }
-
-    private static class LocationInfo {
-        private final BigDecimal latitude;
-        private final BigDecimal longitude;
-        private final LocalDateTime timestamp;
-        private final Double speed;
-
-        public LocationInfo(BigDecimal latitude, BigDecimal longitude, LocalDateTime timestamp, Double speed) {
-            this.latitude = latitude;
-            this.longitude = longitude;
-            this.timestamp = timestamp;
-            this.speed = speed;
-        }
-
-        public BigDecimal getLatitude() { return latitude; }
-        public BigDecimal getLongitude() { return longitude; }
-        public LocalDateTime getTimestamp() { return timestamp; }
-        public Double getSpeed() { return speed; }
+                step.getEventKey(),
+                trackingReqDto.getVehicleId(),
+                trackingReqDto.getRouteId(),
+                // Misma conversión que el cierre: el instante en la zona del servidor, no el offset del dispositivo
+                trackingReqDto.getTimestamp().atZoneSameInstant(ZONE).toLocalDateTime(),
+                trackingReqDto.getLatitude(),
+                trackingReqDto.getLongitude(),
+                zoneId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.event.ParkingDomainEvent;
+import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda un lote de eventos de estacionamiento en una sola transacción
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ParkingEventBatchWriter {
+
+    private final ParkingEventRepository parkingEventRepository;
+
+    /**
+     * Aplica los eventos en orden. Retorna el evento guardado por cada elemento del
+     * lote, o null si se omitió (por ejemplo un fin cuyo inicio nunca se guardó).
+     *
+     * @param knownIds clave local -> id en base de datos de los eventos abiertos ya guardados
+     */
+    @Transactional
+    public List<ParkingEventDomain> write(List<ParkingDomainEvent> batch, Map<Long, Long> knownIds) {
+        Map<Long, Long> idsInBatch = new HashMap<>();
+        List<ParkingEventDomain> saved = new ArrayList<>(batch.size());
+        for (ParkingDomainEvent event : batch) {
+            saved.add(event.getType() == ParkingDomainEvent.Type.STARTED
+                    ? start(event, idsInBatch)
+                    : end(event, idsInBatch, knownIds));
+        }
+        return saved;
+    }
+
+    private ParkingEventDomain start(ParkingDomainEvent event, Map<Long, Long> idsInBatch) {
+        ParkingEventDomain parkingEvent = ParkingEventDomain.builder()
+                .vehicleId(event.getVehicleId())
+                .driverId(null) // Se puede obtener del vehicleId o routeId
+                .routeId(event.getRouteId())
+                .startedAt(event.getOccurredAt())
+                .isActive(true)
+                .finalLocationLat(event.getLatitude())
+                .finalLocationLng(event.getLongitude())
+                .zoneId(event.getZoneId())
+                .active(true)
+                .build();
+
+        ParkingEventDomain savedEvent = parkingEventRepository.save(parkingEvent);
+        idsInBatch.put(event.getEventKey(), savedEvent.getId());
+        return savedEvent;
+    }
+
+    private ParkingEventDomain end(ParkingDomainEvent event, Map<Long, Long> idsInBatch, Map<Long, Long> knownIds) {
+        Long eventId = idsInBatch.getOrDefault(event.getEventKey(), knownIds.get(event.getEventKey()));
+        if (eventId == null) {
+            log.warn("Fin de estacionamiento sin evento guardado (vehículo {}, clave {})",
+                    event.getVehicleId(), event.getEventKey());
+            return null;
+        }
+
+        ParkingEventDomain parkingEvent = parkingEventRepository.findById(eventId).orElse(null);
+        if (parkingEvent == null) {
+            return null;
+        }
+        int totalMinutes = (int) Duration.between(parkingEvent.getStartedAt(), event.getOccurredAt()).toMinutes();
+
+        parkingEvent.setEndedAt(event.getOccurredAt());
+        parkingEvent.setTotalDurationMinutes(totalMinutes);
+        parkingEvent.setIsActive(false);
+        parkingEvent.setFinalLocationLat(event.getLatitude());
+        parkingEvent.setFinalLocationLng(event.getLongitude());
+        return parkingEventRepository.save(parkingEvent);
+    }
+}
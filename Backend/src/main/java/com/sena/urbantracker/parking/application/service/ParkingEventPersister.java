@@ -0,0 +1,261 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.event.ParkingDomainEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistencia asíncrona de los eventos de estacionamiento.
+ *
+ * La detección solo encola {@link ParkingDomainEvent}; aquí se guardan en lotes
+ * pequeños, cada lote en una transacción. Si un lote falla se parte en mitades hasta
+ * aislar los eventos que fallan: el resto se guarda y solo esos (y los posteriores
+ * del mismo estacionamiento, para no cerrar algo que no se abrió) vuelven al frente
+ * de la cola para el siguiente ciclo. Cada evento que falla se reintenta hasta
+ * parking.persistence.max-retries veces.
+ * Las alertas ({@link ParkingAlertService}) se envían solo después de que el lote hizo commit.
+ *
+ * Los eventos abiertos se identifican con una clave local; al guardarse el inicio
+ * se anota su id en base de datos para poder cerrarlo después.
+ *
+ * La cola tiene un límite solo para los inicios: un inicio que no cabe se rechaza y
+ * quien lo publicó deshace la apertura. Los fines siempre se aceptan, porque hay a lo
+ * sumo uno por cada evento abierto.
+ */
+@Slf4j
+@Service
+public class ParkingEventPersister {
+
+    private final ParkingEventBatchWriter batchWriter;
+    private final ParkingAlertService parkingAlertService;
+    private final ParkingHeavyHitterService heavyHitterService;
+    private final int batchSize;
+    private final int maxRetries;
+    private final int queueCapacity;
+
+    private final AtomicLong eventKeys = new AtomicLong();
+    // Protegida con su propio lock; los reintentos vuelven al frente
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    // clave local -> id en base de datos de los eventos abiertos
+    private final Map<Long, Long> idsByKey = new ConcurrentHashMap<>();
+    // Claves liberadas cuyo inicio todavía no se había guardado; se modifican dentro de idsByKey.compute
+    private final Set<Long> releasedKeys = ConcurrentHashMap.newKeySet();
+
+    public ParkingEventPersister(ParkingEventBatchWriter batchWriter,
+                                 ParkingAlertService parkingAlertService,
+                                 ParkingHeavyHitterService heavyHitterService,
+                                 @Value("${parking.persistence.batch-size:50}") int batchSize,
+                                 @Value("${parking.persistence.max-retries:3}") int maxRetries,
+                                 @Value("${parking.persistence.queue-capacity:10000}") int queueCapacity) {
+        this.batchWriter = batchWriter;
+        this.parkingAlertService = parkingAlertService;
+        this.heavyHitterService = heavyHitterService;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long nextEventKey() {
+        return eventKeys.incrementAndGet();
+    }
+
+    /**
+     * Asocia una clave local nueva a un evento que ya existe en base de datos
+     */
+    public long registerPersisted(long eventId) {
+        long eventKey = nextEventKey();
+        idsByKey.put(eventKey, eventId);
+        return eventKey;
+    }
+
+    public Long findEventId(long eventKey) {
+        return idsByKey.get(eventKey);
+    }
+
+    /**
+     * Olvida el id del evento abierto de la clave: el detector dejó de seguirlo sin
+     * cerrarlo. Si el inicio aún no se guardó, su id no se anota al guardarse.
+     */
+    public void release(long eventKey) {
+        idsByKey.compute(eventKey, (key, eventId) -> {
+            if (eventId == null) {
+                releasedKeys.add(key);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Encola el evento para guardarse.
+     *
+     * @return false si es un inicio y la cola está llena; el evento no se guardará
+     */
+    public boolean publish(ParkingDomainEvent event) {
+        synchronized (queue) {
+            if (event.getType() == ParkingDomainEvent.Type.STARTED && queue.size() >= queueCapacity) {
+                log.error("Cola de eventos de estacionamiento llena, se rechaza {}", event);
+                return false;
+            }
+            queue.addLast(new Pending(event));
+            return true;
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${parking.persistence.interval-ms:500}")
+    public synchronized void flush() {
+        // Eventos a reintentar en el siguiente ciclo y las claves que quedan bloqueadas por ellos
+        List<Pending> retry = new ArrayList<>();
+        Set<Long> retryKeys = new HashSet<>();
+        List<Pending> batch;
+        while (!(batch = take()).isEmpty()) {
+            int failedBefore = retryKeys.size();
+            int saved = write(batch, retry, retryKeys);
+            // Nada se pudo guardar: probablemente la base no está disponible, se espera al siguiente ciclo
+            if (saved == 0 && retryKeys.size() > failedBefore) {
+                break;
+            }
+        }
+        if (!retry.isEmpty()) {
+            retryLater(retry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Último intento de guardar lo pendiente antes de apagar
+        flush();
+    }
+
+    private List<Pending> take() {
+        synchronized (queue) {
+            List<Pending> batch = new ArrayList<>(Math.min(batchSize, queue.size()));
+            while (batch.size() < batchSize && !queue.isEmpty()) {
+                batch.add(queue.pollFirst());
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Guarda el lote en una transacción; si falla lo parte en mitades. Los eventos que
+     * fallan solos, y los de una clave que ya falló, se agregan en orden a retry.
+     * Retorna cuántos eventos se guardaron.
+     */
+    private int write(List<Pending> batch, List<Pending> retry, Set<Long> retryKeys) {
+        boolean blocked = batch.stream().anyMatch(pending -> retryKeys.contains(pending.event.getEventKey()));
+        if (!blocked) {
+            List<ParkingDomainEvent> events = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                events.add(pending.event);
+            }
+            List<ParkingEventDomain> saved = null;
+            try {
+                saved = batchWriter.write(events, idsByKey);
+            } catch (Exception e) {
+                if (batch.size() == 1) {
+                    Pending pending = batch.get(0);
+                    log.warn("Error guardando evento de estacionamiento {}, se reintentará: {}", pending.event, e.getMessage());
+                    pending.failed = true;
+                    retry.add(pending);
+                    retryKeys.add(pending.event.getEventKey());
+                    return 0;
+                }
+            }
+            // Fuera del try: el lote ya hizo commit y no debe volver a escribirse aunque algo falle después
+            if (saved != null) {
+                afterCommit(events, saved);
+                return batch.size();
+            }
+        } else if (batch.size() == 1) {
+            // Depende de un evento que falló: espera con él sin gastar intentos
+            retry.add(batch.get(0));
+            return 0;
+        }
+
+        int middle = batch.size() / 2;
+        return write(batch.subList(0, middle), retry, retryKeys)
+                + write(batch.subList(middle, batch.size()), retry, retryKeys);
+    }
+
+    private void retryLater(List<Pending> retry) {
+        synchronized (queue) {
+            for (int i = retry.size() - 1; i >= 0; i--) {
+                Pending pending = retry.get(i);
+                if (pending.failed && ++pending.attempts > maxRetries) {
+                    log.error("Evento de estacionamiento descartado tras {} intentos: {}", maxRetries, pending.event);
+                    releasedKeys.remove(pending.event.getEventKey());
+                    continue;
+                }
+                pending.failed = false;
+                queue.addFirst(pending);
+            }
+        }
+    }
+
+    private void afterCommit(List<ParkingDomainEvent> events, List<ParkingEventDomain> saved) {
+        for (int i = 0; i < events.size(); i++) {
+            ParkingDomainEvent event = events.get(i);
+            ParkingEventDomain parkingEvent = saved.get(i);
+            if (parkingEvent == null) {
+                idsByKey.remove(event.getEventKey());
+                releasedKeys.remove(event.getEventKey());
+                continue;
+            }
+
+            if (event.getType() == ParkingDomainEvent.Type.STARTED) {
+                idsByKey.compute(event.getEventKey(),
+                        (key, eventId) -> releasedKeys.remove(key) ? null : parkingEvent.getId());
+                sideEffect("estadísticas", parkingEvent, () -> heavyHitterService.record(parkingEvent.getId(),
+                        parkingEvent.getVehicleId(), parkingEvent.getDriverId(), parkingEvent.getStartedAt()));
+                log.info("🚗🚗 EVENTO DE ESTACIONAMIENTO DETECTADO 🚗🚗 Vehículo: {} | Ruta: {} | ID del evento: {}",
+                        parkingEvent.getVehicleId(), parkingEvent.getRouteId(), parkingEvent.getId());
+                sideEffect("alerta de inicio", parkingEvent, () -> parkingAlertService.parkingStarted(parkingEvent));
+            } else {
+                idsByKey.remove(event.getEventKey());
+                releasedKeys.remove(event.getEventKey());
+                log.info("🏁 EVENTO DE ESTACIONAMIENTO FINALIZADO Duración total: {} minutos | ID del evento: {}",
+                        parkingEvent.getTotalDurationMinutes(), parkingEvent.getId());
+                sideEffect("alerta de fin", parkingEvent, () -> parkingAlertService.parkingEnded(parkingEvent));
+            }
+        }
+    }
+
+    // Un error después del commit se registra y no afecta a los demás eventos del lote
+    private static void sideEffect(String name, ParkingEventDomain parkingEvent, Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Error en {} del evento de estacionamiento {}: {}", name, parkingEvent.getId(), e.getMessage(), e);
+        }
+    }
+
+    private static final class Pending {
+        private final ParkingDomainEvent event;
+        private int attempts;
+        private boolean failed; // falló en el ciclo actual
+
+        private Pending(ParkingDomainEvent event) {
+            this.event = event;
+        }
+    }
+}
@@ -1,130 +1,135 @@
 package com.sena.urbantracker.parking.application.service;
 
-import com.sena.urbantracker.parking.application.dto.response.ParkingEventResDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingEventPageResDto;
 import com.sena.urbantracker.parking.application.dto.response.ParkingStatsDto;
 import com.sena.urbantracker.parking.application.mapper.ParkingEventMapper;
 import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
 import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ParkingEventService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final ParkingEventRepository parkingEventRepository;
+    private final ParkingHeavyHitterService heavyHitterService;
 
-    public List<ParkingEventResDto> findAll() {
-        return parkingEventRepository.findAll()
-                .stream()
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findAll(String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findPage(position, size));
     }
 
-    public List<ParkingEventResDto> findActiveEvents() {
-        return parkingEventRepository.findAll()
-                .stream()
-                .filter(event -> event.getIsActive() != null && event.getIsActive())
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findActiveEvents(String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findActivePage(position, size));
     }
 
-    public List<ParkingEventResDto> findByVehicleId(String vehicleId) {
-        return parkingEventRepository.findAll()
-                .stream()
-                .filter(event -> event.getVehicleId().equals(vehicleId))
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findByVehicleId(String vehicleId, LocalDateTime startDate, LocalDateTime endDate,
+                                                  String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findPageByVehicleId(
+                vehicleId, fromOrMin(startDate), toOrMax(endDate), position, size));
     }
 
-    public List<ParkingEventResDto> findByVehicleIdAndDateRange(String vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
-        return parkingEventRepository.findByVehicleIdAndDateRange(vehicleId, startDate, endDate)
-                .stream()
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findByDriverId(Long driverId, LocalDateTime startDate, LocalDateTime endDate,
+                                                 String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findPageByDriverId(
+                driverId, fromOrMin(startDate), toOrMax(endDate), position, size));
     }
 
-    public List<ParkingEventResDto> findByDriverId(Long driverId) {
-        return parkingEventRepository.findAll()
-                .stream()
-                .filter(event -> event.getDriverId() != null && event.getDriverId().equals(driverId))
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findByCompanyId(Long companyId, LocalDateTime startDate, LocalDateTime endDate,
+                                                  String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findPageByCompanyId(
+                companyId, fromOrMin(startDate), toOrMax(endDate), position, size));
     }
 
-    public List<ParkingEventResDto> findByDriverIdAndDateRange(Long driverId, LocalDateTime startDate, LocalDateTime endDate) {
-        return parkingEventRepository.findByDriverIdAndDateRange(driverId, startDate, endDate)
-                .stream()
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    public ParkingEventPageResDto findRecentEvents(LocalDateTime since, String cursor, Integer limit) {
+        return page(cursor, limit, (position, size) -> parkingEventRepository.findPageStartedBetween(
+                since, ParkingEventCursor.MAX_TIME, position, size));
     }
 
-    public List<ParkingEventResDto> findByCompanyId(Long companyId) {
-        return parkingEventRepository.findAll()
-                .stream()
-                .filter(event -> event.getRouteId() != null)
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Estadísticas calculadas con consultas agregadas; no carga eventos en memoria.
+     * Los más frecuentes corresponden a los últimos 30 días.
+     */
+    public ParkingStatsDto getParkingStats() {
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+        ParkingEventTotals totals = parkingEventRepository.computeTotals(
+                todayStart, todayStart.plusDays(1), LocalDateTime.now().minusDays(7));
+
+        return ParkingStatsDto.builder()
+                .totalEvents((int) totals.getTotalEvents())
+                .activeEvents((int) totals.getActiveEvents())
+                .eventsToday((int) totals.getEventsToday())
+                .eventsThisWeek((int) totals.getEventsThisWeek())
+                .averageParkingDurationMinutes(totals.getAverageDurationMinutes())
+                .lastEventTime(totals.getLastEventTime())
+                .mostFrequentParkingVehicle(heavyHitterService.mostFrequent(
+                        ParkingHeavyHitterService.Dimension.VEHICLE, ParkingHeavyHitterService.Window.MONTH).orElse(null))
+                .mostFrequentParkingDriver(heavyHitterService.mostFrequent(
+                        ParkingHeavyHitterService.Dimension.DRIVER, ParkingHeavyHitterService.Window.MONTH).orElse(null))
+                .build();
     }
 
-    public List<ParkingEventResDto> findByCompanyIdAndDateRange(Long companyId, LocalDateTime startDate, LocalDateTime endDate) {
-        return parkingEventRepository.findByCompanyIdAndDateRange(companyId, startDate, endDate)
-                .stream()
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    // Pide una fila de más para saber si existe una página siguiente
+    private ParkingEventPageResDto page(String cursor, Integer limit, PageQuery query) {
+        int size = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("El límite debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        List<ParkingEventDomain> events = query.find(decodeCursor(cursor), size + 1);
+        boolean hasMore = events.size() > size;
+        List<ParkingEventDomain> pageEvents = hasMore ? events.subList(0, size) : events;
+
+        return ParkingEventPageResDto.builder()
+                .items(pageEvents.stream().map(ParkingEventMapper::toDto).toList())
+                .nextCursor(hasMore ? encodeCursor(pageEvents.get(size - 1)) : null)
+                .limit(size)
+                .build();
     }
 
-    public List<ParkingEventResDto> findRecentEvents(LocalDateTime since) {
-        return parkingEventRepository.findAll()
-                .stream()
-                .filter(event -> event.getStartedAt().isAfter(since))
-                .map(ParkingEventMapper::toDto)
-                .collect(Collectors.toList());
+    // El cursor es opaco para el cliente: started_at e id del último evento de la página
+    private static String encodeCursor(ParkingEventDomain last) {
+        String raw = last.getStartedAt() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    public ParkingStatsDto getParkingStats() {
-        List<ParkingEventDomain> allEvents = parkingEventRepository.findAll();
-
-        int totalEvents = allEvents.size();
-        int activeEvents = (int) allEvents.stream()
-                .filter(event -> event.getIsActive() != null && event.getIsActive())
-                .count();
-
-        LocalDateTime today = LocalDateTime.now().toLocalDate().atStartOfDay();
-        int eventsToday = (int) allEvents.stream()
-                .filter(event -> event.getStartedAt().toLocalDate().isEqual(today.toLocalDate()))
-                .count();
-
-        LocalDateTime weekStart = LocalDateTime.now().minusDays(7);
-        int eventsThisWeek = (int) allEvents.stream()
-                .filter(event -> event.getStartedAt().isAfter(weekStart))
-                .count();
-
-        double averageDuration = allEvents.stream()
-                .filter(event -> event.getTotalDurationMinutes() != null)
-                .mapToInt(ParkingEventDomain::getTotalDurationMinutes)
-                .average()
-                .orElse(0.0);
-
-        LocalDateTime lastEventTime = allEvents.stream()
-                .map(ParkingEventDomain::getStartedAt)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-
-        // Estadísticas básicas por ahora
-        return ParkingStatsDto.builder()
-                .totalEvents(totalEvents)
-                .activeEvents(activeEvents)
-                .eventsToday(eventsToday)
-                .eventsThisWeek(eventsThisWeek)
-                .averageParkingDurationMinutes(averageDuration)
-                .lastEventTime(lastEventTime)
-                .mostFrequentParkingVehicle(null) // Implementar más tarde
-                .mostFrequentParkingDriver(null)   // Implementar más tarde
-                .build();
+    private static ParkingEventCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ParkingEventCursor.FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+            return new ParkingEventCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Cursor de paginación inválido");
+        }
+    }
+
+    private static LocalDateTime fromOrMin(LocalDateTime from) {
+        return from != null ? from : ParkingEventCursor.MIN_TIME;
+    }
+
+    private static LocalDateTime toOrMax(LocalDateTime to) {
+        return to != null ? to : ParkingEventCursor.MAX_TIME;
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<ParkingEventDomain> find(ParkingEventCursor cursor, int limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.application.dto.response.ParkingTopEntryDto;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.domain.stats.SpaceSavingSketch;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vehículos y conductores con más estacionamientos en el día, la semana y el mes.
+ *
+ * Cada día tiene su propio {@link SpaceSavingSketch} por dimensión; un evento solo
+ * actualiza el de su día y las ventanas más largas suman los últimos 7 o 30 días al
+ * consultar. La memoria queda fija en 30 días por capacity contadores.
+ *
+ * Al crearse el servicio, antes de que se persista cualquier evento, se toma el mayor
+ * id guardado: la carga inicial cuenta solo hasta ese id y {@link #record} solo los
+ * posteriores, así un evento guardado mientras se carga no se cuenta dos veces.
+ */
+@Slf4j
+@Service
+public class ParkingHeavyHitterService {
+
+    public enum Dimension {
+        VEHICLE,
+        DRIVER
+    }
+
+    public enum Window {
+        DAY(1),
+        WEEK(7),
+        MONTH(30);
+
+        private final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+    }
+
+    private static final int DAYS_KEPT = 30;
+    private static final int SEED_PAGE_SIZE = 500;
+    private static final int MAX_TOP = 50;
+
+    private final ParkingEventRepository parkingEventRepository;
+    private final int capacity;
+
+    // Protegidos con el lock de la instancia; posición = día epoch % DAYS_KEPT
+    private final DayBucket[] days = new DayBucket[DAYS_KEPT];
+    // Mayor id de evento al arrancar; los eventos hasta él los cuenta seed()
+    private long seedCutoffId;
+
+    public ParkingHeavyHitterService(ParkingEventRepository parkingEventRepository,
+                                     @Value("${parking.heavy-hitters.capacity:64}") int capacity) {
+        this.parkingEventRepository = parkingEventRepository;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Se ejecuta antes de crear {@link ParkingEventPersister}, que depende de este servicio
+     */
+    @PostConstruct
+    public synchronized void captureSeedCutoff() {
+        try {
+            seedCutoffId = parkingEventRepository.findMaxId().orElse(0L);
+        } catch (Exception e) {
+            // Sin corte la carga inicial no cuenta nada y solo se cuentan los eventos nuevos
+            log.error("Error consultando el último evento de estacionamiento: {}", e.getMessage(), e);
+            seedCutoffId = 0L;
+        }
+    }
+
+    /**
+     * Registra el inicio de un estacionamiento recién guardado
+     */
+    public synchronized void record(Long eventId, String vehicleId, Long driverId, LocalDateTime startedAt) {
+        if (eventId != null && eventId <= seedCutoffId) {
+            // Ya lo cuenta la carga inicial
+            return;
+        }
+        offer(vehicleId, driverId, startedAt);
+    }
+
+    private synchronized void offer(String vehicleId, Long driverId, LocalDateTime startedAt) {
+        if (startedAt == null) {
+            return;
+        }
+        DayBucket bucket = bucketFor(startedAt.toLocalDate());
+        if (bucket == null) {
+            return;
+        }
+        if (vehicleId != null) {
+            bucket.vehicles.offer(vehicleId);
+        }
+        if (driverId != null) {
+            bucket.drivers.offer(String.valueOf(driverId));
+        }
+    }
+
+    /**
+     * Los k elementos más frecuentes de la ventana, del mayor al menor conteo
+     */
+    public List<ParkingTopEntryDto> top(Dimension dimension, Window window, int k) {
+        if (k < 1 || k > MAX_TOP) {
+            throw new ValidationException("La cantidad debe estar entre 1 y " + MAX_TOP);
+        }
+        // Por elemento: conteo, error y suma de los mínimos de los sketches llenos donde aparece
+        Map<String, long[]> merged = new HashMap<>();
+        long minTotal = 0;
+        synchronized (this) {
+            LocalDate today = LocalDate.now();
+            for (int offset = 0; offset < window.days; offset++) {
+                LocalDate day = today.minusDays(offset);
+                DayBucket bucket = days[slot(day)];
+                if (bucket == null || !bucket.day.equals(day)) {
+                    continue;
+                }
+                SpaceSavingSketch sketch = dimension == Dimension.VEHICLE ? bucket.vehicles : bucket.drivers;
+                long minCount = sketch.minCount();
+                minTotal += minCount;
+                sketch.forEach((key, count, error) -> {
+                    long[] totals = merged.computeIfAbsent(key, ignored -> new long[3]);
+                    totals[0] += count;
+                    totals[1] += error;
+                    totals[2] += minCount;
+                });
+            }
+        }
+
+        // Un día lleno donde el elemento no aparece pudo ocultar hasta su conteo mínimo:
+        // se suma al conteo y al error para que sigan siendo cotas reales
+        long missingBound = minTotal;
+        List<ParkingTopEntryDto> entries = new ArrayList<>(merged.size());
+        merged.forEach((key, totals) -> entries.add(ParkingTopEntryDto.builder()
+                .key(key)
+                .count(totals[0] + missingBound - totals[2])
+                .maxError(totals[1] + missingBound - totals[2])
+                .build()));
+        entries.sort(Comparator.comparingLong(ParkingTopEntryDto::getCount).reversed()
+                .thenComparing(ParkingTopEntryDto::getKey));
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, k)) : entries;
+    }
+
+    public Optional<String> mostFrequent(Dimension dimension, Window window) {
+        return top(dimension, window, 1).stream()
+                .findFirst()
+                .map(ParkingTopEntryDto::getKey);
+    }
+
+    /**
+     * Acepta "vehicle"/"driver" y "day"/"week"/"month" sin importar mayúsculas
+     */
+    public static Dimension parseDimension(String value) {
+        try {
+            return Dimension.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Dimensión inválida: " + value + " (vehicle o driver)");
+        }
+    }
+
+    public static Window parseWindow(String value) {
+        try {
+            return Window.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Ventana inválida: " + value + " (day, week o month)");
+        }
+    }
+
+    /**
+     * Carga los eventos de los últimos 30 días al arrancar, recorriéndolos por páginas.
+     * Los guardados después de {@link #captureSeedCutoff} ya los registró record().
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        LocalDateTime from = LocalDate.now().minusDays(DAYS_KEPT - 1L).atStartOfDay();
+        LocalDateTime to = LocalDateTime.now();
+        ParkingEventCursor cursor = ParkingEventCursor.FIRST;
+        int loaded = 0;
+        try {
+            while (true) {
+                List<ParkingEventDomain> page = parkingEventRepository.findPageStartedBetween(
+                        from, to, cursor, SEED_PAGE_SIZE);
+                for (ParkingEventDomain event : page) {
+                    if (event.getId() != null && event.getId() <= seedCutoffId) {
+                        offer(event.getVehicleId(), event.getDriverId(), event.getStartedAt());
+                    }
+                }
+                loaded += page.size();
+                if (page.size() < SEED_PAGE_SIZE) {
+                    break;
+                }
+                ParkingEventDomain last = page.get(page.size() - 1);
+                cursor = new ParkingEventCursor(last.getStartedAt(), last.getId());
+            }
+            log.info("🅿️ Frecuencias de estacionamiento cargadas con {} eventos", loaded);
+        } catch (Exception e) {
+            log.error("Error cargando frecuencias de estacionamiento: {}", e.getMessage(), e);
+        }
+    }
+
+    // Cubeta del día, reciclando la del día que salió de la ventana; null si el día ya no se guarda
+    private DayBucket bucketFor(LocalDate day) {
+        LocalDate today = LocalDate.now();
+        if (day.isBefore(today.minusDays(DAYS_KEPT - 1L)) || day.isAfter(today)) {
+            return null;
+        }
+        int slot = slot(day);
+        DayBucket bucket = days[slot];
+        if (bucket == null) {
+            bucket = new DayBucket(day, capacity);
+            days[slot] = bucket;
+        } else if (!bucket.day.equals(day)) {
+            bucket.reset(day);
+        }
+        return bucket;
+    }
+
+    private static int slot(LocalDate day) {
+        return Math.floorMod(day.toEpochDay(), DAYS_KEPT);
+    }
+
+    private static final class DayBucket {
+        private LocalDate day;
+        private final SpaceSavingSketch vehicles;
+        private final SpaceSavingSketch drivers;
+
+        private DayBucket(LocalDate day, int capacity) {
+            this.day = day;
+            this.vehicles = new SpaceSavingSketch(capacity);
+            this.drivers = new SpaceSavingSketch(capacity);
+        }
+
+        private void reset(LocalDate newDay) {
+            day = newDay;
+            vehicles.clear();
+            drivers.clear();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.monitoring.application.service.live.FleetSummaryService;
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.parking.domain.detection.ParkingStateStore;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.event.ParkingDomainEvent;
+import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.infrastructure.persistence.ParkingStateCheckpointFile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guarda periódicamente el estado de detección en disco y lo restaura al arrancar,
+ * para que los vehículos detenidos no pierdan el tiempo acumulado con un reinicio.
+ *
+ * Los estacionamientos abiertos se toman de la base de datos, que manda sobre el
+ * checkpoint: cada evento activo vuelve a asociarse a su vehículo y se cierra
+ * normalmente cuando este se mueve (o por inactividad). Si un vehículo quedó con
+ * varios abiertos, se retoma el más reciente y los anteriores se cierran.
+ */
+@Slf4j
+@Service
+public class ParkingStateCheckpointService {
+
+    private static final double SCALE = 1_000_000d;
+
+    private final ParkingStateStore parkingStateStore;
+    private final ParkingStateCheckpointFile checkpointFile;
+    private final ParkingEventRepository parkingEventRepository;
+    private final ParkingEventPersister parkingEventPersister;
+    private final VehicleIndexRegistry vehicleIndexRegistry;
+    private final IdleTimerWheel idleTimerWheel;
+    private final FleetSummaryService fleetSummaryService;
+    private final boolean enabled;
+    private final long maxAgeMillis;
+
+    private volatile boolean restored;
+
+    public ParkingStateCheckpointService(ParkingStateStore parkingStateStore,
+                                         ParkingStateCheckpointFile checkpointFile,
+                                         ParkingEventRepository parkingEventRepository,
+                                         ParkingEventPersister parkingEventPersister,
+                                         VehicleIndexRegistry vehicleIndexRegistry,
+                                         IdleTimerWheel idleTimerWheel,
+                                         FleetSummaryService fleetSummaryService,
+                                         @Value("${parking.checkpoint.enabled:true}") boolean enabled,
+                                         @Value("${parking.checkpoint.max-age-seconds:1800}") long maxAgeSeconds) {
+        this.parkingStateStore = parkingStateStore;
+        this.checkpointFile = checkpointFile;
+        this.parkingEventRepository = parkingEventRepository;
+        this.parkingEventPersister = parkingEventPersister;
+        this.vehicleIndexRegistry = vehicleIndexRegistry;
+        this.idleTimerWheel = idleTimerWheel;
+        this.fleetSummaryService = fleetSummaryService;
+        this.enabled = enabled;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) {
+            restored = true;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int fromCheckpoint = 0;
+        int openEvents = 0;
+        // Un checkpoint dañado no debe impedir que se reasocien los eventos abiertos de la base de datos
+        try {
+            ParkingStateCheckpointFile.Checkpoint checkpoint = checkpointFile.read();
+            if (checkpoint != null && now - checkpoint.getCreatedAt() <= maxAgeMillis) {
+                for (ParkingStateCheckpointFile.Entry entry : checkpoint.getEntries()) {
+                    if (restoreEntry(entry, now)) {
+                        fromCheckpoint++;
+                    }
+                }
+            } else if (checkpoint != null) {
+                log.info("🅿️ Checkpoint de estacionamiento descartado por antiguo");
+            }
+        } catch (Exception e) {
+            log.error("Error restaurando el checkpoint de estacionamiento: {}", e.getMessage(), e);
+        }
+
+        try {
+            int staleEvents = 0;
+            for (List<ParkingEventDomain> events : openEventsByVehicle().values()) {
+                ParkingEventDomain latest = events.get(events.size() - 1);
+                if (restoreOpenEvent(latest, now)) {
+                    openEvents++;
+                }
+                for (int i = 0; i < events.size() - 1; i++) {
+                    closeStaleEvent(events.get(i), events.get(i + 1).getStartedAt());
+                    staleEvents++;
+                }
+            }
+            log.info("🅿️ Estado de estacionamiento restaurado: {} vehículos del checkpoint, {} eventos abiertos, {} cerrados por duplicados",
+                    fromCheckpoint, openEvents, staleEvents);
+        } catch (Exception e) {
+            log.error("Error restaurando los estacionamientos abiertos: {}", e.getMessage(), e);
+        } finally {
+            restored = true;
+        }
+    }
+
+    /**
+     * Sincronizado: el tick programado y el apagado pueden coincidir y escriben el mismo archivo temporal
+     */
+    @Scheduled(fixedDelayString = "${parking.checkpoint.interval-ms:30000}")
+    public synchronized void checkpoint() {
+        // Antes de restaurar, un checkpoint vacío pisaría el del arranque anterior
+        if (!enabled || !restored) {
+            return;
+        }
+        List<ParkingStateCheckpointFile.Entry> entries = new ArrayList<>();
+        parkingStateStore.forEach((state, vehicleIndex) -> {
+            if (state.hasLocation()) {
+                entries.add(new ParkingStateCheckpointFile.Entry(
+                        vehicleIndexRegistry.vehicleIdAt(vehicleIndex),
+                        state.getLatitudeE6(),
+                        state.getLongitudeE6(),
+                        state.getLastTimestamp(),
+                        state.getAccumulatedParkedMillis()));
+            }
+        });
+        try {
+            checkpointFile.write(entries);
+            log.debug("🅿️ Checkpoint de estacionamiento guardado ({} vehículos)", entries.size());
+        } catch (Exception e) {
+            log.error("Error guardando el checkpoint de estacionamiento: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    // Solo completa vehículos que aún no tienen ubicación desde el arranque
+    private boolean restoreEntry(ParkingStateCheckpointFile.Entry entry, long now) {
+        int vehicleIndex = vehicleIndexRegistry.intern(entry.getVehicleId());
+        boolean applied = parkingStateStore.withState(vehicleIndex, state -> {
+            if (state.hasLocation()) {
+                return false;
+            }
+            state.setLatitudeE6(entry.getLatitudeE6());
+            state.setLongitudeE6(entry.getLongitudeE6());
+            state.setLastTimestamp(entry.getLastTimestamp());
+            state.setAccumulatedParkedMillis(entry.getAccumulatedParkedMillis());
+            return true;
+        });
+        if (applied) {
+            idleTimerWheel.touch(vehicleIndex, now);
+        }
+        return applied;
+    }
+
+    private boolean restoreOpenEvent(ParkingEventDomain event, long now) {
+        int vehicleIndex = vehicleIndexRegistry.intern(event.getVehicleId());
+        boolean applied = parkingStateStore.withState(vehicleIndex, state -> {
+            if (state.isEventOpen()) {
+                return false;
+            }
+            if (!state.hasLocation() && event.getFinalLocationLat() != null && event.getFinalLocationLng() != null) {
+                state.setLatitudeE6((int) Math.round(event.getFinalLocationLat().doubleValue() * SCALE));
+                state.setLongitudeE6((int) Math.round(event.getFinalLocationLng().doubleValue() * SCALE));
+                state.setLastTimestamp(event.getStartedAt().atZone(ParkingDetectionService.ZONE).toInstant().toEpochMilli());
+            }
+            state.setEventOpen(true);
+            state.setActiveEventKey(parkingEventPersister.registerPersisted(event.getId()));
+            return true;
+        });
+        if (applied) {
+            idleTimerWheel.touch(vehicleIndex, now);
+            // El detector no vuelve a emitir el inicio de un evento restaurado
+            fleetSummaryService.onParkingChanged(event.getVehicleId(), true);
+        }
+        return applied;
+    }
+
+    // Un evento abierto que no es el último del vehículo terminó, a más tardar, cuando empezó el siguiente
+    private void closeStaleEvent(ParkingEventDomain event, LocalDateTime endedAt) {
+        log.info("🅿️ Cerrando estacionamiento abierto duplicado {} del vehículo {}", event.getId(), event.getVehicleId());
+        parkingEventPersister.publish(new ParkingDomainEvent(
+                ParkingDomainEvent.Type.ENDED,
+                parkingEventPersister.registerPersisted(event.getId()),
+                event.getVehicleId(),
+                event.getRouteId(),
+                endedAt,
+                event.getFinalLocationLat(),
+                event.getFinalLocationLng(),
+                null));
+    }
+
+    // Eventos abiertos de cada vehículo, del más antiguo al más reciente
+    private Map<String, List<ParkingEventDomain>> openEventsByVehicle() {
+        Map<String, List<ParkingEventDomain>> byVehicle = new HashMap<>();
+        for (ParkingEventDomain event : parkingEventRepository.findActiveEvents()) {
+            if (event.getVehicleId() == null || event.getStartedAt() == null) {
+                continue;
+            }
+            byVehicle.computeIfAbsent(event.getVehicleId(), key -> new ArrayList<>()).add(event);
+        }
+        byVehicle.values().forEach(events -> events.sort(Comparator.comparing(ParkingEventDomain::getStartedAt)));
+        return byVehicle;
+    }
+}
@@ -0,0 +1,78 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.domain.repository.ParkingZoneRepository;
+import com.sena.urbantracker.parking.domain.zone.ParkingZoneIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Índice en memoria de las zonas de estacionamiento (terminales, patios y geocercas).
+ *
+ * Los lectores usan siempre una instancia compilada e inmutable de
+ * {@link ParkingZoneIndex}; al recargar se compila una nueva y se reemplaza la
+ * referencia, sin bloquear la detección. ParkingZoneService recarga el índice
+ * cada vez que cambia una zona y la recarga periódica recoge los cambios hechos
+ * desde otras instancias.
+ */
+@Slf4j
+@Component
+public class ParkingZoneIndexService {
+
+    private final ParkingZoneRepository parkingZoneRepository;
+    private final double cellDegrees;
+
+    private volatile ParkingZoneIndex index = ParkingZoneIndex.EMPTY;
+
+    public ParkingZoneIndexService(ParkingZoneRepository parkingZoneRepository,
+                                   @Value("${parking.zones.cell-degrees:0.01}") double cellDegrees) {
+        this.parkingZoneRepository = parkingZoneRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${parking.zones.reload-interval-ms:300000}",
+            initialDelayString = "${parking.zones.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Compila las zonas activas y reemplaza el índice vigente
+     */
+    public synchronized void reload() {
+        try {
+            ParkingZoneIndex compiled = ParkingZoneIndex.compile(parkingZoneRepository.findActiveZones(), cellDegrees);
+            if (compiled.size() != index.size()) {
+                log.info("🗺️ Índice de zonas de estacionamiento recargado: {} zonas", compiled.size());
+            }
+            index = compiled;
+        } catch (Exception e) {
+            // Se conserva el índice anterior
+            log.warn("No se pudo recargar el índice de zonas de estacionamiento: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Zona de la compañía que contiene el punto, prefiriendo las exentas; null si no hay
+     */
+    public ParkingZoneIndex.Zone match(Long companyId, double latitude, double longitude) {
+        return index.match(companyId, latitude, longitude);
+    }
+
+    /**
+     * Todas las zonas de la compañía que contienen el punto
+     */
+    public List<ParkingZoneIndex.Zone> find(Long companyId, double latitude, double longitude) {
+        return index.find(companyId, latitude, longitude);
+    }
+}
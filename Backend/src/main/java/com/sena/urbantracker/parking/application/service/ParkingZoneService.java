@@ -0,0 +1,128 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.application.dto.request.ParkingZoneReqDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingZoneResDto;
+import com.sena.urbantracker.parking.application.mapper.ParkingZoneMapper;
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingZoneRepository;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import com.sena.urbantracker.parking.domain.zone.ParkingZoneIndex;
+import com.sena.urbantracker.shared.infrastructure.exception.EntityNotFoundException;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ParkingZoneService {
+
+    private static final int MIN_VERTICES = 3;
+    private static final int MAX_VERTICES = 500;
+
+    private final ParkingZoneRepository parkingZoneRepository;
+    private final ParkingZoneIndexService parkingZoneIndexService;
+
+    public List<ParkingZoneResDto> findAll(Long companyId) {
+        List<ParkingZoneDomain> zones = companyId != null
+                ? parkingZoneRepository.findByCompanyId(companyId)
+                : parkingZoneRepository.findAll();
+        return zones.stream()
+                .map(ParkingZoneMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<ParkingZoneResDto> findById(Long id) {
+        return parkingZoneRepository.findById(id)
+                .map(ParkingZoneMapper::toDto);
+    }
+
+    public ParkingZoneResDto create(ParkingZoneReqDto request) {
+        validate(request);
+        ParkingZoneDomain saved = parkingZoneRepository.save(ParkingZoneMapper.toEntity(request));
+        parkingZoneIndexService.reload();
+        return ParkingZoneMapper.toDto(saved);
+    }
+
+    public ParkingZoneResDto update(Long id, ParkingZoneReqDto request) {
+        ParkingZoneDomain existing = parkingZoneRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Zona de estacionamiento con id " + id + " no encontrada"));
+        validate(request);
+
+        existing.setCompanyId(request.getCompanyId());
+        existing.setName(request.getName());
+        existing.setType(request.getType());
+        existing.setExemptFromParking(request.getExemptFromParking() != null ? request.getExemptFromParking() : true);
+        existing.setVertices(request.getVertices());
+        existing.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+
+        ParkingZoneDomain updated = parkingZoneRepository.save(existing);
+        parkingZoneIndexService.reload();
+        return ParkingZoneMapper.toDto(updated);
+    }
+
+    public void delete(Long id) {
+        parkingZoneRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Zona de estacionamiento con id " + id + " no encontrada"));
+        parkingZoneRepository.deleteById(id);
+        parkingZoneIndexService.reload();
+    }
+
+    /**
+     * Zonas activas de la compañía que contienen el punto
+     */
+    public List<ParkingZoneResDto> findZonesAt(Long companyId, double latitude, double longitude) {
+        if (companyId == null) {
+            throw new ValidationException("El ID de la compañía es obligatorio");
+        }
+        checkCoordinates(latitude, longitude);
+        List<Long> ids = parkingZoneIndexService.find(companyId, latitude, longitude).stream()
+                .map(ParkingZoneIndex.Zone::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Una sola consulta para todas las zonas, en el orden del índice
+        Map<Long, ParkingZoneDomain> byId = parkingZoneRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ParkingZoneDomain::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(ParkingZoneMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    private static void validate(ParkingZoneReqDto request) {
+        if (request.getCompanyId() == null) {
+            throw new ValidationException("El ID de la compañía es obligatorio");
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new ValidationException("El nombre de la zona es obligatorio");
+        }
+        if (request.getType() == null) {
+            throw new ValidationException("El tipo de zona es obligatorio");
+        }
+        List<ZoneVertex> vertices = request.getVertices();
+        if (vertices == null || vertices.size() < MIN_VERTICES || vertices.size() > MAX_VERTICES) {
+            throw new ValidationException("La zona debe tener entre " + MIN_VERTICES + " y " + MAX_VERTICES + " vértices");
+        }
+        for (ZoneVertex vertex : vertices) {
+            if (vertex == null || vertex.getLatitude() == null || vertex.getLongitude() == null) {
+                throw new ValidationException("Todos los vértices deben tener latitud y longitud");
+            }
+            checkCoordinates(vertex.getLatitude(), vertex.getLongitude());
+        }
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ValidationException("Coordenadas fuera de rango: " + latitude + ", " + longitude);
+        }
+    }
+}
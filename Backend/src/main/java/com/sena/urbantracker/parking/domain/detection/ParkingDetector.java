@@ -0,0 +1,90 @@
+package com.sena.urbantracker.parking.domain.detection;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingConfigDomain;
+import com.sena.urbantracker.shared.infrastructure.util.GeoMath;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Máquina de estados de la detección de estacionamiento. No tiene dependencias:
+ * recibe el estado del vehículo, la nueva ubicación y los umbrales, modifica el
+ * estado y dice si empezó o terminó un estacionamiento. Al abrir un evento le
+ * asigna una clave local tomada de eventKeys; el id en base de datos llega después.
+ * La velocidad reportada por el dispositivo (NaN si no hay) se prefiere sobre la
+ * derivada de dos ubicaciones, que es ruidosa y falla cuando hay huecos.
+ */
+public final class ParkingDetector {
+
+    public enum Transition {
+        NONE,
+        PARKING_STARTED,
+        PARKING_ENDED
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+        private final Transition transition;
+        private final long eventKey; // clave local del evento que se abre o se cierra
+    }
+
+    public static final Step NO_CHANGE = new Step(Transition.NONE, 0L);
+
+    private static final double SCALE = 1_000_000d;
+
+    private ParkingDetector() {
+    }
+
+    public static Step step(ParkingState state, double latitude, double longitude, double reportedSpeedKmh,
+                            long timestamp, ParkingConfigDomain config, LongSupplier eventKeys) {
+        int latitudeE6 = (int) Math.round(latitude * SCALE);
+        int longitudeE6 = (int) Math.round(longitude * SCALE);
+
+        // Primera ubicación del vehículo
+        if (!state.hasLocation()) {
+            moveTo(state, latitudeE6, longitudeE6, timestamp);
+            return NO_CHANGE;
+        }
+        // Ubicación atrasada: no cambia nada
+        if (timestamp < state.getLastTimestamp()) {
+            return NO_CHANGE;
+        }
+
+        double distanceMeters = GeoMath.distanceMeters(
+                state.getLatitudeE6() / SCALE, state.getLongitudeE6() / SCALE, latitude, longitude);
+        long elapsedMillis = timestamp - state.getLastTimestamp();
+        double speedKmh = !Double.isNaN(reportedSpeedKmh) ? reportedSpeedKmh
+                : elapsedMillis > 0 ? distanceMeters / 1000.0 / (elapsedMillis / 3_600_000.0) : 0.0;
+        moveTo(state, latitudeE6, longitudeE6, timestamp);
+
+        boolean parked = distanceMeters <= config.getMaxDistanceMeters() && speedKmh <= config.getMaxSpeedKmh();
+        if (parked) {
+            state.setAccumulatedParkedMillis(state.getAccumulatedParkedMillis() + elapsedMillis);
+            if (!state.isEventOpen() && state.getAccumulatedParkedMillis() >= config.getMinTimeMinutes() * 60_000L) {
+                long eventKey = eventKeys.getAsLong();
+                state.setEventOpen(true);
+                state.setActiveEventKey(eventKey);
+                return new Step(Transition.PARKING_STARTED, eventKey);
+            }
+            return NO_CHANGE;
+        }
+
+        // El vehículo se movió: se reinicia el acumulado y se cierra el evento si había uno
+        state.setAccumulatedParkedMillis(0L);
+        if (state.isEventOpen()) {
+            long eventKey = state.getActiveEventKey();
+            state.setEventOpen(false);
+            state.setActiveEventKey(0L);
+            return new Step(Transition.PARKING_ENDED, eventKey);
+        }
+        return NO_CHANGE;
+    }
+
+    private static void moveTo(ParkingState state, int latitudeE6, int longitudeE6, long timestamp) {
+        state.setLatitudeE6(latitudeE6);
+        state.setLongitudeE6(longitudeE6);
+        state.setLastTimestamp(timestamp);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sena.urbantracker.parking.domain.detection;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Estado de detección de estacionamiento de un vehículo, solo con campos primitivos.
+ * Coordenadas en millonésimas de grado, tiempos en epoch millis.
+ * Solo se lee o modifica con el lock de {@link ParkingStateStore}.
+ */
+@Getter
+@Setter
+public class ParkingState {
+    private int latitudeE6;
+    private int longitudeE6;
+    private long lastTimestamp; // 0 si aún no tiene ubicación
+    private long accumulatedParkedMillis;
+    private boolean eventOpen;
+    private long activeEventKey; // clave local del evento abierto (ver ParkingEventPersister), 0 si no hay
+
+    public boolean hasLocation() {
+        return lastTimestamp != 0;
+    }
+
+    void reset() {
+        latitudeE6 = 0;
+        longitudeE6 = 0;
+        lastTimestamp = 0;
+        accumulatedParkedMillis = 0;
+        eventOpen = false;
+        activeEventKey = 0;
+    }
+}
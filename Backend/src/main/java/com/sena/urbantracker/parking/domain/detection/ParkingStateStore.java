@@ -0,0 +1,134 @@
+package com.sena.urbantracker.parking.domain.detection;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Estado de estacionamiento de toda la flota indexado por el índice interno del
+ * vehículo (VehicleIndexRegistry). Los estados se guardan en bloques que no se
+ * mueven y cada vehículo se protege con uno de STRIPES locks, así vehículos
+ * distintos se procesan en paralelo sin bloquearse.
+ */
+@Component
+public class ParkingStateStore {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int STRIPES = 64;
+
+    private final Object[] locks = new Object[STRIPES];
+    private volatile ParkingState[][] chunks = new ParkingState[16][];
+
+    public ParkingStateStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Ejecuta la acción sobre el estado del vehículo con su lock tomado.
+     * El estado no debe guardarse fuera de la acción.
+     */
+    public <T> T withState(int vehicleIndex, Function<ParkingState, T> action) {
+        ParkingState[] chunk = chunkFor(vehicleIndex);
+        int slot = vehicleIndex & CHUNK_MASK;
+        synchronized (locks[vehicleIndex & (STRIPES - 1)]) {
+            ParkingState state = chunk[slot];
+            if (state == null) {
+                state = new ParkingState();
+                chunk[slot] = state;
+            }
+            return action.apply(state);
+        }
+    }
+
+    /**
+     * Libera el estado del vehículo. Si existía, antes ejecuta la acción sobre él
+     * con el lock tomado y retorna su resultado; si no, retorna null.
+     */
+    public <T> T remove(int vehicleIndex, Function<ParkingState, T> lastAction) {
+        ParkingState[][] current = chunks;
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        if (vehicleIndex < 0 || chunkIndex >= current.length || current[chunkIndex] == null) {
+            return null;
+        }
+        ParkingState[] chunk = current[chunkIndex];
+        int slot = vehicleIndex & CHUNK_MASK;
+        synchronized (locks[vehicleIndex & (STRIPES - 1)]) {
+            ParkingState state = chunk[slot];
+            if (state == null) {
+                return null;
+            }
+            chunk[slot] = null;
+            return lastAction.apply(state);
+        }
+    }
+
+    /**
+     * Recorre los estados existentes; la acción recibe cada estado con su lock tomado
+     * junto con el índice del vehículo, y no debe guardarlo.
+     */
+    public void forEach(ObjIntConsumer<ParkingState> action) {
+        ParkingState[][] current = chunks;
+        for (int chunkIndex = 0; chunkIndex < current.length; chunkIndex++) {
+            ParkingState[] chunk = current[chunkIndex];
+            if (chunk == null) {
+                continue;
+            }
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                int vehicleIndex = (chunkIndex << CHUNK_BITS) | slot;
+                synchronized (locks[vehicleIndex & (STRIPES - 1)]) {
+                    if (chunk[slot] != null) {
+                        action.accept(chunk[slot], vehicleIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Olvida el estado de todos los vehículos. Antes de reiniciar cada estado ejecuta
+     * la acción sobre él con su lock tomado, igual que {@link #forEach}.
+     */
+    public void clear(ObjIntConsumer<ParkingState> lastAction) {
+        ParkingState[][] current = chunks;
+        for (int chunkIndex = 0; chunkIndex < current.length; chunkIndex++) {
+            ParkingState[] chunk = current[chunkIndex];
+            if (chunk == null) {
+                continue;
+            }
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                int vehicleIndex = (chunkIndex << CHUNK_BITS) | slot;
+                synchronized (locks[vehicleIndex & (STRIPES - 1)]) {
+                    if (chunk[slot] != null) {
+                        lastAction.accept(chunk[slot], vehicleIndex);
+                        chunk[slot].reset();
+                    }
+                }
+            }
+        }
+    }
+
+    private ParkingState[] chunkFor(int vehicleIndex) {
+        int chunkIndex = vehicleIndex >>> CHUNK_BITS;
+        ParkingState[][] current = chunks;
+        if (chunkIndex < current.length && current[chunkIndex] != null) {
+            return current[chunkIndex];
+        }
+        synchronized (this) {
+            current = chunks;
+            if (chunkIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(chunkIndex + 1, current.length * 2));
+            }
+            if (current[chunkIndex] == null) {
+                current[chunkIndex] = new ParkingState[CHUNK_SIZE];
+            }
+            chunks = current;
+            return current[chunkIndex];
+        }
+    }
+}
@@ -20,5 +20,6 @@ public class ParkingEventDomain extends ABaseDomain {
     private Integer totalDurationMinutes;
     private BigDecimal finalLocationLat;
     private BigDecimal finalLocationLng;
+    private Long zoneId;
     private Boolean isActive;
 }
\ No newline at end of file
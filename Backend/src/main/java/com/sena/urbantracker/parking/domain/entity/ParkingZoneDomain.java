@@ -0,0 +1,22 @@
+package com.sena.urbantracker.parking.domain.entity;
+
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import com.sena.urbantracker.shared.application.dto.ABaseDomain;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class ParkingZoneDomain extends ABaseDomain {
+    private Long companyId;
+    private String name;
+    private ParkingZoneType type;
+    private Boolean exemptFromParking;
+    private List<ZoneVertex> vertices;
+    private Boolean isActive;
+}
@@ -0,0 +1,32 @@
+package com.sena.urbantracker.parking.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Inicio o fin de un estacionamiento detectado en memoria, pendiente de guardarse.
+ * eventKey identifica el evento localmente hasta que tiene id en base de datos.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ParkingDomainEvent {
+
+    public enum Type {
+        STARTED,
+        ENDED
+    }
+
+    private final Type type;
+    private final long eventKey;
+    private final String vehicleId;
+    private final Long routeId;
+    private final LocalDateTime occurredAt;
+    private final BigDecimal latitude;
+    private final BigDecimal longitude;
+    private final Long zoneId; // zona no exenta donde empezó, o null
+}
@@ -1,6 +1,8 @@
 package com.sena.urbantracker.parking.domain.repository;
 
 import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,11 +20,35 @@ public interface ParkingEventRepository {
 
     boolean existsById(Long id);
 
+    Optional<Long> findMaxId();
+
     Optional<ParkingEventDomain> findActiveEventByVehicleId(String vehicleId);
 
+    List<ParkingEventDomain> findActiveEvents();
+
     List<ParkingEventDomain> findByVehicleIdAndDateRange(String vehicleId, LocalDateTime startDate, LocalDateTime endDate);
 
     List<ParkingEventDomain> findByCompanyIdAndDateRange(Long companyId, LocalDateTime startDate, LocalDateTime endDate);
 
     List<ParkingEventDomain> findByDriverIdAndDateRange(Long driverId, LocalDateTime startDate, LocalDateTime endDate);
-}
\ No newline at end of file
+
+    ParkingEventTotals computeTotals(LocalDateTime todayStart, LocalDateTime tomorrowStart, LocalDateTime weekStart);
+
+    // Páginas ordenadas por started_at e id descendentes, a partir del cursor (sin incluirlo)
+
+    List<ParkingEventDomain> findPage(ParkingEventCursor cursor, int limit);
+
+    List<ParkingEventDomain> findActivePage(ParkingEventCursor cursor, int limit);
+
+    List<ParkingEventDomain> findPageByVehicleId(String vehicleId, LocalDateTime from, LocalDateTime to,
+                                                 ParkingEventCursor cursor, int limit);
+
+    List<ParkingEventDomain> findPageByDriverId(Long driverId, LocalDateTime from, LocalDateTime to,
+                                                ParkingEventCursor cursor, int limit);
+
+    List<ParkingEventDomain> findPageByCompanyId(Long companyId, LocalDateTime from, LocalDateTime to,
+                                                 ParkingEventCursor cursor, int limit);
+
+    List<ParkingEventDomain> findPageStartedBetween(LocalDateTime from, LocalDateTime to,
+                                                    ParkingEventCursor cursor, int limit);
+}
@@ -0,0 +1,24 @@
+package com.sena.urbantracker.parking.domain.repository;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ParkingZoneRepository {
+
+    ParkingZoneDomain save(ParkingZoneDomain domain);
+
+    Optional<ParkingZoneDomain> findById(Long id);
+
+    List<ParkingZoneDomain> findAllById(Collection<Long> ids);
+
+    List<ParkingZoneDomain> findAll();
+
+    List<ParkingZoneDomain> findByCompanyId(Long companyId);
+
+    List<ParkingZoneDomain> findActiveZones();
+
+    void deleteById(Long id);
+}
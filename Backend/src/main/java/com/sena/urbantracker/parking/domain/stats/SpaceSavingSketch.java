@@ -0,0 +1,156 @@
+package com.sena.urbantracker.parking.domain.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Elementos más frecuentes de un flujo con memoria fija (algoritmo Space-Saving).
+ *
+ * Guarda a lo sumo capacity contadores. Cuando llega un elemento nuevo y no hay
+ * espacio, reemplaza al de menor conteo y hereda ese conteo como error máximo.
+ * Los contadores se agrupan en cubetas de igual conteo enlazadas en orden
+ * ascendente, así cada actualización es O(1). No es thread-safe.
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * Recibe cada elemento con su conteo estimado y el error máximo de ese conteo
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(String key, long count, long error);
+    }
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private Bucket minBucket;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String key) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter();
+            } else {
+                // Se reemplaza el elemento con menor conteo
+                counter = minBucket.head;
+                counters.remove(counter.key);
+                counter.error = counter.count;
+            }
+            counter.key = key;
+            counters.put(key, counter);
+        }
+        increment(counter);
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (Counter counter : counters.values()) {
+            consumer.accept(counter.key, counter.count, counter.error);
+        }
+    }
+
+    /**
+     * Conteo mínimo cuando el sketch está lleno: cualquier elemento que no aparece pudo
+     * tener hasta ese conteo. Si aún hay espacio, todo elemento visto está y retorna 0.
+     */
+    public long minCount() {
+        return counters.size() < capacity || minBucket == null ? 0 : minBucket.count;
+    }
+
+    public void clear() {
+        counters.clear();
+        minBucket = null;
+    }
+
+    private void increment(Counter counter) {
+        Bucket current = counter.bucket;
+        long target = counter.count + 1;
+        Bucket next = current != null ? current.next : minBucket;
+
+        Bucket destination;
+        if (next != null && next.count == target) {
+            destination = next;
+        } else {
+            // Nueva cubeta entre la actual y la siguiente
+            destination = new Bucket(target);
+            destination.prev = current;
+            destination.next = next;
+            if (next != null) {
+                next.prev = destination;
+            }
+            if (current != null) {
+                current.next = destination;
+            } else {
+                minBucket = destination;
+            }
+        }
+
+        if (current != null) {
+            current.detach(counter);
+            if (current.head == null) {
+                unlink(current);
+            }
+        }
+        counter.count = target;
+        destination.attach(counter);
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            minBucket = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    private static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+    }
+
+    private static final class Bucket {
+        private final long count;
+        private Counter head;
+        private Bucket prev;
+        private Bucket next;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void attach(Counter counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = head;
+            if (head != null) {
+                head.prev = counter;
+            }
+            head = counter;
+        }
+
+        private void detach(Counter counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                head = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.bucket = null;
+            counter.prev = null;
+            counter.next = null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.sena.urbantracker.parking.domain.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Posición de paginación por llave (keyset) sobre eventos ordenados por
+ * started_at e id descendentes: la página siguiente empieza después de este evento.
+ */
+@Getter
+@AllArgsConstructor
+public class ParkingEventCursor {
+
+    // Límites que PostgreSQL acepta para timestamp, usados cuando no hay filtro o cursor
+    public static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    public static final ParkingEventCursor FIRST = new ParkingEventCursor(MAX_TIME, Long.MAX_VALUE);
+
+    private final LocalDateTime startedAt;
+    private final Long id;
+}
@@ -0,0 +1,29 @@
+package com.sena.urbantracker.parking.domain.valueobject;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totales de eventos de estacionamiento calculados en una sola consulta agregada
+ */
+@Getter
+public class ParkingEventTotals {
+    private final long totalEvents;
+    private final long activeEvents;
+    private final long eventsToday;
+    private final long eventsThisWeek;
+    private final double averageDurationMinutes;
+    private final LocalDateTime lastEventTime;
+
+    // Las sumas y el promedio llegan null cuando la tabla está vacía
+    public ParkingEventTotals(Long totalEvents, Long activeEvents, Long eventsToday, Long eventsThisWeek,
+                              Double averageDurationMinutes, LocalDateTime lastEventTime) {
+        this.totalEvents = totalEvents != null ? totalEvents : 0L;
+        this.activeEvents = activeEvents != null ? activeEvents : 0L;
+        this.eventsToday = eventsToday != null ? eventsToday : 0L;
+        this.eventsThisWeek = eventsThisWeek != null ? eventsThisWeek : 0L;
+        this.averageDurationMinutes = averageDurationMinutes != null ? averageDurationMinutes : 0.0;
+        this.lastEventTime = lastEventTime;
+    }
+}
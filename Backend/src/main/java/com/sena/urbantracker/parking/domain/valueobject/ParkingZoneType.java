@@ -0,0 +1,7 @@
+package com.sena.urbantracker.parking.domain.valueobject;
+
+public enum ParkingZoneType {
+    TERMINAL,
+    DEPOT,
+    GEOFENCE
+}
@@ -0,0 +1,16 @@
+package com.sena.urbantracker.parking.domain.valueobject;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vértice del polígono de una zona, en grados decimales
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ZoneVertex {
+    private Double latitude;
+    private Double longitude;
+}
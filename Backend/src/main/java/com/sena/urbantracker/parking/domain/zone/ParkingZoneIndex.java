@@ -0,0 +1,211 @@
+package com.sena.urbantracker.parking.domain.zone;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Índice inmutable de las zonas activas, compilado una sola vez por cada cambio.
+ *
+ * Cada polígono se guarda como arreglos primitivos con su rectángulo envolvente y
+ * se registra en las celdas de una grilla de latitud/longitud que toca. Las celdas
+ * quedan en un arreglo ordenado de claves, así una consulta es una búsqueda binaria
+ * de la celda más el punto-en-polígono (ray casting) de los pocos candidatos.
+ * Las zonas que cubren demasiadas celdas se revisan siempre, sin grilla.
+ */
+public final class ParkingZoneIndex {
+
+    private static final int[] NO_ZONES = new int[0];
+
+    public static final ParkingZoneIndex EMPTY = new ParkingZoneIndex(1.0, new long[0], new int[0][], new Zone[0], NO_ZONES);
+
+    // Más celdas que esto y la zona pasa a la lista de zonas grandes
+    private static final int MAX_CELLS_PER_ZONE = 4096;
+
+    private final double cellDegrees;
+    private final long[] cellKeys;
+    private final int[][] cellZones;
+    private final Zone[] zones;
+    private final int[] largeZones;
+
+    private ParkingZoneIndex(double cellDegrees, long[] cellKeys, int[][] cellZones, Zone[] zones, int[] largeZones) {
+        this.cellDegrees = cellDegrees;
+        this.cellKeys = cellKeys;
+        this.cellZones = cellZones;
+        this.zones = zones;
+        this.largeZones = largeZones;
+    }
+
+    /**
+     * Compila las zonas activas con al menos tres vértices
+     */
+    public static ParkingZoneIndex compile(List<ParkingZoneDomain> domains, double cellDegrees) {
+        List<Zone> zones = new ArrayList<>();
+        for (ParkingZoneDomain domain : domains) {
+            if (Boolean.TRUE.equals(domain.getIsActive()) && domain.getVertices() != null
+                    && domain.getVertices().size() >= 3) {
+                zones.add(new Zone(domain));
+            }
+        }
+        if (zones.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Long, List<Integer>> cells = new HashMap<>();
+        List<Integer> large = new ArrayList<>();
+        for (int z = 0; z < zones.size(); z++) {
+            Zone zone = zones.get(z);
+            int minRow = cell(zone.minLatitude, cellDegrees);
+            int maxRow = cell(zone.maxLatitude, cellDegrees);
+            int minCol = cell(zone.minLongitude, cellDegrees);
+            int maxCol = cell(zone.maxLongitude, cellDegrees);
+            if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) > MAX_CELLS_PER_ZONE) {
+                large.add(z);
+                continue;
+            }
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    cells.computeIfAbsent(key(row, col), k -> new ArrayList<>()).add(z);
+                }
+            }
+        }
+
+        long[] keys = cells.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[][] cellZones = new int[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            cellZones[i] = cells.get(keys[i]).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new ParkingZoneIndex(cellDegrees, keys, cellZones, zones.toArray(new Zone[0]),
+                large.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Zona de la compañía que contiene el punto; si hay varias se prefiere una
+     * exenta de estacionamiento. Null si ninguna lo contiene.
+     */
+    public Zone match(Long companyId, double latitude, double longitude) {
+        Zone found = null;
+        int[] candidates = candidates(latitude, longitude);
+        for (int i = 0, n = candidates.length + largeZones.length; i < n; i++) {
+            Zone zone = zones[i < candidates.length ? candidates[i] : largeZones[i - candidates.length]];
+            if (zone.appliesTo(companyId) && zone.contains(latitude, longitude)) {
+                if (zone.exemptFromParking) {
+                    return zone;
+                }
+                if (found == null) {
+                    found = zone;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Todas las zonas de la compañía que contienen el punto
+     */
+    public List<Zone> find(Long companyId, double latitude, double longitude) {
+        List<Zone> result = new ArrayList<>();
+        int[] candidates = candidates(latitude, longitude);
+        for (int i = 0, n = candidates.length + largeZones.length; i < n; i++) {
+            Zone zone = zones[i < candidates.length ? candidates[i] : largeZones[i - candidates.length]];
+            if (zone.appliesTo(companyId) && zone.contains(latitude, longitude)) {
+                result.add(zone);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return zones.length;
+    }
+
+    private int[] candidates(double latitude, double longitude) {
+        int position = Arrays.binarySearch(cellKeys, key(cell(latitude, cellDegrees), cell(longitude, cellDegrees)));
+        return position >= 0 ? cellZones[position] : NO_ZONES;
+    }
+
+    private static int cell(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Polígono compilado de una zona
+     */
+    @Getter
+    public static final class Zone {
+        private final Long id;
+        private final Long companyId;
+        private final String name;
+        private final ParkingZoneType type;
+        private final boolean exemptFromParking;
+
+        @Getter(lombok.AccessLevel.NONE)
+        private final double[] latitudes;
+        @Getter(lombok.AccessLevel.NONE)
+        private final double[] longitudes;
+        @Getter(lombok.AccessLevel.NONE)
+        private final double minLatitude, maxLatitude, minLongitude, maxLongitude;
+
+        private Zone(ParkingZoneDomain domain) {
+            this.id = domain.getId();
+            this.companyId = domain.getCompanyId();
+            this.name = domain.getName();
+            this.type = domain.getType();
+            this.exemptFromParking = Boolean.TRUE.equals(domain.getExemptFromParking());
+
+            List<ZoneVertex> vertices = domain.getVertices();
+            int n = vertices.size();
+            this.latitudes = new double[n];
+            this.longitudes = new double[n];
+            double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+            double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                latitudes[i] = vertices.get(i).getLatitude();
+                longitudes[i] = vertices.get(i).getLongitude();
+                minLat = Math.min(minLat, latitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                minLon = Math.min(minLon, longitudes[i]);
+                maxLon = Math.max(maxLon, longitudes[i]);
+            }
+            this.minLatitude = minLat;
+            this.maxLatitude = maxLat;
+            this.minLongitude = minLon;
+            this.maxLongitude = maxLon;
+        }
+
+        private boolean appliesTo(Long vehicleCompanyId) {
+            return Objects.equals(companyId, vehicleCompanyId);
+        }
+
+        /**
+         * Punto dentro del polígono por ray casting; longitud como x y latitud como y
+         */
+        public boolean contains(double latitude, double longitude) {
+            if (latitude < minLatitude || latitude > maxLatitude
+                    || longitude < minLongitude || longitude > maxLongitude) {
+                return false;
+            }
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i])
+                        / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.sena.urbantracker.parking.infrastructure.controller;
 
-import com.sena.urbantracker.parking.application.dto.response.ParkingEventResDto;
+import com.sena.urbantracker.parking.application.dto.request.ParkingBacktestReqDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingBacktestResDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingEventPageResDto;
 import com.sena.urbantracker.parking.application.dto.response.ParkingStatsDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingTopEntryDto;
+import com.sena.urbantracker.parking.application.service.ParkingBacktestService;
 import com.sena.urbantracker.parking.application.service.ParkingConfigService;
 import com.sena.urbantracker.parking.application.service.ParkingEventService;
+import com.sena.urbantracker.parking.application.service.ParkingHeavyHitterService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -21,87 +26,78 @@ public class ParkingController {
 
     private final ParkingEventService parkingEventService;
     private final ParkingConfigService parkingConfigService;
+    private final ParkingBacktestService parkingBacktestService;
+    private final ParkingHeavyHitterService parkingHeavyHitterService;
 
     /**
-     * Obtiene todos los eventos de estacionamiento
+     * Obtiene todos los eventos de estacionamiento, del más reciente al más antiguo.
+     * Para la página siguiente se envía el nextCursor de la respuesta anterior.
      */
     @GetMapping("/events")
-    public ResponseEntity<List<ParkingEventResDto>> getAllParkingEvents() {
-        List<ParkingEventResDto> events = parkingEventService.findAll();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<ParkingEventPageResDto> getAllParkingEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(parkingEventService.findAll(cursor, limit));
     }
 
     /**
      * Obtiene eventos de estacionamiento activos (vehículos actualmente estacionados)
      */
     @GetMapping("/events/active")
-    public ResponseEntity<List<ParkingEventResDto>> getActiveParkingEvents() {
-        List<ParkingEventResDto> events = parkingEventService.findActiveEvents();
-        return ResponseEntity.ok(events);
+    public ResponseEntity<ParkingEventPageResDto> getActiveParkingEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(parkingEventService.findActiveEvents(cursor, limit));
     }
 
     /**
      * Obtiene eventos de estacionamiento por vehículo
      */
     @GetMapping("/events/vehicle/{vehicleId}")
-    public ResponseEntity<List<ParkingEventResDto>> getParkingEventsByVehicle(
+    public ResponseEntity<ParkingEventPageResDto> getParkingEventsByVehicle(
             @PathVariable String vehicleId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-
-        List<ParkingEventResDto> events;
-        if (startDate != null && endDate != null) {
-            events = parkingEventService.findByVehicleIdAndDateRange(vehicleId, startDate, endDate);
-        } else {
-            events = parkingEventService.findByVehicleId(vehicleId);
-        }
-        return ResponseEntity.ok(events);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(parkingEventService.findByVehicleId(vehicleId, startDate, endDate, cursor, limit));
     }
 
     /**
      * Obtiene eventos de estacionamiento por conductor
      */
     @GetMapping("/events/driver/{driverId}")
-    public ResponseEntity<List<ParkingEventResDto>> getParkingEventsByDriver(
+    public ResponseEntity<ParkingEventPageResDto> getParkingEventsByDriver(
             @PathVariable Long driverId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-
-        List<ParkingEventResDto> events;
-        if (startDate != null && endDate != null) {
-            events = parkingEventService.findByDriverIdAndDateRange(driverId, startDate, endDate);
-        } else {
-            events = parkingEventService.findByDriverId(driverId);
-        }
-        return ResponseEntity.ok(events);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(parkingEventService.findByDriverId(driverId, startDate, endDate, cursor, limit));
     }
 
     /**
      * Obtiene eventos de estacionamiento por compañía
      */
     @GetMapping("/events/company/{companyId}")
-    public ResponseEntity<List<ParkingEventResDto>> getParkingEventsByCompany(
+    public ResponseEntity<ParkingEventPageResDto> getParkingEventsByCompany(
             @PathVariable Long companyId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-
-        List<ParkingEventResDto> events;
-        if (startDate != null && endDate != null) {
-            events = parkingEventService.findByCompanyIdAndDateRange(companyId, startDate, endDate);
-        } else {
-            events = parkingEventService.findByCompanyId(companyId);
-        }
-        return ResponseEntity.ok(events);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(parkingEventService.findByCompanyId(companyId, startDate, endDate, cursor, limit));
     }
 
     /**
      * Obtiene eventos de estacionamiento recientes (últimas 24 horas)
      */
     @GetMapping("/events/recent")
-    public ResponseEntity<List<ParkingEventResDto>> getRecentParkingEvents() {
+    public ResponseEntity<ParkingEventPageResDto> getRecentParkingEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-        List<ParkingEventResDto> events = parkingEventService.findRecentEvents(yesterday);
-        return ResponseEntity.ok(events);
+        return ResponseEntity.ok(parkingEventService.findRecentEvents(yesterday, cursor, limit));
     }
 
     /**
@@ -112,4 +108,34 @@ public class ParkingController {
         ParkingStatsDto stats = parkingEventService.getParkingStats();
         return ResponseEntity.ok(stats);
     }
-}
\ No newline at end of file
+
+    /**
+     * Vehículos o conductores con más estacionamientos en el día, la semana o el mes
+     */
+    @GetMapping("/stats/top")
+    public ResponseEntity<List<ParkingTopEntryDto>> getTopParking(
+            @RequestParam(defaultValue = "vehicle") String dimension,
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(parkingHeavyHitterService.top(
+                ParkingHeavyHitterService.parseDimension(dimension),
+                ParkingHeavyHitterService.parseWindow(window),
+                limit));
+    }
+
+    /**
+     * Inicia un backtest de configuraciones candidatas sobre la telemetría guardada
+     */
+    @PostMapping("/backtest")
+    public ResponseEntity<ParkingBacktestResDto> startBacktest(@RequestBody ParkingBacktestReqDto request) {
+        return ResponseEntity.accepted().body(parkingBacktestService.start(request));
+    }
+
+    /**
+     * Progreso o resultado de un backtest
+     */
+    @GetMapping("/backtest/{id}")
+    public ResponseEntity<ParkingBacktestResDto> getBacktest(@PathVariable String id) {
+        return ResponseEntity.ok(parkingBacktestService.find(id));
+    }
+}
@@ -98,9 +98,8 @@ public class ParkingTestController {
     @PostMapping("/reset-tracking")
     public ResponseEntity<String> resetTracking() {
         try {
-            // Nota: En implementación real, necesitaríamos un método en el servicio
-            // para limpiar el estado de tracking. Por ahora retornamos OK.
-            return ResponseEntity.ok("Estado de tracking reseteado (simulado)");
+            parkingDetectionService.resetTracking();
+            return ResponseEntity.ok("Estado de tracking reseteado");
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                     .body("Error reseteando tracking: " + e.getMessage());
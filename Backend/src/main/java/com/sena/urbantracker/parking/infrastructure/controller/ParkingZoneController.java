@@ -0,0 +1,74 @@
+package com.sena.urbantracker.parking.infrastructure.controller;
+
+import com.sena.urbantracker.parking.application.dto.request.ParkingZoneReqDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingZoneResDto;
+import com.sena.urbantracker.parking.application.service.ParkingZoneService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/parking/zones")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class ParkingZoneController {
+
+    private final ParkingZoneService parkingZoneService;
+
+    /**
+     * Obtiene las zonas, opcionalmente de una compañía
+     */
+    @GetMapping
+    public ResponseEntity<List<ParkingZoneResDto>> getZones(@RequestParam(required = false) Long companyId) {
+        return ResponseEntity.ok(parkingZoneService.findAll(companyId));
+    }
+
+    /**
+     * Obtiene una zona por ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ParkingZoneResDto> getZoneById(@PathVariable Long id) {
+        Optional<ParkingZoneResDto> zone = parkingZoneService.findById(id);
+        return zone.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Zonas activas de la compañía que contienen el punto
+     */
+    @GetMapping("/match")
+    public ResponseEntity<List<ParkingZoneResDto>> getZonesAt(@RequestParam Long companyId,
+                                                              @RequestParam double lat,
+                                                              @RequestParam double lon) {
+        return ResponseEntity.ok(parkingZoneService.findZonesAt(companyId, lat, lon));
+    }
+
+    /**
+     * Crea una nueva zona
+     */
+    @PostMapping
+    public ResponseEntity<ParkingZoneResDto> createZone(@RequestBody ParkingZoneReqDto request) {
+        return ResponseEntity.ok(parkingZoneService.create(request));
+    }
+
+    /**
+     * Actualiza una zona existente
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ParkingZoneResDto> updateZone(@PathVariable Long id, @RequestBody ParkingZoneReqDto request) {
+        return ResponseEntity.ok(parkingZoneService.update(id, request));
+    }
+
+    /**
+     * Elimina una zona
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteZone(@PathVariable Long id) {
+        parkingZoneService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.sena.urbantracker.parking.infrastructure.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archivo binario con el estado de detección de estacionamiento de la flota.
+ *
+ * Formato: MAGIC (int), VERSION (int), fecha de creación (long epoch millis),
+ * cantidad (int) y por cada vehículo: id (UTF), latitud y longitud en millonésimas
+ * de grado (int), última ubicación (long) y tiempo acumulado detenido (long).
+ * Se escribe en un archivo temporal y se reemplaza de una vez, así nunca queda a medias.
+ */
+@Slf4j
+@Component
+public class ParkingStateCheckpointFile {
+
+    private static final int MAGIC = 0x504B5354; // "PKST"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    // Id vacío (solo su largo) más las coordenadas y los dos tiempos
+    private static final int MIN_ENTRY_BYTES = 2 + 4 + 4 + 8 + 8;
+
+    private final Path path;
+
+    public ParkingStateCheckpointFile(@Value("${parking.checkpoint.path:./data/parking-state.bin}") String path) {
+        this.path = Paths.get(path);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final String vehicleId;
+        private final int latitudeE6;
+        private final int longitudeE6;
+        private final long lastTimestamp;
+        private final long accumulatedParkedMillis;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Checkpoint {
+        private final long createdAt;
+        private final List<Entry> entries;
+    }
+
+    public void write(List<Entry> entries) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeUTF(entry.getVehicleId());
+                out.writeInt(entry.getLatitudeE6());
+                out.writeInt(entry.getLongitudeE6());
+                out.writeLong(entry.getLastTimestamp());
+                out.writeLong(entry.getAccumulatedParkedMillis());
+            }
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Lee el último checkpoint; null si no existe o no es válido
+     */
+    public Checkpoint read() {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                log.warn("Checkpoint de estacionamiento con formato desconocido: {}", path);
+                return null;
+            }
+            long createdAt = in.readLong();
+            int count = in.readInt();
+            // Una cantidad que no cabe en el archivo es un archivo dañado, no una reserva de memoria
+            if (count < 0 || count > (Files.size(path) - HEADER_BYTES) / MIN_ENTRY_BYTES) {
+                log.warn("Checkpoint de estacionamiento con una cantidad inválida ({}): {}", count, path);
+                return null;
+            }
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(new Entry(in.readUTF(), in.readInt(), in.readInt(), in.readLong(), in.readLong()));
+            }
+            return new Checkpoint(createdAt, entries);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el checkpoint de estacionamiento {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ public class ParkingEventPersistenceMapper {
                 .totalDurationMinutes(domain.getTotalDurationMinutes())
                 .finalLocationLat(domain.getFinalLocationLat())
                 .finalLocationLng(domain.getFinalLocationLng())
+                .zoneId(domain.getZoneId())
                 .isActive(domain.getIsActive())
                 .active(domain.getActive())
                 .build();
@@ -34,6 +35,7 @@ public class ParkingEventPersistenceMapper {
                 .totalDurationMinutes(model.getTotalDurationMinutes())
                 .finalLocationLat(model.getFinalLocationLat())
                 .finalLocationLng(model.getFinalLocationLng())
+                .zoneId(model.getZoneId())
                 .isActive(model.getIsActive())
                 .active(model.getActive())
                 .build();
@@ -0,0 +1,61 @@
+package com.sena.urbantracker.parking.infrastructure.persistence.mapper;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import com.sena.urbantracker.parking.infrastructure.persistence.model.ParkingZoneModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParkingZonePersistenceMapper {
+
+    public static ParkingZoneModel toModel(ParkingZoneDomain domain) {
+        if (domain == null) return null;
+        return ParkingZoneModel.builder()
+                .id(domain.getId())
+                .companyId(domain.getCompanyId())
+                .name(domain.getName())
+                .type(domain.getType())
+                .exemptFromParking(domain.getExemptFromParking())
+                .polygon(encode(domain.getVertices()))
+                .isActive(domain.getIsActive())
+                .active(domain.getActive())
+                .build();
+    }
+
+    public static ParkingZoneDomain toDomain(ParkingZoneModel model) {
+        if (model == null) return null;
+        return ParkingZoneDomain.builder()
+                .id(model.getId())
+                .companyId(model.getCompanyId())
+                .name(model.getName())
+                .type(model.getType())
+                .exemptFromParking(model.getExemptFromParking())
+                .vertices(decode(model.getPolygon()))
+                .isActive(model.getIsActive())
+                .active(model.getActive())
+                .build();
+    }
+
+    private static String encode(List<ZoneVertex> vertices) {
+        if (vertices == null) return "";
+        StringBuilder sb = new StringBuilder(vertices.size() * 24);
+        for (ZoneVertex vertex : vertices) {
+            if (sb.length() > 0) sb.append(';');
+            sb.append(vertex.getLatitude()).append(',').append(vertex.getLongitude());
+        }
+        return sb.toString();
+    }
+
+    private static List<ZoneVertex> decode(String polygon) {
+        List<ZoneVertex> vertices = new ArrayList<>();
+        if (polygon == null || polygon.isBlank()) return vertices;
+        for (String point : polygon.split(";")) {
+            int comma = point.indexOf(',');
+            vertices.add(new ZoneVertex(
+                    Double.parseDouble(point.substring(0, comma).trim()),
+                    Double.parseDouble(point.substring(comma + 1).trim())));
+        }
+        return vertices;
+    }
+}
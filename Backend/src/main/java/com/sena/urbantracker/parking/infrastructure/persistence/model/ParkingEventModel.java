@@ -13,7 +13,15 @@ import java.time.LocalDateTime;
 @SuperBuilder
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
-@Table(name = "parking_event", schema = "parking")
+@Table(
+        name = "parking_event",
+        schema = "parking",
+        indexes = {
+                @Index(name = "idx_parking_event_active", columnList = "is_active"),
+                @Index(name = "idx_parking_event_vehicle_started", columnList = "vehicle_id, started_at"),
+                @Index(name = "idx_parking_event_driver_started", columnList = "driver_id, started_at"),
+                @Index(name = "idx_parking_event_started", columnList = "started_at")
+        })
 public class ParkingEventModel extends BaseEntity {
 
     @Column(name = "vehicle_id", nullable = false, length = 50)
@@ -40,6 +48,10 @@ public class ParkingEventModel extends BaseEntity {
     @Column(name = "final_location_lng")
     private BigDecimal finalLocationLng;
 
+    // Zona (no exenta) donde empezó el estacionamiento
+    @Column(name = "zone_id")
+    private Long zoneId;
+
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = false;
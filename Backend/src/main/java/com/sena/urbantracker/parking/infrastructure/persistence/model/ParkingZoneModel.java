@@ -0,0 +1,41 @@
+package com.sena.urbantracker.parking.infrastructure.persistence.model;
+
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.shared.infrastructure.persistence.model.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@Entity
+@SuperBuilder
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@Table(
+        name = "parking_zone",
+        schema = "parking",
+        indexes = @Index(name = "idx_parking_zone_company", columnList = "company_id"))
+public class ParkingZoneModel extends BaseEntity {
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 20)
+    private ParkingZoneType type;
+
+    @Column(name = "exempt_from_parking", nullable = false)
+    @Builder.Default
+    private Boolean exemptFromParking = true;
+
+    // Vértices como "lat,lon;lat,lon;..."
+    @Column(name = "polygon", nullable = false, columnDefinition = "TEXT")
+    private String polygon;
+
+    @Column(name = "is_active", nullable = false)
+    @Builder.Default
+    private Boolean isActive = true;
+}
@@ -2,9 +2,12 @@ package com.sena.urbantracker.parking.infrastructure.repository.impl;
 
 import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
 import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals;
 import com.sena.urbantracker.parking.infrastructure.persistence.mapper.ParkingEventPersistenceMapper;
 import com.sena.urbantracker.parking.infrastructure.persistence.model.ParkingEventModel;
 import com.sena.urbantracker.parking.infrastructure.repository.jpa.ParkingEventJpaRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -50,12 +53,25 @@ public class ParkingEventRepositoryImpl implements ParkingEventRepository {
         return jpaRepository.existsById(id);
     }
 
+    @Override
+    public Optional<Long> findMaxId() {
+        return Optional.ofNullable(jpaRepository.findMaxId());
+    }
+
     @Override
     public Optional<ParkingEventDomain> findActiveEventByVehicleId(String vehicleId) {
         return jpaRepository.findByVehicleIdAndIsActive(vehicleId, true)
                 .map(ParkingEventPersistenceMapper::toDomain);
     }
 
+    @Override
+    public List<ParkingEventDomain> findActiveEvents() {
+        return jpaRepository.findByIsActiveTrue()
+                .stream()
+                .map(ParkingEventPersistenceMapper::toDomain)
+                .toList();
+    }
+
     @Override
     public List<ParkingEventDomain> findByVehicleIdAndDateRange(String vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
         return jpaRepository.findByVehicleIdAndDateRange(vehicleId, startDate, endDate)
@@ -79,4 +95,53 @@ public class ParkingEventRepositoryImpl implements ParkingEventRepository {
                 .map(ParkingEventPersistenceMapper::toDomain)
                 .toList();
     }
-}
\ No newline at end of file
+
+    @Override
+    public ParkingEventTotals computeTotals(LocalDateTime todayStart, LocalDateTime tomorrowStart, LocalDateTime weekStart) {
+        return jpaRepository.computeTotals(todayStart, tomorrowStart, weekStart);
+    }
+
+    @Override
+    public List<ParkingEventDomain> findPage(ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findPage(cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<ParkingEventDomain> findActivePage(ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findActivePage(cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<ParkingEventDomain> findPageByVehicleId(String vehicleId, LocalDateTime from, LocalDateTime to,
+                                                        ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findPageByVehicleId(vehicleId, from, to,
+                cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<ParkingEventDomain> findPageByDriverId(Long driverId, LocalDateTime from, LocalDateTime to,
+                                                       ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findPageByDriverId(driverId, from, to,
+                cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<ParkingEventDomain> findPageByCompanyId(Long companyId, LocalDateTime from, LocalDateTime to,
+                                                        ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findPageByCompanyId(companyId, from, to,
+                cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<ParkingEventDomain> findPageStartedBetween(LocalDateTime from, LocalDateTime to,
+                                                           ParkingEventCursor cursor, int limit) {
+        return toDomain(jpaRepository.findPageStartedBetween(from, to,
+                cursor.getStartedAt(), cursor.getId(), PageRequest.of(0, limit)));
+    }
+
+    private static List<ParkingEventDomain> toDomain(List<ParkingEventModel> models) {
+        return models.stream()
+                .map(ParkingEventPersistenceMapper::toDomain)
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.sena.urbantracker.parking.infrastructure.repository.impl;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingZoneRepository;
+import com.sena.urbantracker.parking.infrastructure.persistence.mapper.ParkingZonePersistenceMapper;
+import com.sena.urbantracker.parking.infrastructure.persistence.model.ParkingZoneModel;
+import com.sena.urbantracker.parking.infrastructure.repository.jpa.ParkingZoneJpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class ParkingZoneRepositoryImpl implements ParkingZoneRepository {
+
+    private final ParkingZoneJpaRepository jpaRepository;
+
+    public ParkingZoneRepositoryImpl(ParkingZoneJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public ParkingZoneDomain save(ParkingZoneDomain domain) {
+        ParkingZoneModel model = ParkingZonePersistenceMapper.toModel(domain);
+        ParkingZoneModel saved = jpaRepository.save(model);
+        return ParkingZonePersistenceMapper.toDomain(saved);
+    }
+
+    @Override
+    public Optional<ParkingZoneDomain> findById(Long id) {
+        return jpaRepository.findById(id).map(ParkingZonePersistenceMapper::toDomain);
+    }
+
+    @Override
+    public List<ParkingZoneDomain> findAllById(Collection<Long> ids) {
+        return jpaRepository.findAllById(ids)
+                .stream()
+                .map(ParkingZonePersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<ParkingZoneDomain> findAll() {
+        return jpaRepository.findAll()
+                .stream()
+                .map(ParkingZonePersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<ParkingZoneDomain> findByCompanyId(Long companyId) {
+        return jpaRepository.findByCompanyId(companyId)
+                .stream()
+                .map(ParkingZonePersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public List<ParkingZoneDomain> findActiveZones() {
+        return jpaRepository.findByIsActiveTrue()
+                .stream()
+                .map(ParkingZonePersistenceMapper::toDomain)
+                .toList();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        jpaRepository.deleteById(id);
+    }
+}
@@ -1,6 +1,8 @@
 package com.sena.urbantracker.parking.infrastructure.repository.jpa;
 
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals;
 import com.sena.urbantracker.parking.infrastructure.persistence.model.ParkingEventModel;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,6 +15,11 @@ public interface ParkingEventJpaRepository extends JpaRepository<ParkingEventMod
 
     Optional<ParkingEventModel> findByVehicleIdAndIsActive(String vehicleId, Boolean isActive);
 
+    List<ParkingEventModel> findByIsActiveTrue();
+
+    @Query("SELECT MAX(e.id) FROM ParkingEventModel e")
+    Long findMaxId();
+
     @Query("SELECT e FROM ParkingEventModel e WHERE e.vehicleId = :vehicleId AND e.startedAt >= :startDate AND e.startedAt <= :endDate")
     List<ParkingEventModel> findByVehicleIdAndDateRange(@Param("vehicleId") String vehicleId, 
                                                        @Param("startDate") LocalDateTime startDate, 
@@ -27,4 +34,62 @@ public interface ParkingEventJpaRepository extends JpaRepository<ParkingEventMod
     List<ParkingEventModel> findByDriverIdAndDateRange(@Param("driverId") Long driverId, 
                                                        @Param("startDate") LocalDateTime startDate, 
                                                        @Param("endDate") LocalDateTime endDate);
-}
\ No newline at end of file
+
+    @Query("SELECT new com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals(" +
+            "COUNT(e), " +
+            "SUM(CASE WHEN e.isActive = true THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.startedAt >= :todayStart AND e.startedAt < :tomorrowStart THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN e.startedAt > :weekStart THEN 1 ELSE 0 END), " +
+            "AVG(e.totalDurationMinutes), " +
+            "MAX(e.startedAt)) " +
+            "FROM ParkingEventModel e")
+    ParkingEventTotals computeTotals(@Param("todayStart") LocalDateTime todayStart,
+                                     @Param("tomorrowStart") LocalDateTime tomorrowStart,
+                                     @Param("weekStart") LocalDateTime weekStart);
+
+    // Paginación por llave: el índice sobre started_at entrega las filas ya ordenadas y la página no depende del offset
+
+    String KEYSET = " AND (e.startedAt < :cursorStartedAt OR (e.startedAt = :cursorStartedAt AND e.id < :cursorId))" +
+            " ORDER BY e.startedAt DESC, e.id DESC";
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.startedAt <= :cursorStartedAt" + KEYSET)
+    List<ParkingEventModel> findPage(@Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.isActive = true" + KEYSET)
+    List<ParkingEventModel> findActivePage(@Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.vehicleId = :vehicleId AND e.startedAt >= :from AND e.startedAt <= :to" + KEYSET)
+    List<ParkingEventModel> findPageByVehicleId(@Param("vehicleId") String vehicleId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.driverId = :driverId AND e.startedAt >= :from AND e.startedAt <= :to" + KEYSET)
+    List<ParkingEventModel> findPageByDriverId(@Param("driverId") Long driverId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.routeId IN (SELECT r.id FROM RouteModel r WHERE r.company.id = :companyId) AND e.startedAt >= :from AND e.startedAt <= :to" + KEYSET)
+    List<ParkingEventModel> findPageByCompanyId(@Param("companyId") Long companyId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                                @Param("cursorId") Long cursorId,
+                                                Pageable pageable);
+
+    @Query("SELECT e FROM ParkingEventModel e WHERE e.startedAt >= :from AND e.startedAt <= :to" + KEYSET)
+    List<ParkingEventModel> findPageStartedBetween(@Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to,
+                                                   @Param("cursorStartedAt") LocalDateTime cursorStartedAt,
+                                                   @Param("cursorId") Long cursorId,
+                                                   Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.sena.urbantracker.parking.infrastructure.repository.jpa;
+
+import com.sena.urbantracker.parking.infrastructure.persistence.model.ParkingZoneModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ParkingZoneJpaRepository extends JpaRepository<ParkingZoneModel, Long> {
+
+    List<ParkingZoneModel> findByCompanyId(Long companyId);
+
+    List<ParkingZoneModel> findByIsActiveTrue();
+}
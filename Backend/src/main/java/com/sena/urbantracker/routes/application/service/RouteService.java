@@ -3,6 +3,7 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
 import com.sena.urbantracker.monitoring.application.service.mqtt.DynamicSubscriptionService;
 import com.sena.urbantracker.routes.application.dto.request.RouteReqDto;
 import com.sena.urbantracker.routes.application.dto.request.RouteWaypointReqDto;
@@ -46,6 +47,7 @@ public class RouteService implements CrudOperations<RouteReqDto, RouteResDto, Lo
     private final RouteWaypointRepository routeWaypointRepository;
     private final ObjectMapper objectMapper;
     private final DynamicSubscriptionService dynamicSubscriptionService;
+    private final CompanyLookupService companyLookupService;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -134,6 +136,7 @@ public class RouteService implements CrudOperations<RouteReqDto, RouteResDto, Lo
                 .toList();
 
         routeWaypointRepository.saveAll(waypoints);
+        companyLookupService.evictRoute(finalSavedRoute.getId());
 
         // 5) crear el topic de la ruta usando el ID en lugar del número
         String routeTopic = "route/" + finalSavedRoute.getId();
@@ -259,6 +262,7 @@ public class RouteService implements CrudOperations<RouteReqDto, RouteResDto, Lo
         }
 
         RouteDomain updated = routeRepository.saveAndFlush(route);
+        companyLookupService.evictRoute(updated.getId());
 
         routeWaypointRepository.deleteByRoute(updated);
 
@@ -284,6 +288,7 @@ public class RouteService implements CrudOperations<RouteReqDto, RouteResDto, Lo
 
         // Las imágenes se eliminan automáticamente al eliminar la entidad (cascade)
         routeRepository.deleteById(id);
+        companyLookupService.evictRoute(id);
         return CrudResponseDto.success(RouteMapper.toDto(null, 0), "Ruta eliminada correctamente");
     }
 
@@ -0,0 +1,68 @@
+package com.sena.urbantracker.shared.infrastructure.util;
+
+/**
+ * Cálculo de distancias entre coordenadas GPS.
+ *
+ * Para distancias cortas (las de telemetría consecutiva, estacionamiento y búsquedas
+ * cercanas) usa una proyección equirectangular: trata la zona como plana y escala la
+ * longitud con cos(latitud), tomado de una tabla por franjas de 0.1°, sin funciones
+ * trigonométricas. Por encima de FAST_PATH_MAX_METERS la curvatura empieza a pesar
+ * y se usa Haversine.
+ *
+ * En latitudes de Colombia (-5° a 15°) la aproximación se aleja de Haversine menos
+ * de 0.05% hasta ese umbral.
+ */
+public final class GeoMath {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    public static final double FAST_PATH_MAX_METERS = 20_000.0;
+
+    private static final double METERS_PER_RADIAN = EARTH_RADIUS_METERS;
+    private static final double BANDS_PER_DEGREE = 10.0;
+    // cos(latitud) por franja, de -90° a 90°
+    private static final double[] COS_BY_BAND = new double[(int) (180 * BANDS_PER_DEGREE) + 1];
+
+    static {
+        for (int band = 0; band < COS_BY_BAND.length; band++) {
+            COS_BY_BAND[band] = Math.cos(Math.toRadians(band / BANDS_PER_DEGREE - 90.0));
+        }
+    }
+
+    private GeoMath() {
+    }
+
+    /**
+     * Distancia en metros: equirectangular si es corta, Haversine si no
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double fast = equirectangularMeters(lat1, lon1, lat2, lon2);
+        return fast <= FAST_PATH_MAX_METERS ? fast : haversineMeters(lat1, lon1, lat2, lon2);
+    }
+
+    /**
+     * Aproximación plana, válida solo para distancias de pocos kilómetros
+     */
+    public static double equirectangularMeters(double lat1, double lon1, double lat2, double lon2) {
+        double x = Math.toRadians(lon2 - lon1) * cosLatitude((lat1 + lat2) * 0.5);
+        double y = Math.toRadians(lat2 - lat1);
+        return METERS_PER_RADIAN * Math.sqrt(x * x + y * y);
+    }
+
+    // Fórmula de Haversine para calcular distancia entre dos puntos GPS
+    public static double haversineMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * cos(latitud) tomado de la tabla precalculada (franjas de 0.1°)
+     */
+    public static double cosLatitude(double latitude) {
+        int band = (int) Math.round((latitude + 90.0) * BANDS_PER_DEGREE);
+        return COS_BY_BAND[Math.max(0, Math.min(COS_BY_BAND.length - 1, band))];
+    }
+}
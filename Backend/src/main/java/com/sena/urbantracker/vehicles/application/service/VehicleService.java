@@ -1,5 +1,6 @@
 package com.sena.urbantracker.vehicles.application.service;
 
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
 import com.sena.urbantracker.vehicles.application.dto.request.VehicleReqDto;
 import com.sena.urbantracker.vehicles.application.dto.response.VehicleResDto;
 import com.sena.urbantracker.vehicles.application.mapper.VehicleMapper;
@@ -26,6 +27,7 @@ public class VehicleService implements CrudOperations<VehicleReqDto, VehicleResD
     private final VehicleRepository vehicleRepository;
     private final CompanyRepository companyRepository;
     private final VehicleTypeRepository vehicleTypeRepository;
+    private final CompanyLookupService companyLookupService;
 
     @Override
     public CrudResponseDto<VehicleResDto> create(VehicleReqDto request) {
@@ -44,6 +46,7 @@ public class VehicleService implements CrudOperations<VehicleReqDto, VehicleResD
         entity.setVehicleType(vehicleType);
 
         VehicleDomain saved = vehicleRepository.save(entity);
+        companyLookupService.evictVehicle(String.valueOf(saved.getId()));
 
         return CrudResponseDto.success(VehicleMapper.toDto(saved), "Vehículo creado correctamente");
     }
@@ -81,6 +84,7 @@ public class VehicleService implements CrudOperations<VehicleReqDto, VehicleResD
         vehicle.setInService(request.isInService());
 
         VehicleDomain updated = vehicleRepository.save(vehicle);
+        companyLookupService.evictVehicle(String.valueOf(id));
         return CrudResponseDto.success(VehicleMapper.toDto(updated), "Vehículo actualizado correctamente");
     }
 
@@ -91,6 +95,7 @@ public class VehicleService implements CrudOperations<VehicleReqDto, VehicleResD
         }
 
         vehicleRepository.deleteById(id);
+        companyLookupService.evictVehicle(String.valueOf(id));
         return CrudResponseDto.success(VehicleMapper.toDto(null), "Vehículo eliminado correctamente");
     }
 
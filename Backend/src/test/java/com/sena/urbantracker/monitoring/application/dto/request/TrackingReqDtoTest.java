@@ -0,0 +1,52 @@
+package com.sena.urbantracker.monitoring.application.dto.request;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrackingReqDtoTest {
+
+    @Test
+    void setterDiscardsNonFiniteSpeeds() {
+        TrackingReqDto dto = new TrackingReqDto();
+
+        dto.setSpeedKmh(Double.NaN);
+        assertNull(dto.getSpeedKmh());
+        dto.setSpeedKmh(Double.POSITIVE_INFINITY);
+        assertNull(dto.getSpeedKmh());
+        dto.setSpeedKmh(Double.NEGATIVE_INFINITY);
+        assertNull(dto.getSpeedKmh());
+
+        dto.setSpeedKmh(42.5);
+        assertEquals(42.5, dto.getSpeedKmh());
+        dto.setSpeedKmh(null);
+        assertNull(dto.getSpeedKmh());
+    }
+
+    @Test
+    void setterKeepsNegativeSpeedForBeanValidation() {
+        TrackingReqDto dto = new TrackingReqDto();
+        dto.setSpeedKmh(-3.0);
+
+        // @DecimalMin la rechaza en el controlador; la detección nunca la usa
+        assertEquals(-3.0, dto.getSpeedKmh());
+        assertTrue(Double.isNaN(dto.reportedSpeedKmh()));
+    }
+
+    @Test
+    void reportedSpeedIsNaNWhenMissingOrInvalid() {
+        assertTrue(Double.isNaN(TrackingReqDto.builder().build().reportedSpeedKmh()));
+        // El builder no pasa por el setter
+        assertTrue(Double.isNaN(TrackingReqDto.builder().speedKmh(Double.NaN).build().reportedSpeedKmh()));
+        assertTrue(Double.isNaN(TrackingReqDto.builder().speedKmh(Double.POSITIVE_INFINITY).build().reportedSpeedKmh()));
+        assertTrue(Double.isNaN(TrackingReqDto.builder().speedKmh(-0.5).build().reportedSpeedKmh()));
+    }
+
+    @Test
+    void reportedSpeedReturnsValidSpeeds() {
+        assertEquals(0.0, TrackingReqDto.builder().speedKmh(0.0).build().reportedSpeedKmh());
+        assertEquals(37.2, TrackingReqDto.builder().speedKmh(37.2).build().reportedSpeedKmh());
+    }
+}
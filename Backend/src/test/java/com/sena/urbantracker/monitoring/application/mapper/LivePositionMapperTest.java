@@ -0,0 +1,63 @@
+package com.sena.urbantracker.monitoring.application.mapper;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.application.dto.response.LivePositionResDto;
+import com.sena.urbantracker.monitoring.domain.live.LivePosition;
+import com.sena.urbantracker.monitoring.domain.live.LivePositionStore;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LivePositionMapperTest {
+
+    private VehicleIndexRegistry registry;
+    private LivePositionStore store;
+
+    @BeforeEach
+    void setUp() {
+        registry = new VehicleIndexRegistry();
+        store = new LivePositionStore(registry);
+    }
+
+    @Test
+    void deviceFieldsSurviveTheLiveStore() {
+        int vehicle = registry.intern("7");
+        store.update(vehicle, 4.65, -74.10, 1_000L, 3L, 1L, DataSourceType.GPS,
+                31.0, 270.0, 4.5, 0.9, 11);
+        LivePosition position = store.get(vehicle);
+
+        TrackingReqDto telemetry = LivePositionMapper.toTelemetry(position);
+        assertEquals(31.0, telemetry.getSpeedKmh());
+        assertEquals(270.0, telemetry.getHeading());
+        assertEquals(4.5, telemetry.getAccuracyMeters());
+        assertEquals(0.9, telemetry.getHdop());
+        assertEquals(11, telemetry.getSatellites());
+
+        LivePositionResDto dto = LivePositionMapper.toDto(position);
+        assertEquals(31.0, dto.getSpeedKmh());
+        assertEquals(270.0, dto.getHeading());
+        assertEquals(4.5, dto.getAccuracyMeters());
+        assertEquals(0.9, dto.getHdop());
+        assertEquals(11, dto.getSatellites());
+    }
+
+    @Test
+    void missingDeviceFieldsStayNull() {
+        int vehicle = registry.intern("7");
+        store.update(vehicle, 4.65, -74.10, 1_000L, 3L, 1L, DataSourceType.GPS,
+                31.0, 270.0, 4.5, 0.9, 11);
+        // Un reporte posterior sin datos del GPS no conserva los del anterior
+        store.update(vehicle, 4.66, -74.11, 2_000L, 3L, 1L, DataSourceType.MOVILE);
+
+        TrackingReqDto telemetry = LivePositionMapper.toTelemetry(store.get(vehicle));
+        assertNull(telemetry.getSpeedKmh());
+        assertNull(telemetry.getHeading());
+        assertNull(telemetry.getAccuracyMeters());
+        assertNull(telemetry.getHdop());
+        assertNull(telemetry.getSatellites());
+    }
+}
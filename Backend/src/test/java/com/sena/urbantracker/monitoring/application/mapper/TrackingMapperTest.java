@@ -0,0 +1,55 @@
+package com.sena.urbantracker.monitoring.application.mapper;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.domain.entity.TrackingDomain;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TrackingMapperTest {
+
+    @Test
+    void numericVehicleIdIsParsed() {
+        assertEquals(42L, TrackingMapper.toEntity(withVehicleId("42")).getVehicleId());
+        assertEquals(42L, TrackingMapper.toEntity(withVehicleId(" 42 ")).getVehicleId());
+    }
+
+    @Test
+    void missingVehicleIdStaysNull() {
+        assertNull(TrackingMapper.toEntity(withVehicleId(null)).getVehicleId());
+    }
+
+    @Test
+    void nonNumericVehicleIdIsAValidationError() {
+        assertThrows(ValidationException.class, () -> TrackingMapper.toEntity(withVehicleId("bus-12")));
+        assertThrows(ValidationException.class, () -> TrackingMapper.toEntity(withVehicleId("")));
+        assertThrows(ValidationException.class, () -> TrackingMapper.toEntity(withVehicleId("99999999999999999999")));
+    }
+
+    @Test
+    void deviceFieldsAreCarriedToTheEntity() {
+        TrackingReqDto dto = TrackingReqDto.builder()
+                .vehicleId("7")
+                .speedKmh(31.0)
+                .heading(270.0)
+                .accuracyMeters(4.5)
+                .hdop(0.9)
+                .satellites(11)
+                .build();
+
+        TrackingDomain entity = TrackingMapper.toEntity(dto);
+
+        assertEquals(31.0, entity.getSpeedKmh());
+        assertEquals(270.0, entity.getHeading());
+        assertEquals(4.5, entity.getAccuracyMeters());
+        assertEquals(0.9, entity.getHdop());
+        assertEquals(11, entity.getSatellites());
+    }
+
+    private static TrackingReqDto withVehicleId(String vehicleId) {
+        return TrackingReqDto.builder().vehicleId(vehicleId).build();
+    }
+}
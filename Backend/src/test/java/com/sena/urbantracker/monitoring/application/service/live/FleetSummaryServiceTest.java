@@ -0,0 +1,74 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.StompSubscriptionRegistry;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class FleetSummaryServiceTest {
+
+    private static final long ROUTE = 7L;
+    private static final long COMPANY = 3L;
+
+    private VehicleIndexRegistry registry;
+    private FleetSummaryService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new VehicleIndexRegistry();
+        service = new FleetSummaryService(registry, mock(StompSubscriptionRegistry.class),
+                mock(WebSocketBroadcastService.class), 120);
+    }
+
+    @Test
+    void vehicleMarkedParkedBeforeItsFirstFixIsCountedAsParked() {
+        // Evento abierto restaurado al arrancar, antes de que el vehículo reporte
+        service.onParkingChanged("bus-1", true);
+        report("bus-1");
+        report("bus-2");
+
+        assertEquals(1, service.getRouteSummary(ROUTE).getParkedVehicles());
+        assertEquals(2, service.getRouteSummary(ROUTE).getActiveVehicles());
+    }
+
+    @Test
+    void parkedVehicleKeepsItsFlagAfterBeingForgotten() {
+        report("bus-1");
+        service.onParkingChanged("bus-1", true);
+        service.forget(registry.intern("bus-1"));
+        assertEquals(0, service.getRouteSummary(ROUTE).getParkedVehicles());
+
+        report("bus-1");
+        assertEquals(1, service.getRouteSummary(ROUTE).getParkedVehicles());
+    }
+
+    @Test
+    void parkedVehicleClosedWhileIdleReportsAgainAsNotParked() {
+        report("bus-1");
+        service.onParkingChanged("bus-1", true);
+        // Inactividad: el resumen lo olvida y la detección cierra su estacionamiento
+        service.forget(registry.intern("bus-1"));
+        service.onParkingChanged("bus-1", false);
+
+        report("bus-1");
+        assertEquals(0, service.getRouteSummary(ROUTE).getParkedVehicles());
+        assertEquals(1, service.getRouteSummary(ROUTE).getActiveVehicles());
+    }
+
+    @Test
+    void parkingEndedWithoutStateIsForgotten() {
+        service.onParkingChanged("bus-1", true);
+        service.onParkingChanged("bus-1", false);
+        report("bus-1");
+
+        assertEquals(0, service.getRouteSummary(ROUTE).getParkedVehicles());
+    }
+
+    private void report(String vehicleId) {
+        service.onPosition(registry.intern(vehicleId), ROUTE, COMPANY, 4.65, -74.1, 0.0, System.currentTimeMillis());
+    }
+}
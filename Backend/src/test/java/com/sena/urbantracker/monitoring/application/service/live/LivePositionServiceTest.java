@@ -0,0 +1,78 @@
+package com.sena.urbantracker.monitoring.application.service.live;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.domain.live.IdleTimerWheel;
+import com.sena.urbantracker.monitoring.domain.live.LivePositionStore;
+import com.sena.urbantracker.monitoring.domain.live.LiveSpatialIndex;
+import com.sena.urbantracker.monitoring.domain.live.VehicleIndexRegistry;
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class LivePositionServiceTest {
+
+    private static final long IDLE_SECONDS = 60;
+
+    private VehicleIndexRegistry registry;
+    private LiveSpatialIndex spatialIndex;
+    private FleetSummaryService fleetSummaryService;
+    private LivePositionService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new VehicleIndexRegistry();
+        LivePositionStore store = new LivePositionStore(registry);
+        spatialIndex = new LiveSpatialIndex(store, 0.0025);
+        fleetSummaryService = mock(FleetSummaryService.class);
+        service = new LivePositionService(registry, store, spatialIndex, mock(CompanyLookupService.class),
+                fleetSummaryService, new IdleTimerWheel(1000, IDLE_SECONDS));
+    }
+
+    @Test
+    void silentVehicleIsEvicted() {
+        service.record(telemetry("bus-1"));
+        int vehicle = registry.indexOf("bus-1");
+
+        assertTrue(service.evictIfIdle(vehicle, System.currentTimeMillis() + IDLE_SECONDS * 1000));
+
+        assertTrue(service.findByVehicleId("bus-1").isEmpty());
+        assertEquals(0, spatialIndex.size());
+        verify(fleetSummaryService).forget(vehicle);
+    }
+
+    @Test
+    void vehicleThatReportedAfterTheWheelExpiredItIsKept() {
+        long expiredAt = System.currentTimeMillis();
+        // La rueda lo dio por inactivo en expiredAt y el reporte llegó antes de retirarlo
+        service.record(telemetry("bus-1"));
+        int vehicle = registry.indexOf("bus-1");
+
+        assertFalse(service.evictIfIdle(vehicle, expiredAt));
+
+        assertTrue(service.findByVehicleId("bus-1").isPresent());
+        assertEquals(1, spatialIndex.size());
+        verify(fleetSummaryService, never()).forget(anyInt());
+    }
+
+    private static TrackingReqDto telemetry(String vehicleId) {
+        return TrackingReqDto.builder()
+                .vehicleId(vehicleId)
+                .routeId(7L)
+                .timestamp(OffsetDateTime.now())
+                .latitude(BigDecimal.valueOf(4.65))
+                .longitude(BigDecimal.valueOf(-74.10))
+                .dataSource(DataSourceType.GPS)
+                .build();
+    }
+}
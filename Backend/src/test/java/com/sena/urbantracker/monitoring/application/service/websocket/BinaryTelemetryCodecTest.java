@@ -0,0 +1,79 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BinaryTelemetryCodecTest {
+
+    private static final String DESTINATION = "/topic/route/7/telemetry";
+
+    @Test
+    void mergeKeepsOlderVehiclesAndTakesNewerPositions() {
+        byte[] older = positions(DESTINATION, new int[]{1, 2}, fix(4.60), fix(4.61));
+        byte[] newer = positions(DESTINATION, new int[]{2, 3}, fix(4.70), fix(4.71));
+
+        byte[] merged = BinaryTelemetryCodec.mergePositions(older, newer);
+
+        assertEquals(Map.of(1, 4_600_000, 2, 4_700_000, 3, 4_710_000), latitudesByIndex(merged));
+    }
+
+    @Test
+    void framesOfDifferentDestinationsAreNotMerged() {
+        byte[] older = positions(DESTINATION, new int[]{1}, fix(4.60));
+        byte[] newer = positions("/topic/route/8/telemetry", new int[]{1}, fix(4.70));
+
+        assertNull(BinaryTelemetryCodec.mergePositions(older, newer));
+    }
+
+    @Test
+    void vehicleIdFramesAreNotMerged() {
+        byte[] ids = BinaryTelemetryCodec.encodeVehicleIds(new int[]{1}, new String[]{"ABC123"});
+        byte[] frame = positions(DESTINATION, new int[]{1}, fix(4.60));
+
+        assertNull(BinaryTelemetryCodec.mergePositions(ids, frame));
+        assertNull(BinaryTelemetryCodec.mergePositions(frame, ids));
+    }
+
+    private static byte[] positions(String destination, int[] indices, TrackingReqDto... fixes) {
+        return BinaryTelemetryCodec.encodePositions(destination, List.of(fixes), indices);
+    }
+
+    private static TrackingReqDto fix(double latitude) {
+        return TrackingReqDto.builder()
+                .latitude(BigDecimal.valueOf(latitude))
+                .longitude(BigDecimal.valueOf(-74.1))
+                .timestamp(OffsetDateTime.of(2024, 1, 1, 8, 0, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    private static Map<Integer, Integer> latitudesByIndex(byte[] frame) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        assertEquals(BinaryTelemetryCodec.POSITIONS, buffer.get());
+        byte[] destination = new byte[buffer.getShort()];
+        buffer.get(destination);
+        assertEquals(DESTINATION, new String(destination, StandardCharsets.UTF_8));
+
+        int count = buffer.getInt();
+        Map<Integer, Integer> latitudes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int index = buffer.getInt();
+            latitudes.put(index, buffer.getInt());
+            buffer.getInt();
+            buffer.getLong();
+        }
+        assertEquals(0, buffer.remaining());
+        return latitudes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.sena.urbantracker.monitoring.application.service.websocket;
+
+import com.sena.urbantracker.monitoring.application.dto.request.TrackingReqDto;
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reparto de un frame de ruta (20 vehículos) a 1k, 10k y 50k suscriptores del broker simple.
+ * serializeOnce es el camino de {@link WebSocketBroadcastService#broadcast}: Jackson una vez
+ * y el mismo byte[] para todos. serializePerSubscriber serializa el payload para cada sesión,
+ * como hacía convertAndSend por suscriptor. En los dos casos cada mensaje de salida se codifica
+ * como frame STOMP con los headers de su sesión, igual que el handler de STOMP.
+ * El resultado es por frame repartido a todos los suscriptores.
+ *
+ * Ejecutar:
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main WebSocketBroadcastServiceBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketBroadcastServiceBenchmark {
+
+    private static final String DESTINATION = "/topic/route/7/telemetry";
+    private static final String SUBSCRIPTION = "sub-0";
+    private static final int VEHICLES_PER_FRAME = 20;
+
+    @Param({"1000", "10000", "50000"})
+    private int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private WebSocketBroadcastService broadcastService;
+    private List<TrackingReqDto> payload;
+    private final StompEncoder stompEncoder = new StompEncoder();
+    private long bytesSent; // evita que el JIT descarte la codificación
+
+    @Setup
+    public void setUp() {
+        ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        clientOutbound.subscribe(this::encodeForSession);
+
+        broker = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId("s" + i);
+            accessor.setSubscriptionId(SUBSCRIPTION);
+            accessor.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+
+        // Los mismos convertidores que registra el broker de la aplicación
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(Jackson2ObjectMapperBuilder.json().build());
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(new CompositeMessageConverter(
+                List.of(new StringMessageConverter(), new ByteArrayMessageConverter(), jackson)));
+        broadcastService = new WebSocketBroadcastService(template, clientOutbound);
+
+        Random random = new Random(42);
+        payload = new ArrayList<>(VEHICLES_PER_FRAME);
+        for (int i = 0; i < VEHICLES_PER_FRAME; i++) {
+            payload.add(TrackingReqDto.builder()
+                    .routeId(7L)
+                    .vehicleId("bus-" + i)
+                    .timestamp(OffsetDateTime.now())
+                    .latitude(BigDecimal.valueOf(4.5 + random.nextDouble() * 0.3).setScale(6, RoundingMode.HALF_UP))
+                    .longitude(BigDecimal.valueOf(-74.2 + random.nextDouble() * 0.2).setScale(6, RoundingMode.HALF_UP))
+                    .dataSource(DataSourceType.values()[0])
+                    .speedKmh(random.nextDouble() * 60)
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public long serializeOnce() {
+        broadcastService.broadcast(DESTINATION, payload);
+        return bytesSent;
+    }
+
+    @Benchmark
+    public long serializePerSubscriber() {
+        for (int i = 0; i < subscribers; i++) {
+            broadcastService.sendToSession("s" + i, SUBSCRIPTION, DESTINATION, broadcastService.encode(payload, 0L));
+        }
+        return bytesSent;
+    }
+
+    private void encodeForSession(Message<?> message) {
+        SimpMessageHeaderAccessor source = SimpMessageHeaderAccessor.wrap(message);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setSubscriptionId(source.getSubscriptionId());
+        accessor.setDestination(source.getDestination());
+        accessor.setMessageId(source.getSessionId());
+        accessor.setContentType(source.getContentType());
+        bytesSent += stompEncoder.encode(accessor.getMessageHeaders(), (byte[]) message.getPayload()).length;
+    }
+}
@@ -0,0 +1,114 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdleTimerWheelTest {
+
+    private static final long TICK_MS = 1000;
+    private static final long IDLE_MS = 10_000;
+    // Alineado al tick para que los vencimientos caigan en segundos exactos
+    private static final long START = 1_000_000;
+
+    private IdleTimerWheel wheel;
+    private long clock;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new IdleTimerWheel(TICK_MS, IDLE_MS / 1000);
+        advance(START);
+    }
+
+    @Test
+    void silentVehicleExpiresAfterTheIdlePeriod() {
+        wheel.touch(1, START);
+        assertEquals(1, wheel.trackedCount());
+
+        assertEquals(0, advanceTo(START + IDLE_MS - TICK_MS).length);
+        assertArrayEquals(new int[]{1}, advance(START + IDLE_MS));
+        assertEquals(0, wheel.trackedCount());
+        assertTrue(wheel.isIdle(1, START + IDLE_MS));
+    }
+
+    @Test
+    void vehicleThatKeptReportingIsRescheduled() {
+        wheel.touch(1, START);
+        advanceTo(START + 5_000);
+        wheel.touch(1, START + 5_000);
+
+        // Su primera casilla vence, pero reportó después: se reprograma desde el último reporte
+        assertEquals(0, advanceTo(START + IDLE_MS).length);
+        assertEquals(1, wheel.trackedCount());
+        assertFalse(wheel.isIdle(1, START + IDLE_MS));
+
+        assertArrayEquals(new int[]{1}, advanceTo(START + 5_000 + IDLE_MS));
+    }
+
+    @Test
+    void reportingVehicleSurvivesManyRevolutions() {
+        long lastReport = START;
+        // Diez vueltas de la rueda reportando cada 3 segundos
+        while (clock < START + 10 * IDLE_MS) {
+            long now = clock + TICK_MS;
+            if ((now - START) % 3_000 == 0) {
+                wheel.touch(7, now);
+                lastReport = now;
+            }
+            assertEquals(0, advance(now).length, "expiró en " + now);
+        }
+
+        assertArrayEquals(new int[]{7}, advanceTo(lastReport + IDLE_MS));
+    }
+
+    @Test
+    void pauseLongerThanOneRevolutionExpiresEveryoneDue() {
+        for (int vehicle = 0; vehicle < 50; vehicle++) {
+            wheel.touch(vehicle, START + (vehicle % 10) * TICK_MS);
+        }
+        // Reportó poco antes de la pausa: no debe expirar con los demás
+        wheel.touch(99, START + 55_000);
+
+        int[] expired = advance(START + 60_000);
+
+        assertEquals(50, expired.length);
+        for (int vehicle : expired) {
+            assertTrue(vehicle < 50, "vehículo " + vehicle);
+        }
+        assertEquals(1, wheel.trackedCount());
+        assertArrayEquals(new int[]{99}, advanceTo(START + 55_000 + IDLE_MS));
+    }
+
+    @Test
+    void reportAfterExpiryPutsTheVehicleBack() {
+        wheel.touch(1, START);
+        assertArrayEquals(new int[]{1}, advanceTo(START + IDLE_MS));
+
+        wheel.touch(1, START + IDLE_MS + 500);
+        assertEquals(1, wheel.trackedCount());
+        assertEquals(0, advanceTo(START + 2 * IDLE_MS).length);
+        assertArrayEquals(new int[]{1}, advanceTo(START + 2 * IDLE_MS + TICK_MS));
+    }
+
+    private int[] advance(long now) {
+        clock = now;
+        return wheel.advance(now);
+    }
+
+    // Avanza segundo a segundo hasta end y retorna lo que expiró en el último paso
+    private int[] advanceTo(long end) {
+        int[] expired = new int[0];
+        while (clock < end) {
+            long now = clock + TICK_MS;
+            expired = advance(now);
+            if (now < end) {
+                assertEquals(0, expired.length, "expiró antes de tiempo en " + now);
+            }
+        }
+        return expired;
+    }
+}
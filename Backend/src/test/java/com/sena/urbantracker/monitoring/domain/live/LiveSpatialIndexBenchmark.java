@@ -0,0 +1,115 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LiveSpatialIndex con 50k vehículos repartidos sobre Bogotá (~45 km de lado):
+ * una actualización de posición (almacén + índice, desplazamientos de hasta ~50 m)
+ * y las consultas de rectángulo (una vista de mapa de ~2 km), radio (1 km) y k más cercanos.
+ * El resultado es por operación.
+ *
+ * Ejecutar:
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main LiveSpatialIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiveSpatialIndexBenchmark {
+
+    private static final int VEHICLES = 50_000;
+    private static final int QUERIES = 1024;
+    private static final double CENTER_LAT = 4.65;
+    private static final double CENTER_LON = -74.10;
+    private static final double SPREAD = 0.4;
+    private static final double STEP = 0.0005;
+    private static final double VIEWPORT = 0.02;
+
+    private LivePositionStore store;
+    private LiveSpatialIndex index;
+    private final double[] latitudes = new double[VEHICLES];
+    private final double[] longitudes = new double[VEHICLES];
+    private final double[] queryLatitudes = new double[QUERIES];
+    private final double[] queryLongitudes = new double[QUERIES];
+    private final double[] steps = new double[QUERIES];
+    private int nextVehicle;
+    private int nextQuery;
+    private long timestamp = 1;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        VehicleIndexRegistry registry = new VehicleIndexRegistry();
+        store = new LivePositionStore(registry);
+        index = new LiveSpatialIndex(store, 0.0025);
+        for (int i = 0; i < VEHICLES; i++) {
+            int vehicleIndex = registry.intern("v" + i);
+            latitudes[vehicleIndex] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD;
+            longitudes[vehicleIndex] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD;
+            place(vehicleIndex);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            queryLatitudes[i] = CENTER_LAT + (random.nextDouble() - 0.5) * SPREAD;
+            queryLongitudes[i] = CENTER_LON + (random.nextDouble() - 0.5) * SPREAD;
+            steps[i] = (random.nextDouble() - 0.5) * STEP;
+        }
+    }
+
+    @Benchmark
+    public void move() {
+        int vehicleIndex = nextVehicle;
+        nextVehicle = (nextVehicle + 1) % VEHICLES;
+        int q = nextQuery();
+        latitudes[vehicleIndex] += steps[q];
+        longitudes[vehicleIndex] -= steps[q];
+        timestamp++;
+        place(vehicleIndex);
+    }
+
+    @Benchmark
+    public List<LivePosition> findInBox() {
+        int q = nextQuery();
+        return index.findInBox(queryLatitudes[q], queryLongitudes[q],
+                queryLatitudes[q] + VIEWPORT, queryLongitudes[q] + VIEWPORT);
+    }
+
+    @Benchmark
+    public List<NearbyPosition> findWithinRadius() {
+        int q = nextQuery();
+        return index.findWithinRadius(queryLatitudes[q], queryLongitudes[q], 1000);
+    }
+
+    @Benchmark
+    public List<NearbyPosition> findNearest() {
+        int q = nextQuery();
+        return index.findNearest(queryLatitudes[q], queryLongitudes[q], 10);
+    }
+
+    private int nextQuery() {
+        nextQuery = (nextQuery + 1) & (QUERIES - 1);
+        return nextQuery;
+    }
+
+    private void place(int vehicleIndex) {
+        store.update(vehicleIndex, latitudes[vehicleIndex], longitudes[vehicleIndex], timestamp,
+                LivePositionStore.NO_ID, LivePositionStore.NO_ID, DataSourceType.values()[0]);
+        index.move(vehicleIndex, latitudes[vehicleIndex], longitudes[vehicleIndex]);
+    }
+}
@@ -0,0 +1,134 @@
+package com.sena.urbantracker.monitoring.domain.live;
+
+import com.sena.urbantracker.monitoring.domain.valueobject.DataSourceType;
+import com.sena.urbantracker.shared.infrastructure.util.GeoMath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LiveSpatialIndexTest {
+
+    private static final int VEHICLES = 3000;
+    private static final double CENTER_LAT = 4.65;
+    private static final double CENTER_LON = -74.10;
+
+    private final Random random = new Random(7);
+    private VehicleIndexRegistry registry;
+    private LivePositionStore store;
+    private LiveSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        registry = new VehicleIndexRegistry();
+        store = new LivePositionStore(registry);
+        index = new LiveSpatialIndex(store, 0.0025);
+        for (int i = 0; i < VEHICLES; i++) {
+            place(registry.intern("v" + i), 1);
+        }
+    }
+
+    @Test
+    void boxQueryMatchesBruteForce() {
+        for (int q = 0; q < 200; q++) {
+            double minLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.3;
+            double minLon = CENTER_LON + (random.nextDouble() - 0.5) * 0.3;
+            double maxLat = minLat + random.nextDouble() * 0.1;
+            double maxLon = minLon + random.nextDouble() * 0.1;
+
+            Set<String> expected = store.findAll().stream()
+                    .filter(p -> p.getLatitude() >= minLat && p.getLatitude() <= maxLat
+                            && p.getLongitude() >= minLon && p.getLongitude() <= maxLon)
+                    .map(LivePosition::getVehicleId)
+                    .collect(Collectors.toSet());
+            Set<String> actual = index.findInBox(minLat, minLon, maxLat, maxLon).stream()
+                    .map(LivePosition::getVehicleId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void radiusQueryMatchesBruteForce() {
+        for (int q = 0; q < 200; q++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.3;
+            double lon = CENTER_LON + (random.nextDouble() - 0.5) * 0.3;
+            double radius = 50 + random.nextDouble() * 3000;
+
+            List<String> expected = bruteForceByDistance(lat, lon).stream()
+                    .filter(n -> n.getDistanceMeters() <= radius)
+                    .map(n -> n.getPosition().getVehicleId())
+                    .toList();
+            List<String> actual = index.findWithinRadius(lat, lon, radius).stream()
+                    .map(n -> n.getPosition().getVehicleId())
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForceInsideAndOutsideTheFleet() {
+        for (int q = 0; q < 200; q++) {
+            // Algunos puntos quedan lejos de la flota para forzar el recorrido de todas las celdas
+            double spread = q % 4 == 0 ? 2.0 : 0.3;
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * spread;
+            double lon = CENTER_LON + (random.nextDouble() - 0.5) * spread;
+            int k = 1 + random.nextInt(25);
+
+            List<String> expected = bruteForceByDistance(lat, lon).stream()
+                    .limit(k)
+                    .map(n -> n.getPosition().getVehicleId())
+                    .toList();
+            List<String> actual = index.findNearest(lat, lon, k).stream()
+                    .map(n -> n.getPosition().getVehicleId())
+                    .toList();
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void queriesFollowMovesAndRemovals() {
+        for (int i = 0; i < VEHICLES; i += 3) {
+            place(i, 2);
+        }
+        for (int i = 1; i < VEHICLES; i += 5) {
+            index.remove(i);
+            store.remove(i);
+        }
+
+        assertEquals(store.findAll().size(), index.size());
+        List<String> expected = bruteForceByDistance(CENTER_LAT, CENTER_LON).stream()
+                .limit(10)
+                .map(n -> n.getPosition().getVehicleId())
+                .toList();
+        List<String> actual = index.findNearest(CENTER_LAT, CENTER_LON, 10).stream()
+                .map(n -> n.getPosition().getVehicleId())
+                .toList();
+        assertEquals(expected, actual);
+    }
+
+    private void place(int vehicleIndex, long timestamp) {
+        double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.4;
+        double lon = CENTER_LON + (random.nextDouble() - 0.5) * 0.4;
+        store.update(vehicleIndex, lat, lon, timestamp, LivePositionStore.NO_ID, LivePositionStore.NO_ID,
+                DataSourceType.values()[0]);
+        index.move(vehicleIndex, lat, lon);
+    }
+
+    private List<NearbyPosition> bruteForceByDistance(double lat, double lon) {
+        List<NearbyPosition> all = new ArrayList<>();
+        for (LivePosition position : store.findAll()) {
+            all.add(new NearbyPosition(position,
+                    GeoMath.distanceMeters(lat, lon, position.getLatitude(), position.getLongitude())));
+        }
+        all.sort(Comparator.comparingDouble(NearbyPosition::getDistanceMeters));
+        return all;
+    }
+}
@@ -0,0 +1,69 @@
+package com.sena.urbantracker.monitoring.infrastructure.websocket;
+
+import com.sena.urbantracker.monitoring.application.service.websocket.EncodedFrame;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StompTelemetryMergerTest {
+
+    private static final String DESTINATION = "/topic/route/7/telemetry";
+
+    @Test
+    void partialFramesAreReplacedByTheCurrentStateWithTheNewestHeaders() {
+        String state = "[{\"vehicleId\":\"a\",\"latitude\":4.650000},{\"vehicleId\":\"b\",\"latitude\":4.651200}]";
+        TextMessage older = frame(DESTINATION, "[{\"vehicleId\":\"a\",\"latitude\":1}]", "1");
+        TextMessage newer = frame(DESTINATION, "[{\"vehicleId\":\"b\",\"latitude\":3}]", "2");
+
+        String merged = ((TextMessage) StompTelemetryMerger.merge(older, newer, DESTINATION, states(state))).getPayload();
+
+        assertTrue(merged.startsWith("MESSAGE\ndestination:" + DESTINATION + "\n"));
+        assertTrue(merged.contains("\nmessage-id:2\n"));
+        assertTrue(merged.contains("\ncontent-length:" + state.getBytes(StandardCharsets.UTF_8).length + "\n"));
+        assertTrue(merged.endsWith("\n\n" + state + "\0"));
+    }
+
+    @Test
+    void singleVehicleFrameIsReplaced() {
+        String destination = "/topic/vehicles/a/telemetry";
+        TextMessage older = frame(destination, "{\"vehicleId\":\"a\",\"latitude\":1}", "1");
+        TextMessage newer = frame(destination, "{\"vehicleId\":\"a\",\"latitude\":2}", "2");
+
+        assertSame(newer, StompTelemetryMerger.merge(older, newer, destination, states(null)));
+    }
+
+    @Test
+    void framesWithoutStateAreNotMerged() {
+        WebSocketMessage<?> merged = StompTelemetryMerger.merge(frame(DESTINATION, "[]", "1"),
+                frame(DESTINATION, "[]", "2"), DESTINATION, states(null));
+
+        assertNull(merged);
+    }
+
+    @Test
+    void nonTextFramesAreNotMerged() {
+        BinaryMessage binary = new BinaryMessage(new byte[] {1});
+
+        assertNull(StompTelemetryMerger.merge(binary, frame(DESTINATION, "[]", "1"), DESTINATION, states("[]")));
+    }
+
+    private static Function<String, EncodedFrame> states(String body) {
+        return destination -> body == null ? null
+                : new EncodedFrame(body.getBytes(StandardCharsets.UTF_8), MimeTypeUtils.APPLICATION_JSON, 0L);
+    }
+
+    private static TextMessage frame(String destination, String body, String messageId) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\nsubscription:sub-0\n"
+                + "message-id:" + messageId + "\ncontent-length:" + body.getBytes(StandardCharsets.UTF_8).length
+                + "\n\n" + body + "\0");
+    }
+}
@@ -0,0 +1,107 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.monitoring.application.service.live.CompanyLookupService;
+import com.sena.urbantracker.monitoring.application.service.websocket.StompSubscriptionRegistry;
+import com.sena.urbantracker.monitoring.application.service.websocket.WebSocketBroadcastService;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingAlertServiceTest {
+
+    private static final long COALESCE_MS = 200;
+    private static final long COMPANY = 3L;
+    private static final String DESTINATION = "/topic/company/" + COMPANY + "/parking-alerts";
+
+    private WebSocketBroadcastService broadcastService;
+    private ParkingAlertService service;
+
+    @BeforeEach
+    void setUp() {
+        broadcastService = mock(WebSocketBroadcastService.class);
+        StompSubscriptionRegistry subscriptionRegistry = mock(StompSubscriptionRegistry.class);
+        when(subscriptionRegistry.hasSubscribers(anyString())).thenReturn(true);
+        CompanyLookupService companyLookupService = mock(CompanyLookupService.class);
+        when(companyLookupService.resolveCompanyId(any(), any())).thenReturn(COMPANY);
+        // Sin tópico global ni ruta: cada alerta sale por un solo destino
+        service = new ParkingAlertService(broadcastService, subscriptionRegistry, companyLookupService,
+                COALESCE_MS, false);
+    }
+
+    @Test
+    void startFollowedByEndIsDropped() throws InterruptedException {
+        service.parkingStarted(event(1L, "bus-1"));
+        service.parkingEnded(event(1L, "bus-1"));
+
+        Thread.sleep(COALESCE_MS + 50);
+        service.flush();
+        service.shutdown();
+
+        verify(broadcastService, never()).broadcast(anyString(), any(ParkingAlertService.ParkingAlert.class));
+    }
+
+    @Test
+    void sameTypeAlertSendsTheOneItReplaces() {
+        service.parkingStarted(event(1L, "bus-1"));
+        service.parkingStarted(event(2L, "bus-1"));
+
+        List<ParkingAlertService.ParkingAlert> sent = sent(1);
+        assertEquals(1L, sent.get(0).getId());
+        assertEquals(ParkingAlertService.TYPE_STARTED, sent.get(0).getType());
+    }
+
+    @Test
+    void alertIsSentOnceItsWaitIsOver() throws InterruptedException {
+        service.parkingStarted(event(1L, "bus-1"));
+        service.parkingEnded(event(2L, "bus-2"));
+
+        service.flush();
+        verify(broadcastService, never()).broadcast(anyString(), any(ParkingAlertService.ParkingAlert.class));
+
+        Thread.sleep(COALESCE_MS + 50);
+        service.flush();
+        assertEquals(2, sent(2).size());
+
+        // Ya salieron: otro flush no las repite
+        service.flush();
+        verify(broadcastService, times(2)).broadcast(eq(DESTINATION), any(ParkingAlertService.ParkingAlert.class));
+    }
+
+    @Test
+    void shutdownSendsAlertsStillWaiting() {
+        service.parkingStarted(event(1L, "bus-1"));
+
+        service.shutdown();
+
+        assertEquals(1L, sent(1).get(0).getId());
+    }
+
+    private List<ParkingAlertService.ParkingAlert> sent(int expected) {
+        ArgumentCaptor<ParkingAlertService.ParkingAlert> captor =
+                ArgumentCaptor.forClass(ParkingAlertService.ParkingAlert.class);
+        verify(broadcastService, times(expected)).broadcast(eq(DESTINATION), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static ParkingEventDomain event(long id, String vehicleId) {
+        return ParkingEventDomain.builder()
+                .id(id)
+                .vehicleId(vehicleId)
+                .startedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,164 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.event.ParkingDomainEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParkingEventPersisterTest {
+
+    private static final int MAX_RETRIES = 2;
+
+    private ParkingEventBatchWriter batchWriter;
+    private ParkingAlertService alertService;
+    private ParkingEventPersister persister;
+
+    // Claves que hacen fallar cualquier lote que las contenga
+    private final Set<Long> poison = new HashSet<>();
+    // Claves de cada evento escrito con éxito, en orden
+    private final List<Long> written = new ArrayList<>();
+    private int writeCalls;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        batchWriter = mock(ParkingEventBatchWriter.class);
+        alertService = mock(ParkingAlertService.class);
+        persister = new ParkingEventPersister(batchWriter, alertService, mock(ParkingHeavyHitterService.class),
+                50, MAX_RETRIES, 1000);
+        when(batchWriter.write(anyList(), anyMap())).thenAnswer(invocation -> {
+            writeCalls++;
+            List<ParkingDomainEvent> events = invocation.getArgument(0);
+            for (ParkingDomainEvent event : events) {
+                if (poison.contains(event.getEventKey())) {
+                    throw new IllegalStateException("evento inválido " + event.getEventKey());
+                }
+            }
+            List<ParkingEventDomain> saved = new ArrayList<>();
+            for (ParkingDomainEvent event : events) {
+                written.add(event.getEventKey());
+                saved.add(ParkingEventDomain.builder()
+                        .id(event.getEventKey() * 100)
+                        .vehicleId(event.getVehicleId())
+                        .startedAt(event.getOccurredAt())
+                        .build());
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    void failureAfterCommitDoesNotWriteTheBatchAgain() {
+        doThrow(new IllegalStateException("broker caído")).when(alertService).parkingStarted(any());
+        persister.publish(started(1));
+        persister.publish(started(2));
+
+        persister.flush();
+
+        assertEquals(1, writeCalls);
+        assertEquals(List.of(1L, 2L), written);
+        assertEquals(100L, persister.findEventId(1));
+        assertEquals(200L, persister.findEventId(2));
+        assertEquals(0, persister.pendingCount());
+    }
+
+    @Test
+    void poisonEventIsIsolatedAndTheRestIsSaved() {
+        for (long key = 1; key <= 8; key++) {
+            persister.publish(started(key));
+        }
+        poison.add(5L);
+
+        persister.flush();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 6L, 7L, 8L), written);
+        assertEquals(1, persister.pendingCount());
+        assertNull(persister.findEventId(5));
+    }
+
+    @Test
+    void poisonEventIsDroppedAfterMaxRetries() {
+        persister.publish(started(1));
+        poison.add(1L);
+
+        for (int i = 0; i <= MAX_RETRIES; i++) {
+            persister.flush();
+        }
+
+        assertEquals(0, persister.pendingCount());
+        assertTrue(written.isEmpty());
+    }
+
+    @Test
+    void eventsOfAFailedKeyWaitWithoutSpendingRetries() {
+        persister.publish(started(1));
+        persister.publish(started(2));
+        persister.publish(ended(1));
+        poison.add(1L);
+
+        persister.flush();
+        // El fin espera detrás de su inicio en lugar de escribirse sin él
+        assertEquals(List.of(2L), written);
+        assertEquals(2, persister.pendingCount());
+
+        poison.clear();
+        persister.flush();
+        assertEquals(List.of(2L, 1L, 1L), written);
+        assertEquals(0, persister.pendingCount());
+    }
+
+    @Test
+    void fullQueueRejectsStartsButAcceptsEnds() {
+        persister = new ParkingEventPersister(batchWriter, alertService, mock(ParkingHeavyHitterService.class),
+                50, MAX_RETRIES, 1);
+
+        assertTrue(persister.publish(started(1)));
+        assertFalse(persister.publish(started(2)));
+        assertTrue(persister.publish(ended(1)));
+        assertEquals(2, persister.pendingCount());
+    }
+
+    @Test
+    void releasedKeyIsForgottenBeforeAndAfterItsStartIsSaved() {
+        persister.publish(started(1));
+        persister.publish(started(2));
+        persister.release(1);
+        persister.flush();
+        persister.release(2);
+
+        assertEquals(List.of(1L, 2L), written);
+        assertNull(persister.findEventId(1));
+        assertNull(persister.findEventId(2));
+    }
+
+    private static ParkingDomainEvent started(long key) {
+        return event(ParkingDomainEvent.Type.STARTED, key);
+    }
+
+    private static ParkingDomainEvent ended(long key) {
+        return event(ParkingDomainEvent.Type.ENDED, key);
+    }
+
+    private static ParkingDomainEvent event(ParkingDomainEvent.Type type, long key) {
+        return new ParkingDomainEvent(type, key, "v" + key, 1L, LocalDateTime.of(2024, 1, 1, 8, 0),
+                BigDecimal.ONE, BigDecimal.ONE, null);
+    }
+}
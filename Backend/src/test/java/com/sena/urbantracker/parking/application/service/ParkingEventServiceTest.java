@@ -0,0 +1,158 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.application.dto.response.ParkingEventPageResDto;
+import com.sena.urbantracker.parking.application.dto.response.ParkingEventResDto;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.shared.infrastructure.exception.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ParkingEventServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 10, 8, 30);
+
+    private ParkingEventRepository repository;
+    private ParkingEventService service;
+    private final List<ParkingEventDomain> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParkingEventRepository.class);
+        service = new ParkingEventService(repository, mock(ParkingHeavyHitterService.class));
+        // Igual que la consulta: started_at e id descendentes, después del cursor
+        when(repository.findPage(any(), anyInt())).thenAnswer(invocation -> {
+            ParkingEventCursor cursor = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return events.stream()
+                    .filter(e -> e.getStartedAt().isBefore(cursor.getStartedAt())
+                            || (e.getStartedAt().isEqual(cursor.getStartedAt()) && e.getId() < cursor.getId()))
+                    .sorted(DESCENDING)
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    private static final Comparator<ParkingEventDomain> DESCENDING =
+            Comparator.comparing(ParkingEventDomain::getStartedAt)
+                    .thenComparing(ParkingEventDomain::getId)
+                    .reversed();
+
+    @Test
+    void walkingThePagesReturnsEveryEventOnceWithTiesOrderedById() {
+        // Varios eventos comparten started_at; la página de 2 corta en medio del empate
+        add(1L, T0);
+        add(2L, T0.plusMinutes(5));
+        add(3L, T0.plusMinutes(5));
+        add(4L, T0.plusMinutes(5));
+        add(5L, T0.plusMinutes(10));
+        add(6L, T0);
+        add(7L, T0.minusMinutes(1));
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ParkingEventPageResDto page = service.findAll(cursor, 2);
+            page.getItems().stream().map(ParkingEventResDto::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of(5L, 4L, 3L, 2L, 6L, 1L, 7L), ids);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void cursorCarriesTheLastEventOfThePage() {
+        add(1L, T0);
+        add(2L, T0.plusSeconds(1).plusNanos(500_000_000));
+        add(3L, T0.plusMinutes(1));
+
+        ParkingEventPageResDto first = service.findAll(null, 2);
+        service.findAll(first.getNextCursor(), 2);
+
+        ArgumentCaptor<ParkingEventCursor> cursors = ArgumentCaptor.forClass(ParkingEventCursor.class);
+        verify(repository, times(2)).findPage(cursors.capture(), eq(3));
+        assertSame(ParkingEventCursor.FIRST, cursors.getAllValues().get(0));
+        ParkingEventCursor next = cursors.getAllValues().get(1);
+        assertEquals(T0.plusSeconds(1).plusNanos(500_000_000), next.getStartedAt());
+        assertEquals(2L, next.getId());
+    }
+
+    @Test
+    void nextCursorOnlyWhenThereIsOneMoreRow() {
+        add(1L, T0);
+        add(2L, T0.plusMinutes(1));
+        add(3L, T0.plusMinutes(2));
+
+        // Exactamente limit filas: no hay página siguiente
+        ParkingEventPageResDto exact = service.findAll(null, 3);
+        assertEquals(3, exact.getItems().size());
+        assertNull(exact.getNextCursor());
+        assertEquals(3, exact.getLimit());
+
+        // limit + 1 filas: se devuelve limit y un cursor
+        ParkingEventPageResDto partial = service.findAll(null, 2);
+        assertEquals(2, partial.getItems().size());
+        assertNotNull(partial.getNextCursor());
+    }
+
+    @Test
+    void emptyResultHasNoCursorAndUsesTheDefaultLimit() {
+        ParkingEventPageResDto page = service.findAll(null, null);
+
+        assertEquals(0, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(50, page.getLimit());
+    }
+
+    @Test
+    void invalidCursorIsAValidationError() {
+        assertThrows(ValidationException.class, () -> service.findAll("%%no-es-base64%%", 10));
+        assertThrows(ValidationException.class, () -> service.findAll(encode("sin-separador"), 10));
+        assertThrows(ValidationException.class, () -> service.findAll(encode("2024-13-40T00:00|5"), 10));
+        assertThrows(ValidationException.class, () -> service.findAll(encode(T0 + "|abc"), 10));
+    }
+
+    @Test
+    void limitOutOfRangeIsAValidationError() {
+        assertThrows(ValidationException.class, () -> service.findAll(null, 0));
+        assertThrows(ValidationException.class, () -> service.findAll(null, 501));
+    }
+
+    private void add(long id, LocalDateTime startedAt) {
+        events.add(ParkingEventDomain.builder()
+                .id(id)
+                .vehicleId("bus-" + id)
+                .startedAt(startedAt)
+                .isActive(false)
+                .build());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package com.sena.urbantracker.parking.application.service;
+
+import com.sena.urbantracker.parking.application.dto.response.ParkingTopEntryDto;
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.repository.ParkingEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParkingHeavyHitterServiceTest {
+
+    private static final long SEED_CUTOFF_ID = 100L;
+
+    private ParkingEventRepository repository;
+    private long nextId = SEED_CUTOFF_ID + 1;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParkingEventRepository.class);
+        when(repository.findMaxId()).thenReturn(Optional.of(SEED_CUTOFF_ID));
+    }
+
+    @Test
+    void keyEvictedFromAFullDayCarriesThatDaysMinimumAsError() {
+        ParkingHeavyHitterService service = service(2);
+        // Día 1 lleno con mínimo 3; día 2 lleno con mínimo 1
+        repeat(service, "a", 1, 3);
+        repeat(service, "b", 1, 3);
+        repeat(service, "a", 2, 1);
+        repeat(service, "c", 2, 2);
+
+        Map<String, ParkingTopEntryDto> top = byKey(service.top(
+                ParkingHeavyHitterService.Dimension.VEHICLE, ParkingHeavyHitterService.Window.WEEK, 10));
+
+        assertEquals(4, top.get("a").getCount());
+        assertEquals(0, top.get("a").getMaxError());
+        // b no aparece el día 2, que pudo ocultar hasta 1
+        assertEquals(4, top.get("b").getCount());
+        assertEquals(1, top.get("b").getMaxError());
+        // c no aparece el día 1, que pudo ocultar hasta 3
+        assertEquals(5, top.get("c").getCount());
+        assertEquals(3, top.get("c").getMaxError());
+    }
+
+    @Test
+    void mergedFullSketchesBoundTheRealCounts() {
+        ParkingHeavyHitterService service = service(8);
+        Random random = new Random(3);
+        Map<String, Long> exact = new HashMap<>();
+        for (int daysAgo = 1; daysAgo <= 5; daysAgo++) {
+            for (int i = 0; i < 2000; i++) {
+                // Cada día favorece a vehículos distintos para que se desalojen entre días
+                String key = random.nextDouble() < 0.6
+                        ? "hot" + (daysAgo + random.nextInt(4))
+                        : "v" + random.nextInt(300);
+                service.record(nextId++, key, null, noon(daysAgo));
+                exact.merge(key, 1L, Long::sum);
+            }
+        }
+
+        List<ParkingTopEntryDto> top = service.top(
+                ParkingHeavyHitterService.Dimension.VEHICLE, ParkingHeavyHitterService.Window.WEEK, 50);
+        assertTrue(top.size() > 8);
+        for (ParkingTopEntryDto entry : top) {
+            long real = exact.getOrDefault(entry.getKey(), 0L);
+            assertTrue(entry.getCount() >= real, entry.getKey() + ": " + entry.getCount() + " < " + real);
+            assertTrue(entry.getCount() - entry.getMaxError() <= real,
+                    entry.getKey() + ": " + entry.getCount() + " - " + entry.getMaxError() + " > " + real);
+        }
+    }
+
+    @Test
+    void eventsSavedDuringTheSeedAreCountedOnce() {
+        ParkingHeavyHitterService service = service(16);
+        // 101 se guardó después del corte: lo registró el persister y la consulta también lo ve
+        when(repository.findPageStartedBetween(any(), any(), any(), anyInt())).thenReturn(List.of(
+                event(99L, "bus-1"),
+                event(100L, "bus-1"),
+                event(101L, "bus-1")));
+        service.record(101L, "bus-1", null, noon(1));
+
+        service.seed();
+        // Un evento anterior al corte que llegue a record() ya está en la carga inicial
+        service.record(100L, "bus-1", null, noon(1));
+
+        assertEquals(3, service.top(
+                ParkingHeavyHitterService.Dimension.VEHICLE, ParkingHeavyHitterService.Window.WEEK, 1).get(0).getCount());
+    }
+
+    private ParkingHeavyHitterService service(int capacity) {
+        ParkingHeavyHitterService service = new ParkingHeavyHitterService(repository, capacity);
+        service.captureSeedCutoff();
+        return service;
+    }
+
+    private void repeat(ParkingHeavyHitterService service, String vehicleId, int daysAgo, int times) {
+        for (int i = 0; i < times; i++) {
+            service.record(nextId++, vehicleId, null, noon(daysAgo));
+        }
+    }
+
+    private static ParkingEventDomain event(long id, String vehicleId) {
+        return ParkingEventDomain.builder()
+                .id(id)
+                .vehicleId(vehicleId)
+                .startedAt(noon(1))
+                .build();
+    }
+
+    // Mediodía para que la prueba no dependa de la hora en que corre
+    private static LocalDateTime noon(int daysAgo) {
+        return LocalDateTime.now().toLocalDate().minusDays(daysAgo).atTime(LocalTime.NOON);
+    }
+
+    private static Map<String, ParkingTopEntryDto> byKey(List<ParkingTopEntryDto> entries) {
+        return entries.stream().collect(Collectors.toMap(ParkingTopEntryDto::getKey, entry -> entry));
+    }
+}
@@ -0,0 +1,44 @@
+package com.sena.urbantracker.parking.domain.detection;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Memoria por vehículo del estado de estacionamiento, medida con JOL sobre la JVM que corre el test
+ */
+class ParkingStateLayoutTest {
+
+    // Un bloque completo del almacén (CHUNK_SIZE)
+    private static final int VEHICLES = 1024;
+
+    @Test
+    void parkingStateFitsInOneSmallObject() {
+        ClassLayout layout = ClassLayout.parseClass(ParkingState.class);
+
+        // 2 int + 3 long + 1 boolean: 48 bytes con compressed class pointers, 56 sin ellos
+        assertTrue(layout.instanceSize() <= 56,
+                () -> "ParkingState ocupa " + layout.instanceSize() + " bytes\n" + layout.toPrintable());
+    }
+
+    @Test
+    void storeCostsAboutOneStatePlusOneSlotPerVehicle() {
+        ParkingStateStore store = new ParkingStateStore();
+        for (int vehicleIndex = 0; vehicleIndex < VEHICLES; vehicleIndex++) {
+            store.withState(vehicleIndex, state -> {
+                state.setLastTimestamp(1L);
+                return null;
+            });
+        }
+
+        GraphLayout graph = GraphLayout.parseInstance(store);
+        long perVehicle = graph.totalSize() / VEHICLES;
+
+        long stateSize = ClassLayout.parseClass(ParkingState.class).instanceSize();
+        // El slot del bloque es una referencia (4 u 8 bytes); locks y arreglo de bloques se reparten entre 1024
+        assertTrue(perVehicle <= stateSize + 16,
+                () -> "El almacén usa " + perVehicle + " bytes por vehículo\n" + graph.toFootprint());
+    }
+}
@@ -0,0 +1,83 @@
+package com.sena.urbantracker.parking.domain.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest {
+
+    private static final int CAPACITY = 50;
+    private static final int STREAM = 200_000;
+
+    private final Random random = new Random(11);
+
+    @Test
+    void countsAreExactWhileEveryKeyFits() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String key = "v" + random.nextInt(CAPACITY);
+            sketch.offer(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        sketch.forEach((key, count, error) -> {
+            assertEquals(0, error);
+            counts.put(key, count);
+        });
+        assertEquals(exact, counts);
+    }
+
+    @Test
+    void skewedStreamKeepsSpaceSavingGuaranteesAgainstBruteForce() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < STREAM; i++) {
+            // Pocos vehículos concentran la mayoría de los estacionamientos, con una cola larga
+            String key = random.nextDouble() < 0.7 ? "hot" + random.nextInt(10) : "v" + random.nextInt(5000);
+            sketch.offer(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        long[] total = new long[1];
+        Map<String, Long> tracked = new HashMap<>();
+        sketch.forEach((key, count, error) -> {
+            long real = exact.getOrDefault(key, 0L);
+            // El conteo nunca subestima y sobreestima a lo sumo en su error
+            assertTrue(count >= real, key + ": " + count + " < " + real);
+            assertTrue(count - error <= real, key + ": " + count + " - " + error + " > " + real);
+            assertTrue(error <= STREAM / CAPACITY, key + ": error " + error);
+            total[0] += count;
+            tracked.put(key, count);
+        });
+
+        assertEquals(CAPACITY, tracked.size());
+        assertEquals(STREAM, total[0]);
+        // Todo elemento con más de N/capacity apariciones tiene que estar
+        exact.forEach((key, real) -> {
+            if (real > STREAM / CAPACITY) {
+                assertTrue(tracked.containsKey(key), key + " con " + real + " apariciones no está");
+            }
+        });
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer("a");
+        sketch.offer("b");
+        sketch.offer("c");
+        sketch.clear();
+        sketch.offer("d");
+
+        Map<String, Long> counts = new HashMap<>();
+        sketch.forEach((key, count, error) -> counts.put(key, count));
+        assertEquals(Map.of("d", 1L), counts);
+    }
+}
@@ -0,0 +1,145 @@
+package com.sena.urbantracker.parking.domain.zone;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingZoneDomain;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingZoneType;
+import com.sena.urbantracker.parking.domain.valueobject.ZoneVertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Path2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkingZoneIndexTest {
+
+    private static final double CELL_DEGREES = 0.001;
+    private static final double CENTER_LAT = 4.65;
+    private static final double CENTER_LON = -74.10;
+    private static final long[] COMPANIES = {1L, 2L};
+
+    private final Random random = new Random(5);
+    private final List<ParkingZoneDomain> domains = new ArrayList<>();
+    private ParkingZoneIndex index;
+
+    @BeforeEach
+    void setUp() {
+        long id = 1;
+        for (int i = 0; i < 300; i++) {
+            // Zonas pequeñas (terminales, patios) que van a la grilla
+            domains.add(zone(id++, 0.0005 + random.nextDouble() * 0.01, random.nextInt(5) == 0, true));
+        }
+        for (int i = 0; i < 5; i++) {
+            // Geocercas de más de MAX_CELLS_PER_ZONE celdas: se revisan sin grilla
+            domains.add(zone(id++, 0.08 + random.nextDouble() * 0.05, false, true));
+        }
+        for (int i = 0; i < 20; i++) {
+            domains.add(zone(id++, 0.01, true, false));
+        }
+        index = ParkingZoneIndex.compile(domains, CELL_DEGREES);
+    }
+
+    @Test
+    void findMatchesBruteForce() {
+        for (int q = 0; q < 20_000; q++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.3;
+            double lon = CENTER_LON + (random.nextDouble() - 0.5) * 0.3;
+            Long companyId = COMPANIES[random.nextInt(COMPANIES.length)];
+
+            Set<Long> expected = bruteForce(companyId, lat, lon).stream()
+                    .map(ParkingZoneDomain::getId)
+                    .collect(Collectors.toSet());
+            Set<Long> actual = index.find(companyId, lat, lon).stream()
+                    .map(ParkingZoneIndex.Zone::getId)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void matchPrefersExemptZones() {
+        int matched = 0;
+        for (int q = 0; q < 20_000; q++) {
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.3;
+            double lon = CENTER_LON + (random.nextDouble() - 0.5) * 0.3;
+            Long companyId = COMPANIES[random.nextInt(COMPANIES.length)];
+
+            List<ParkingZoneDomain> expected = bruteForce(companyId, lat, lon);
+            ParkingZoneIndex.Zone zone = index.match(companyId, lat, lon);
+            if (expected.isEmpty()) {
+                assertNull(zone);
+                continue;
+            }
+            matched++;
+            boolean anyExempt = expected.stream().anyMatch(d -> Boolean.TRUE.equals(d.getExemptFromParking()));
+            assertTrue(expected.stream().anyMatch(d -> d.getId().equals(zone.getId())));
+            assertEquals(anyExempt, zone.isExemptFromParking());
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test
+    void inactiveAndDegenerateZonesAreNotCompiled() {
+        ParkingZoneDomain line = zone(1000L, 0.01, false, true);
+        line.setVertices(line.getVertices().subList(0, 2));
+
+        ParkingZoneIndex compiled = ParkingZoneIndex.compile(List.of(line, zone(1001L, 0.01, false, false)), CELL_DEGREES);
+
+        assertEquals(0, compiled.size());
+        assertTrue(compiled.find(COMPANIES[0], CENTER_LAT, CENTER_LON).isEmpty());
+    }
+
+    // Path2D como referencia independiente del ray casting del índice
+    private List<ParkingZoneDomain> bruteForce(Long companyId, double lat, double lon) {
+        List<ParkingZoneDomain> result = new ArrayList<>();
+        for (ParkingZoneDomain domain : domains) {
+            if (!Boolean.TRUE.equals(domain.getIsActive()) || !companyId.equals(domain.getCompanyId())) {
+                continue;
+            }
+            Path2D.Double polygon = new Path2D.Double();
+            List<ZoneVertex> vertices = domain.getVertices();
+            polygon.moveTo(vertices.get(0).getLongitude(), vertices.get(0).getLatitude());
+            for (int i = 1; i < vertices.size(); i++) {
+                polygon.lineTo(vertices.get(i).getLongitude(), vertices.get(i).getLatitude());
+            }
+            polygon.closePath();
+            if (polygon.contains(lon, lat)) {
+                result.add(domain);
+            }
+        }
+        return result;
+    }
+
+    // Polígono en estrella (simple, a veces cóncavo) de 3 a 12 vértices alrededor de un centro al azar
+    private ParkingZoneDomain zone(long id, double radius, boolean exempt, boolean active) {
+        double centerLat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.3;
+        double centerLon = CENTER_LON + (random.nextDouble() - 0.5) * 0.3;
+        int n = 3 + random.nextInt(10);
+        double[] angles = new double[n];
+        for (int i = 0; i < n; i++) {
+            angles[i] = random.nextDouble() * 2 * Math.PI;
+        }
+        Arrays.sort(angles);
+        List<ZoneVertex> vertices = new ArrayList<>(n);
+        for (double angle : angles) {
+            double r = radius * (0.3 + random.nextDouble() * 0.7);
+            vertices.add(new ZoneVertex(centerLat + r * Math.sin(angle), centerLon + r * Math.cos(angle)));
+        }
+        return ParkingZoneDomain.builder()
+                .id(id)
+                .companyId(COMPANIES[(int) (id % COMPANIES.length)])
+                .name("zona " + id)
+                .type(exempt ? ParkingZoneType.TERMINAL : ParkingZoneType.GEOFENCE)
+                .exemptFromParking(exempt)
+                .vertices(vertices)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sena.urbantracker.parking.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParkingStateCheckpointFileTest {
+
+    private static final int MAGIC = 0x504B5354;
+    private static final int VERSION = 1;
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private ParkingStateCheckpointFile file;
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("state/parking-state.bin");
+        file = new ParkingStateCheckpointFile(path.toString());
+    }
+
+    @Test
+    void entriesSurviveARoundTrip() throws IOException {
+        List<ParkingStateCheckpointFile.Entry> entries = List.of(
+                new ParkingStateCheckpointFile.Entry("bus-1", 4_650_000, -74_100_000, 1_700_000_000_000L, 120_000L),
+                new ParkingStateCheckpointFile.Entry("bús-ñ", -90_000_000, 180_000_000, Long.MAX_VALUE, 0L),
+                new ParkingStateCheckpointFile.Entry("", 0, 0, 0L, Long.MAX_VALUE));
+        long before = System.currentTimeMillis();
+
+        file.write(entries);
+
+        ParkingStateCheckpointFile.Checkpoint checkpoint = file.read();
+        assertNotNull(checkpoint);
+        assertTrue(checkpoint.getCreatedAt() >= before);
+        assertEquals(entries.size(), checkpoint.getEntries().size());
+        for (int i = 0; i < entries.size(); i++) {
+            ParkingStateCheckpointFile.Entry expected = entries.get(i);
+            ParkingStateCheckpointFile.Entry actual = checkpoint.getEntries().get(i);
+            assertEquals(expected.getVehicleId(), actual.getVehicleId());
+            assertEquals(expected.getLatitudeE6(), actual.getLatitudeE6());
+            assertEquals(expected.getLongitudeE6(), actual.getLongitudeE6());
+            assertEquals(expected.getLastTimestamp(), actual.getLastTimestamp());
+            assertEquals(expected.getAccumulatedParkedMillis(), actual.getAccumulatedParkedMillis());
+        }
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void emptyCheckpointIsReadBack() throws IOException {
+        file.write(List.of());
+
+        assertTrue(file.read().getEntries().isEmpty());
+    }
+
+    @Test
+    void missingFileReadsAsNull() {
+        assertNull(file.read());
+    }
+
+    @Test
+    void unknownFormatReadsAsNull() throws IOException {
+        writeRaw(header(0xCAFEBABE, VERSION, 0));
+        assertNull(file.read());
+
+        writeRaw(header(MAGIC, VERSION + 1, 0));
+        assertNull(file.read());
+    }
+
+    @Test
+    void countThatDoesNotFitTheFileReadsAsNull() throws IOException {
+        writeRaw(header(MAGIC, VERSION, Integer.MAX_VALUE));
+        assertNull(file.read());
+
+        writeRaw(header(MAGIC, VERSION, -1));
+        assertNull(file.read());
+    }
+
+    @Test
+    void truncatedFileReadsAsNull() throws IOException {
+        file.write(List.of(new ParkingStateCheckpointFile.Entry("bus-1", 1, 2, 3L, 4L)));
+        byte[] bytes = Files.readAllBytes(path);
+
+        writeRaw(Arrays.copyOf(bytes, bytes.length - 5));
+
+        assertNull(file.read());
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, bytes);
+    }
+
+    private static byte[] header(int magic, int version, int count) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(count);
+        }
+        return bytes.toByteArray();
+    }
+}
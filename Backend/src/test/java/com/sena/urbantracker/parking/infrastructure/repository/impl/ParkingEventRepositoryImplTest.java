@@ -0,0 +1,145 @@
+package com.sena.urbantracker.parking.infrastructure.repository.impl;
+
+import com.sena.urbantracker.parking.domain.entity.ParkingEventDomain;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventCursor;
+import com.sena.urbantracker.parking.domain.valueobject.ParkingEventTotals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Consultas JPQL de eventos de estacionamiento contra H2
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@Import(ParkingEventRepositoryImpl.class)
+class ParkingEventRepositoryImplTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 5, 10, 8, 30);
+
+    @Autowired
+    private ParkingEventRepositoryImpl repository;
+
+    @Test
+    void pagesFollowStartedAtThenIdDescendingAcrossTies() {
+        List<Long> expected = new ArrayList<>();
+        long older = save("bus-1", T0, false);
+        long tieA = save("bus-2", T0.plusMinutes(5), false);
+        long tieB = save("bus-3", T0.plusMinutes(5), true);
+        long tieC = save("bus-4", T0.plusMinutes(5), false);
+        long newest = save("bus-5", T0.plusMinutes(10), false);
+        expected.add(newest);
+        expected.add(tieC);
+        expected.add(tieB);
+        expected.add(tieA);
+        expected.add(older);
+
+        List<Long> ids = new ArrayList<>();
+        ParkingEventCursor cursor = ParkingEventCursor.FIRST;
+        while (true) {
+            List<ParkingEventDomain> page = repository.findPage(cursor, 2);
+            page.forEach(event -> ids.add(event.getId()));
+            if (page.size() < 2) {
+                break;
+            }
+            ParkingEventDomain last = page.get(page.size() - 1);
+            cursor = new ParkingEventCursor(last.getStartedAt(), last.getId());
+        }
+
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void cursorInsideATieResumesWithTheNextLowerId() {
+        save("bus-1", T0, false);
+        long tieA = save("bus-2", T0, false);
+        long tieB = save("bus-3", T0, false);
+        long tieC = save("bus-4", T0, false);
+
+        List<ParkingEventDomain> page = repository.findPage(new ParkingEventCursor(T0, tieC), 2);
+
+        assertEquals(List.of(tieB, tieA), page.stream().map(ParkingEventDomain::getId).toList());
+    }
+
+    @Test
+    void filteredPagesKeepTheRangeAndTheKeysetOrder() {
+        long first = save("bus-1", T0, false);
+        save("bus-2", T0.plusMinutes(1), false);
+        long second = save("bus-1", T0.plusMinutes(2), true);
+        long third = save("bus-1", T0.plusMinutes(2), false);
+        save("bus-1", T0.plusDays(2), false);
+
+        List<ParkingEventDomain> page = repository.findPageByVehicleId(
+                "bus-1", T0, T0.plusDays(1), ParkingEventCursor.FIRST, 10);
+        assertEquals(List.of(third, second, first), page.stream().map(ParkingEventDomain::getId).toList());
+
+        List<ParkingEventDomain> active = repository.findActivePage(ParkingEventCursor.FIRST, 10);
+        assertEquals(List.of(second), active.stream().map(ParkingEventDomain::getId).toList());
+    }
+
+    @Test
+    void totalsOnAnEmptyTableAreZeroWithoutLastEvent() {
+        LocalDateTime todayStart = T0.toLocalDate().atStartOfDay();
+
+        ParkingEventTotals totals = repository.computeTotals(todayStart, todayStart.plusDays(1), T0.minusDays(7));
+
+        assertEquals(0, totals.getTotalEvents());
+        assertEquals(0, totals.getActiveEvents());
+        assertEquals(0, totals.getEventsToday());
+        assertEquals(0, totals.getEventsThisWeek());
+        assertEquals(0.0, totals.getAverageDurationMinutes());
+        assertNull(totals.getLastEventTime());
+    }
+
+    @Test
+    void totalsCountTodayAndWeekOnTheirBounds() {
+        LocalDateTime todayStart = T0.toLocalDate().atStartOfDay();
+        LocalDateTime tomorrowStart = todayStart.plusDays(1);
+        LocalDateTime weekStart = todayStart.minusDays(7);
+
+        // Hoy incluye su inicio y excluye el de mañana; la semana excluye su propio inicio
+        save("bus-1", todayStart, 10);
+        save("bus-2", tomorrowStart.minusSeconds(1), null);
+        save("bus-3", tomorrowStart, 30);
+        save("bus-4", weekStart, 50);
+        save("bus-5", weekStart.plusSeconds(1), null);
+
+        ParkingEventTotals totals = repository.computeTotals(todayStart, tomorrowStart, weekStart);
+
+        assertEquals(5, totals.getTotalEvents());
+        assertEquals(2, totals.getActiveEvents());
+        assertEquals(2, totals.getEventsToday());
+        assertEquals(4, totals.getEventsThisWeek());
+        // Los eventos abiertos no tienen duración y no entran en el promedio
+        assertEquals(30.0, totals.getAverageDurationMinutes(), 1e-9);
+        assertEquals(tomorrowStart, totals.getLastEventTime());
+    }
+
+    private long save(String vehicleId, LocalDateTime startedAt, boolean open) {
+        return save(vehicleId, startedAt, open ? null : 20);
+    }
+
+    // Sin duración el evento queda abierto
+    private long save(String vehicleId, LocalDateTime startedAt, Integer durationMinutes) {
+        boolean open = durationMinutes == null;
+        return repository.save(ParkingEventDomain.builder()
+                .vehicleId(vehicleId)
+                .startedAt(startedAt)
+                .endedAt(open ? null : startedAt.plusMinutes(durationMinutes))
+                .totalDurationMinutes(durationMinutes)
+                .isActive(open)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,68 @@
+package com.sena.urbantracker.shared.infrastructure.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * distanceMeters contra haversineMeters sobre pares de puntos de telemetría
+ * consecutiva en Bogotá (desplazamientos de hasta ~500 m). El resultado es por llamada.
+ *
+ * Ejecutar:
+ *   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main GeoMathBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoMathBenchmark {
+
+    private static final int POINTS = 4096;
+
+    private final double[] lat1 = new double[POINTS];
+    private final double[] lon1 = new double[POINTS];
+    private final double[] lat2 = new double[POINTS];
+    private final double[] lon2 = new double[POINTS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            lat1[i] = 4.5 + random.nextDouble() * 0.3;
+            lon1[i] = -74.2 + random.nextDouble() * 0.2;
+            lat2[i] = lat1[i] + (random.nextDouble() - 0.5) * 0.009;
+            lon2[i] = lon1[i] + (random.nextDouble() - 0.5) * 0.009;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void distanceMeters(Blackhole blackhole) {
+        for (int i = 0; i < POINTS; i++) {
+            blackhole.consume(GeoMath.distanceMeters(lat1[i], lon1[i], lat2[i], lon2[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void haversineMeters(Blackhole blackhole) {
+        for (int i = 0; i < POINTS; i++) {
+            blackhole.consume(GeoMath.haversineMeters(lat1[i], lon1[i], lat2[i], lon2[i]));
+        }
+    }
+}
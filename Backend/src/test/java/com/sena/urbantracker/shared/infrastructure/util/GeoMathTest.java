@@ -0,0 +1,48 @@
+package com.sena.urbantracker.shared.infrastructure.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoMathTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void shortDistancesStayWithinFiveHundredthsOfAPercentOfHaversineInColombia() {
+        Random random = new Random(42);
+        double maxRelativeError = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double lat1 = -5 + random.nextDouble() * 20;
+            double lon1 = -80 + random.nextDouble() * 14;
+            // Desplazamientos de hasta ~0.18° por eje: cubre todo el rango del atajo
+            double lat2 = lat1 + (random.nextDouble() - 0.5) * 0.36;
+            double lon2 = lon1 + (random.nextDouble() - 0.5) * 0.36;
+
+            double exact = GeoMath.haversineMeters(lat1, lon1, lat2, lon2);
+            double fast = GeoMath.distanceMeters(lat1, lon1, lat2, lon2);
+            if (exact < 1.0) {
+                assertEquals(exact, fast, 0.001);
+                continue;
+            }
+            maxRelativeError = Math.max(maxRelativeError, Math.abs(fast - exact) / exact);
+        }
+        assertTrue(maxRelativeError < 0.0005, "error relativo máximo " + maxRelativeError);
+    }
+
+    @Test
+    void longDistancesUseHaversine() {
+        double bogotaLat = 4.7110, bogotaLon = -74.0721;
+        double medellinLat = 6.2442, medellinLon = -75.5812;
+        assertEquals(GeoMath.haversineMeters(bogotaLat, bogotaLon, medellinLat, medellinLon),
+                GeoMath.distanceMeters(bogotaLat, bogotaLon, medellinLat, medellinLon), 1e-9);
+    }
+
+    @Test
+    void samePointIsZero() {
+        assertEquals(0.0, GeoMath.distanceMeters(4.6, -74.1, 4.6, -74.1), 0.0);
+    }
+}